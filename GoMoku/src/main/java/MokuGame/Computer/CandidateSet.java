@@ -0,0 +1,218 @@
+package MokuGame.Computer;
+
+import MokuGame.Core.BoardListener;
+import MokuGame.Core.GoMokuBoard;
+
+import java.util.Arrays;
+
+/**
+ * The empty cells within a fixed distance of any stone, kept up to date as the board changes.
+ * These are the only moves worth searching, and on a large board they are a small share of the
+ * empty cells. For every cell the set counts the stones within the distance, so placing or removing
+ * a stone only touches the square around it, and undoing a move restores the set exactly.
+ * Distance is measured as the larger of the row and column distance.
+ *
+ * The cells are kept in a sparse set, so membership, add and remove are O(1) and the set
+ * can be copied into a move buffer without scanning the board.
+ * An instance listens to one board and, like the board, must be used by one thread.
+ */
+public class CandidateSet implements BoardListener {
+
+    /** Default distance from a stone. */
+    public static final int DEFAULT_RADIUS = 2;
+
+    private final int radius;
+
+    private GoMokuBoard board;
+    private int rows;
+    private int columns;
+    private int[] nearby;
+    private int[] cells;
+    private int[] slot;
+    private int count;
+
+    /**
+     * Creates a set with the default radius and attaches it to a board.
+     *
+     * @param board the board to follow
+     */
+    public CandidateSet(GoMokuBoard board) {
+        this(board, DEFAULT_RADIUS);
+    }
+
+    /**
+     * Creates a set and attaches it to a board.
+     *
+     * @param board the board to follow
+     * @param radius the distance from a stone a candidate may be, at least 1
+     */
+    public CandidateSet(GoMokuBoard board, int radius) {
+        if (radius < 1) {
+            throw new IllegalArgumentException("radius must be at least 1");
+        }
+        this.radius = radius;
+        attach(board);
+    }
+
+    /**
+     * Follows another board, rebuilding the set from it.
+     * The set stops listening to its previous board.
+     *
+     * @param board the board to follow
+     */
+    public void attach(GoMokuBoard board) {
+        if (this.board != null) {
+            this.board.removeListener(this);
+        }
+        this.board = board;
+        if (nearby == null || rows != board.getRows() || columns != board.getColumns()) {
+            rows = board.getRows();
+            columns = board.getColumns();
+            nearby = new int[rows * columns];
+            cells = new int[rows * columns];
+            slot = new int[rows * columns];
+        }
+        board.addListener(this);
+        boardCleared(board);
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                if (!board.isEmpty(r, c)) {
+                    stoneAdded(r, c);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops listening to the board. The set is left as it was.
+     */
+    public void detach() {
+        if (board != null) {
+            board.removeListener(this);
+            board = null;
+        }
+    }
+
+    /**
+     * Gets the distance from a stone a candidate may be.
+     *
+     * @return the radius
+     */
+    public int getRadius() {
+        return radius;
+    }
+
+    /**
+     * Gets the number of candidates.
+     *
+     * @return the candidate count, 0 on an empty board
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Gets a candidate by position in the set. The order changes as the board changes.
+     *
+     * @param i the position, from 0 to size() - 1
+     * @return the cell index of the candidate
+     */
+    public int get(int i) {
+        return cells[i];
+    }
+
+    /**
+     * Checks if a cell is a candidate.
+     *
+     * @param cell the cell index
+     * @return true if the cell is empty and within the radius of a stone
+     */
+    public boolean contains(int cell) {
+        int i = slot[cell];
+        return i < count && cells[i] == cell;
+    }
+
+    /**
+     * Copies the candidates into a buffer.
+     *
+     * @param out the buffer, at least size() long
+     * @return the number of candidates copied
+     */
+    public int copyTo(int[] out) {
+        System.arraycopy(cells, 0, out, 0, count);
+        return count;
+    }
+
+    /**
+     * Updates the counts around a cell whose stone appeared or disappeared.
+     *
+     * @param board the board that changed
+     * @param row the row index
+     * @param column the column index
+     * @param previous the old cell value
+     * @param current the new cell value
+     */
+    @Override
+    public void cellChanged(GoMokuBoard board, int row, int column, char previous, char current) {
+        boolean wasEmpty = previous != GoMokuBoard.Player1 && previous != GoMokuBoard.Player2;
+        boolean isEmpty = current != GoMokuBoard.Player1 && current != GoMokuBoard.Player2;
+        if (wasEmpty && !isEmpty) {
+            stoneAdded(row, column);
+        } else if (!wasEmpty && isEmpty) {
+            stoneRemoved(row, column);
+        }
+    }
+
+    /**
+     * Empties the set after the board was cleared.
+     *
+     * @param board the board that was cleared
+     */
+    @Override
+    public void boardCleared(GoMokuBoard board) {
+        Arrays.fill(nearby, 0);
+        count = 0;
+    }
+
+    private void stoneAdded(int row, int column) {
+        int cell = row * columns + column;
+        if (contains(cell)) {
+            remove(cell);
+        }
+        for (int r = Math.max(0, row - radius); r <= Math.min(rows - 1, row + radius); r++) {
+            for (int c = Math.max(0, column - radius); c <= Math.min(columns - 1, column + radius); c++) {
+                int index = r * columns + c;
+                if (nearby[index]++ == 0 && index != cell && board.isEmpty(r, c)) {
+                    add(index);
+                }
+            }
+        }
+    }
+
+    private void stoneRemoved(int row, int column) {
+        int cell = row * columns + column;
+        for (int r = Math.max(0, row - radius); r <= Math.min(rows - 1, row + radius); r++) {
+            for (int c = Math.max(0, column - radius); c <= Math.min(columns - 1, column + radius); c++) {
+                int index = r * columns + c;
+                if (--nearby[index] == 0 && index != cell && contains(index)) {
+                    remove(index);
+                }
+            }
+        }
+        if (nearby[cell] > 0) {
+            add(cell); // other stones are still close enough
+        }
+    }
+
+    private void add(int cell) {
+        slot[cell] = count;
+        cells[count++] = cell;
+    }
+
+    private void remove(int cell) {
+        int i = slot[cell];
+        int last = cells[--count];
+        cells[i] = last;
+        slot[last] = i;
+    }
+}
@@ -0,0 +1,189 @@
+package MokuGame.Computer;
+
+import MokuGame.Core.BoardListener;
+import MokuGame.Core.GoMokuBoard;
+
+import java.util.Arrays;
+
+/**
+ * Pattern evaluator that keeps its counts up to date as the board changes instead of
+ * rescanning the whole board. It remembers the pattern counts of every row, column and
+ * diagonal for both players, and when a cell changes it rescans only the four lines through it.
+ * Undoing a move is just another change, so a search can make and unmake moves on the board
+ * and read the evaluation in O(1).
+ *
+ * The counts match what PatternEvaluator.countPatterns finds on the same board.
+ * An instance listens to one board and, like the board, must be used by one thread.
+ */
+public class IncrementalEvaluator implements BoardListener {
+
+    private final PatternEvaluator scanner = new PatternEvaluator();
+    private final int[] totals1 = new int[PatternEvaluator.PATTERN_COUNT];
+    private final int[] totals2 = new int[PatternEvaluator.PATTERN_COUNT];
+
+    private GoMokuBoard board;
+    private int rows;
+    private int columns;
+    private int diagonals;
+    private int[][] lineCounts1;
+    private int[][] lineCounts2;
+
+    /**
+     * Creates an evaluator and attaches it to a board.
+     *
+     * @param board the board to follow
+     */
+    public IncrementalEvaluator(GoMokuBoard board) {
+        attach(board);
+    }
+
+    /**
+     * Follows another board, rebuilding all counts from it.
+     * The evaluator stops listening to its previous board.
+     *
+     * @param board the board to follow
+     */
+    public void attach(GoMokuBoard board) {
+        if (this.board != null) {
+            this.board.removeListener(this);
+        }
+        this.board = board;
+        if (lineCounts1 == null || rows != board.getRows() || columns != board.getColumns()) {
+            rows = board.getRows();
+            columns = board.getColumns();
+            diagonals = rows + columns - 1;
+            int lines = rows + columns + 2 * diagonals;
+            lineCounts1 = new int[lines][PatternEvaluator.PATTERN_COUNT];
+            lineCounts2 = new int[lines][PatternEvaluator.PATTERN_COUNT];
+        }
+        board.addListener(this);
+        rebuild();
+    }
+
+    /**
+     * Stops listening to the board. The counts are left as they were.
+     */
+    public void detach() {
+        if (board != null) {
+            board.removeListener(this);
+            board = null;
+        }
+    }
+
+    /**
+     * Scores the board from the point of view of the player about to move, the same way
+     * PatternEvaluator.evaluate does.
+     *
+     * @param sideToMove the player about to move
+     * @return positive if the position favours sideToMove, negative otherwise
+     */
+    public int evaluate(char sideToMove) {
+        return sideToMove == GoMokuBoard.Player1
+            ? PatternEvaluator.score(totals1, totals2)
+            : PatternEvaluator.score(totals2, totals1);
+    }
+
+    /**
+     * Gets how many times a player has a pattern on the board.
+     *
+     * @param player the player character
+     * @param pattern a pattern constant from PatternEvaluator, such as PatternEvaluator.OPEN_THREE
+     * @return the pattern count
+     */
+    public int getCount(char player, int pattern) {
+        return player == GoMokuBoard.Player1 ? totals1[pattern] : totals2[pattern];
+    }
+
+    /**
+     * Rescans the four lines through the changed cell.
+     *
+     * @param board the board that changed
+     * @param row the row index
+     * @param column the column index
+     * @param previous the old cell value
+     * @param current the new cell value
+     */
+    @Override
+    public void cellChanged(GoMokuBoard board, int row, int column, char previous, char current) {
+        rescan(row, 0, 0, 1, columns, row);
+        rescan(0, column, 1, 0, rows, rows + column);
+
+        int diagonal = column - row + rows - 1;
+        int startRow = Math.max(0, row - column);
+        int startColumn = Math.max(0, column - row);
+        rescan(startRow, startColumn, 1, 1, Math.min(rows - startRow, columns - startColumn),
+            rows + columns + diagonal);
+
+        int anti = row + column;
+        startRow = Math.max(0, anti - columns + 1);
+        startColumn = Math.min(anti, columns - 1);
+        rescan(startRow, startColumn, 1, -1, Math.min(rows - startRow, startColumn + 1),
+            rows + columns + diagonals + anti);
+    }
+
+    /**
+     * Resets all counts after the board was cleared.
+     *
+     * @param board the board that was cleared
+     */
+    @Override
+    public void boardCleared(GoMokuBoard board) {
+        for (int[] counts : lineCounts1) {
+            Arrays.fill(counts, 0);
+        }
+        for (int[] counts : lineCounts2) {
+            Arrays.fill(counts, 0);
+        }
+        Arrays.fill(totals1, 0);
+        Arrays.fill(totals2, 0);
+    }
+
+    /**
+     * Rebuilds every line's counts from the board.
+     */
+    private void rebuild() {
+        boardCleared(board);
+        for (int r = 0; r < rows; r++) {
+            rescan(r, 0, 0, 1, columns, r);
+        }
+        for (int c = 0; c < columns; c++) {
+            rescan(0, c, 1, 0, rows, rows + c);
+        }
+        for (int d = 0; d < diagonals; d++) {
+            int startRow = Math.max(0, rows - 1 - d);
+            int startColumn = Math.max(0, d - rows + 1);
+            rescan(startRow, startColumn, 1, 1, Math.min(rows - startRow, columns - startColumn),
+                rows + columns + d);
+            startRow = Math.max(0, d - columns + 1);
+            startColumn = Math.min(d, columns - 1);
+            rescan(startRow, startColumn, 1, -1, Math.min(rows - startRow, startColumn + 1),
+                rows + columns + diagonals + d);
+        }
+    }
+
+    /**
+     * Replaces one line's contribution to the totals with a fresh scan of it.
+     *
+     * @param row the row of the first cell
+     * @param column the column of the first cell
+     * @param dRow the row step
+     * @param dColumn the column step
+     * @param length the number of cells in the line
+     * @param line the line's slot in the count arrays
+     */
+    private void rescan(int row, int column, int dRow, int dColumn, int length, int line) {
+        int[] counts1 = lineCounts1[line];
+        int[] counts2 = lineCounts2[line];
+        for (int p = 0; p < PatternEvaluator.PATTERN_COUNT; p++) {
+            totals1[p] -= counts1[p];
+            totals2[p] -= counts2[p];
+        }
+        Arrays.fill(counts1, 0);
+        Arrays.fill(counts2, 0);
+        scanner.scanLine(board, row, column, dRow, dColumn, length, counts1, counts2);
+        for (int p = 0; p < PatternEvaluator.PATTERN_COUNT; p++) {
+            totals1[p] += counts1[p];
+            totals2[p] += counts2[p];
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package MokuGame.Computer;
+
+import MokuGame.Core.GoMokuBoard;
+import MokuGame.Service.GoMoKuGameService;
+
+import java.util.Arrays;
+
+/**
+ * Sorts a node's moves so that alpha-beta tries the likeliest best move first.
+ * Moves are tried in stages: the transposition table move, then moves that make five or block
+ * the opponent's five, then moves that make or block fours and threes, then the killer moves of the
+ * ply, and last the rest ranked by the history table. Each stage can be switched off on its own,
+ * so its effect on node counts can be measured; moves no enabled stage ranks keep their generated order.
+ *
+ * Killers and history are learned from beta cutoffs during a search and are cleared between searches.
+ * An instance belongs to one search thread.
+ */
+public class MoveOrderer {
+
+    /** Try the transposition table move first. */
+    public static final int STAGE_TABLE_MOVE = 1;
+    /** Try moves that make five, then moves that block the opponent's five. */
+    public static final int STAGE_WINS = 2;
+    /** Try moves that make or block fours and open threes. */
+    public static final int STAGE_THREATS = 4;
+    /** Try the two moves that last caused a cutoff at the same ply. */
+    public static final int STAGE_KILLERS = 8;
+    /** Rank the remaining moves by how often they caused cutoffs anywhere. */
+    public static final int STAGE_HISTORY = 16;
+    /** Every stage. */
+    public static final int ALL_STAGES = 31;
+
+    private static final int TABLE_MOVE_SCORE = 1 << 30;
+    private static final int WIN_SCORE = 1 << 29;
+    private static final int BLOCK_WIN_SCORE = 1 << 28;
+    private static final int THREAT_SCORE = 1 << 24;
+    private static final int KILLER_SCORE = 1 << 22;
+    private static final int HISTORY_LIMIT = 1 << 20;
+    private static final int THREAT_THRESHOLD = 200;
+    private static final int TACTICAL_MIN_DEPTH = 2;
+
+    private static final int[] DR = {0, 1, 1, 1};
+    private static final int[] DC = {1, 0, 1, -1};
+
+    private final int stages;
+    private final int[][] killers;
+    private final int[][] history;
+    private final int[] scores;
+
+    // second result of runLength
+    private int openEnds;
+
+    /**
+     * Creates an orderer.
+     *
+     * @param stages the stages to use, a combination of the STAGE_ flags
+     * @param maxPly the deepest ply killers are kept for
+     * @param cells the number of cells on the board
+     */
+    public MoveOrderer(int stages, int maxPly, int cells) {
+        this.stages = stages;
+        this.killers = new int[maxPly + 1][2];
+        this.history = new int[2][cells];
+        this.scores = new int[cells];
+        clear();
+    }
+
+    /**
+     * Gets the enabled stages.
+     *
+     * @return a combination of the STAGE_ flags
+     */
+    public int getStages() {
+        return stages;
+    }
+
+    /**
+     * Forgets the killers and history of the previous search.
+     */
+    public void clear() {
+        for (int[] pair : killers) {
+            Arrays.fill(pair, -1);
+        }
+        Arrays.fill(history[0], 0);
+        Arrays.fill(history[1], 0);
+    }
+
+    /**
+     * Sorts a move list, best first.
+     *
+     * @param board the position the moves are for
+     * @param list the moves as cell indices, sorted in place
+     * @param count the number of moves
+     * @param ply the distance from the root
+     * @param tableMove the transposition table move, or -1
+     * @param side the player to move
+     * @param depth the remaining depth; the line scan of the win and threat stages is skipped
+     *              below TACTICAL_MIN_DEPTH, where it costs more than the nodes it saves
+     */
+    public void order(GoMokuBoard board, int[] list, int count, int ply, int tableMove, char side, int depth) {
+        if (stages == 0) {
+            return;
+        }
+        boolean tactical = depth >= TACTICAL_MIN_DEPTH && (stages & (STAGE_WINS | STAGE_THREATS)) != 0;
+        char opponent = SearchEngine.opponent(side);
+        int[] sideHistory = history[side == GoMokuBoard.Player1 ? 0 : 1];
+        int[] plyKillers = killers[Math.min(ply, killers.length - 1)];
+
+        for (int i = 0; i < count; i++) {
+            int move = list[i];
+            int score = 0;
+            if ((stages & STAGE_TABLE_MOVE) != 0 && move == tableMove) {
+                score = TABLE_MOVE_SCORE;
+            } else if (tactical) {
+                score = tacticalScore(board, move, side, opponent);
+            }
+            if (score == 0 && (stages & STAGE_KILLERS) != 0) {
+                if (move == plyKillers[0]) {
+                    score = KILLER_SCORE + 1;
+                } else if (move == plyKillers[1]) {
+                    score = KILLER_SCORE;
+                }
+            }
+            if (score == 0 && (stages & STAGE_HISTORY) != 0) {
+                score = sideHistory[move];
+            }
+            scores[i] = score;
+        }
+
+        // insertion sort, stable so unranked moves keep their generated order
+        for (int i = 1; i < count; i++) {
+            int move = list[i];
+            int score = scores[i];
+            int j = i - 1;
+            while (j >= 0 && scores[j] < score) {
+                list[j + 1] = list[j];
+                scores[j + 1] = scores[j];
+                j--;
+            }
+            list[j + 1] = move;
+            scores[j + 1] = score;
+        }
+    }
+
+    /**
+     * Learns from a move that caused a beta cutoff.
+     *
+     * @param ply the distance from the root
+     * @param move the move as a cell index
+     * @param depth the remaining depth at the cutoff
+     * @param side the player who made the move
+     */
+    public void recordCutoff(int ply, int move, int depth, char side) {
+        int[] plyKillers = killers[Math.min(ply, killers.length - 1)];
+        if (plyKillers[0] != move) {
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = move;
+        }
+        int[] sideHistory = history[side == GoMokuBoard.Player1 ? 0 : 1];
+        sideHistory[move] += depth * depth;
+        if (sideHistory[move] >= HISTORY_LIMIT) {
+            for (int[] table : history) {
+                for (int i = 0; i < table.length; i++) {
+                    table[i] >>= 1; // keep the ranking, make room to learn more
+                }
+            }
+        }
+    }
+
+    /**
+     * Scores a move by the lines it makes for the mover and the lines it takes away from the opponent.
+     *
+     * @return 0 if no enabled stage ranks the move
+     */
+    private int tacticalScore(GoMokuBoard board, int move, char side, char opponent) {
+        int row = board.rowOf(move);
+        int column = board.columnOf(move);
+        int threat = 0;
+        boolean win = false;
+        boolean block = false;
+        for (int d = 0; d < 4; d++) {
+            int mine = runLength(board, row, column, d, side);
+            int mineOpen = openEnds;
+            int theirs = runLength(board, row, column, d, opponent);
+            int theirsOpen = openEnds;
+            win |= mine >= GoMoKuGameService.WIN_LENGTH;
+            block |= theirs >= GoMoKuGameService.WIN_LENGTH;
+            threat += lineValue(mine, mineOpen) + lineValue(theirs, theirsOpen) * 4 / 5;
+        }
+        if ((stages & STAGE_WINS) != 0) {
+            if (win) {
+                return WIN_SCORE;
+            }
+            if (block) {
+                return BLOCK_WIN_SCORE;
+            }
+        }
+        if ((stages & STAGE_THREATS) != 0 && threat >= THREAT_THRESHOLD) {
+            return THREAT_SCORE + threat;
+        }
+        return 0;
+    }
+
+    /**
+     * Measures the run a player would have through an empty cell along one direction.
+     * The number of open ends is left in openEnds.
+     *
+     * @return the run length including the cell itself
+     */
+    private int runLength(GoMokuBoard board, int row, int column, int d, char player) {
+        int length = 1;
+        openEnds = 0;
+        for (int sign = -1; sign <= 1; sign += 2) {
+            int r = row + sign * DR[d];
+            int c = column + sign * DC[d];
+            while (board.isValidPosition(r, c) && board.getCell(r, c) == player) {
+                length++;
+                r += sign * DR[d];
+                c += sign * DC[d];
+            }
+            if (board.isValidPosition(r, c) && board.isEmpty(r, c)) {
+                openEnds++;
+            }
+        }
+        return length;
+    }
+
+    private static int lineValue(int length, int open) {
+        if (open == 0) {
+            return 0;
+        }
+        return switch (length) {
+            case 4 -> open == 2 ? 10_000 : 4_000;
+            case 3 -> open == 2 ? 2_000 : 200;
+            case 2 -> open == 2 ? 100 : 10;
+            default -> 0;
+        };
+    }
+}
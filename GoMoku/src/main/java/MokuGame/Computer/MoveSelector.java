@@ -0,0 +1,18 @@
+package MokuGame.Computer;
+
+import MokuGame.Core.GoMokuBoard;
+
+/**
+ * Anything that can choose the computer's next move on a board.
+ * The UI and other drivers hold a MoveSelector, so engines can be swapped freely.
+ */
+public interface MoveSelector {
+
+    /**
+     * Selects the next move on the board.
+     *
+     * @param board the game board
+     * @return an array containing [row, column] of the selected move, or null if no moves available
+     */
+    int[] selectMove(GoMokuBoard board);
+}
@@ -0,0 +1,234 @@
+package MokuGame.Computer;
+
+import MokuGame.Core.GoMokuBoard;
+import MokuGame.Core.Symmetry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+/**
+ * Book of opening moves, read straight from a memory-mapped file.
+ * The file is a short header followed by fixed-size entries of (position key, move, weight),
+ * sorted by key, so a lookup is a binary search over the mapping and the book is never loaded
+ * onto the heap. The operating system pages in only the parts that are searched.
+ *
+ * Positions are stored once for all their mirror images and rotations: the key is the canonical
+ * key from Symmetry, and the move is stored as it is on the canonical board. A lookup finds which
+ * symmetry turns the board into its canonical form and maps the move back.
+ * An open book is read-only and can be shared between threads.
+ *
+ * File layout, big-endian:
+ * <pre>
+ * int magic, int version, int rows, int columns, int entry count
+ * entries: long key, int cell index, int weight
+ * </pre>
+ * Entries with the same key are sorted by weight, highest first. OpeningBookBuilder writes the file.
+ */
+public class OpeningBook {
+
+    /** File signature, "GMOB". */
+    public static final int MAGIC = 0x474D4F42;
+    /** File format version. */
+    public static final int VERSION = 1;
+    /** Size of the file header in bytes. */
+    public static final int HEADER_BYTES = 20;
+    /** Size of one entry in bytes. */
+    public static final int ENTRY_BYTES = 16;
+
+    private final ByteBuffer buffer;
+    private final int rows;
+    private final int columns;
+    private final int size;
+
+    private OpeningBook(ByteBuffer buffer, int rows, int columns, int size) {
+        this.buffer = buffer;
+        this.rows = rows;
+        this.columns = columns;
+        this.size = size;
+    }
+
+    /**
+     * Maps a book file into memory.
+     *
+     * @param file the book file
+     * @return the open book
+     * @throws IOException if the file cannot be read or is not a book
+     */
+    public static OpeningBook open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_BYTES) {
+                throw new IOException("Not an opening book: " + file);
+            }
+            // the mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            return of(buffer, file);
+        }
+    }
+
+    /**
+     * Reads a book file onto the heap instead of mapping it. Java cannot unmap a file, and a mapped
+     * file cannot be replaced on some systems, so this is the way to read a book that is about to be
+     * rewritten, as OpeningBookBuilder does.
+     *
+     * @param file the book file
+     * @return the book
+     * @throws IOException if the file cannot be read or is not a book
+     */
+    public static OpeningBook read(Path file) throws IOException {
+        return of(ByteBuffer.wrap(Files.readAllBytes(file)), file);
+    }
+
+    private static OpeningBook of(ByteBuffer buffer, Path file) throws IOException {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not an opening book: " + file);
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported opening book version " + buffer.getInt(4) + ": " + file);
+        }
+        int size = buffer.getInt(16);
+        if (size < 0 || HEADER_BYTES + (long) size * ENTRY_BYTES != buffer.capacity()) {
+            throw new IOException("Truncated opening book: " + file);
+        }
+        return new OpeningBook(buffer, buffer.getInt(8), buffer.getInt(12), size);
+    }
+
+    /**
+     * Gets the number of rows of the boards in the book.
+     *
+     * @return the row count
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Gets the number of columns of the boards in the book.
+     *
+     * @return the column count
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Gets the number of entries.
+     *
+     * @return the entry count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds the book move with the highest weight.
+     *
+     * @param board the position
+     * @return the move as [row, column], or null if the position is not in the book
+     */
+    public int[] lookup(GoMokuBoard board) {
+        return lookup(board, null);
+    }
+
+    /**
+     * Finds a book move, either the one with the highest weight or one picked at random
+     * with a chance in proportion to its weight.
+     *
+     * @param board the position
+     * @param random the random source, or null for the highest weight
+     * @return the move as [row, column], or null if the position is not in the book
+     */
+    public int[] lookup(GoMokuBoard board, Random random) {
+        if (board.getRows() != rows || board.getColumns() != columns) {
+            return null;
+        }
+        long[] hashes = Symmetry.hashes(board);
+        int symmetry = Symmetry.canonical(hashes, rows, columns);
+        long key = hashes[symmetry];
+        int inverse = Symmetry.inverse(symmetry);
+
+        int first = lowerBound(key);
+        long total = 0;
+        int chosen = -1;
+        for (int i = first; i < size && keyAt(i) == key; i++) {
+            int[] move = Symmetry.map(inverse, moveAt(i) / columns, moveAt(i) % columns, rows, columns);
+            if (!board.isValidPosition(move[0], move[1]) || !board.isEmpty(move[0], move[1])) {
+                continue; // another position with the same key
+            }
+            int weight = weightAt(i);
+            if (random == null) {
+                return move; // sorted by weight
+            }
+            total += weight;
+            if (weight > 0 && random.nextLong(total) < weight) {
+                chosen = move[0] * columns + move[1];
+            }
+        }
+        return chosen < 0 ? null : new int[]{chosen / columns, chosen % columns};
+    }
+
+    /**
+     * Gets the key of an entry.
+     *
+     * @param i the entry position, from 0 to size() - 1
+     * @return the canonical position key
+     */
+    long keyAt(int i) {
+        return buffer.getLong(HEADER_BYTES + i * ENTRY_BYTES);
+    }
+
+    /**
+     * Gets the move of an entry.
+     *
+     * @param i the entry position, from 0 to size() - 1
+     * @return the cell index on the canonical board
+     */
+    int moveAt(int i) {
+        return buffer.getInt(HEADER_BYTES + i * ENTRY_BYTES + 8);
+    }
+
+    /**
+     * Gets the weight of an entry.
+     *
+     * @param i the entry position, from 0 to size() - 1
+     * @return the weight
+     */
+    int weightAt(int i) {
+        return buffer.getInt(HEADER_BYTES + i * ENTRY_BYTES + 12);
+    }
+
+    /**
+     * Finds the first entry whose key is not less than a key.
+     */
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keyAt(mid) < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Writes the file header.
+     *
+     * @param out the buffer to write to, at least HEADER_BYTES long
+     * @param rows the number of rows
+     * @param columns the number of columns
+     * @param size the number of entries that follow
+     */
+    static void writeHeader(ByteBuffer out, int rows, int columns, int size) {
+        out.putInt(MAGIC).putInt(VERSION).putInt(rows).putInt(columns).putInt(size);
+    }
+}
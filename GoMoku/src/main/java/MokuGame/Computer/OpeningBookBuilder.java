@@ -0,0 +1,303 @@
+package MokuGame.Computer;
+
+import MokuGame.Core.GoMokuBoard;
+import MokuGame.Core.SymmetricHasher;
+import MokuGame.Service.Database;
+import MokuGame.Service.GoMoKuGameService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Collects opening moves from played games and writes them as an OpeningBook file.
+ * Every position in the first plies of a game is stored under its canonical key, so games
+ * that differ only by a mirror or rotation count as the same line. Each move scores
+ * WIN_POINTS for the winner's side, DRAW_POINTS when the game was drawn or unfinished,
+ * and nothing for the loser's side; moves that never scored are left out of the book.
+ *
+ * Games can come from self-play with any MoveSelector, from an existing book, from the game log
+ * of a Database, or be added one at a time as move lists. Saved boards are not used: the boards
+ * table keeps only final positions, not the order the stones were played in.
+ */
+public class OpeningBookBuilder {
+
+    private static final Logger logger = LoggerFactory.getLogger(OpeningBookBuilder.class);
+
+    /** Points for a move played by the side that won. */
+    public static final int WIN_POINTS = 2;
+    /** Points for a move in a drawn or unfinished game. */
+    public static final int DRAW_POINTS = 1;
+    /** Default number of plies of each game to store. */
+    public static final int DEFAULT_MAX_PLY = 12;
+
+    private final int rows;
+    private final int columns;
+    private final int maxPly;
+    private final Map<Long, Map<Integer, Integer>> positions = new HashMap<>();
+
+    /**
+     * Creates an empty builder.
+     *
+     * @param rows the number of rows of the board
+     * @param columns the number of columns of the board
+     * @param maxPly the number of plies of each game to store
+     */
+    public OpeningBookBuilder(int rows, int columns, int maxPly) {
+        if (maxPly < 1) {
+            throw new IllegalArgumentException("maxPly must be at least 1");
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.maxPly = maxPly;
+    }
+
+    /**
+     * Gets the number of distinct positions collected.
+     *
+     * @return the position count
+     */
+    public int getPositionCount() {
+        return positions.size();
+    }
+
+    /**
+     * Adds a game. Player1 is taken to have made the first move.
+     *
+     * @param moves the moves in order, each as [row, column]
+     * @param winner the winner's character, or GoMokuBoard.Empty for a draw or an unfinished game
+     */
+    public void addGame(int[][] moves, char winner) {
+        GoMokuBoard board = new GoMokuBoard(rows, columns);
+        SymmetricHasher hasher = new SymmetricHasher(board);
+        char player = GoMokuBoard.Player1;
+        for (int ply = 0; ply < moves.length && ply < maxPly; ply++) {
+            int row = moves[ply][0];
+            int column = moves[ply][1];
+            if (!board.isValidPosition(row, column) || !board.isEmpty(row, column)) {
+                throw new IllegalArgumentException("Illegal move " + ply + " (" + row + ", " + column + ")");
+            }
+            int points = winner == player ? WIN_POINTS : winner == GoMokuBoard.Empty ? DRAW_POINTS : 0;
+            if (points > 0) {
+                positions.computeIfAbsent(hasher.getCanonicalHash(), key -> new HashMap<>())
+                    .merge(hasher.toCanonical(board.cellIndex(row, column)), points, Integer::sum);
+            }
+            board.setCell(row, column, player);
+            player = SearchEngine.opponent(player);
+        }
+    }
+
+    /**
+     * Adds every entry of an existing book, so a book can be grown over several runs.
+     *
+     * @param book a book for the same board size
+     */
+    public void addBook(OpeningBook book) {
+        if (book.getRows() != rows || book.getColumns() != columns) {
+            throw new IllegalArgumentException("The book is for a " + book.getRows() + "x" + book.getColumns() + " board");
+        }
+        for (int i = 0; i < book.size(); i++) {
+            positions.computeIfAbsent(book.keyAt(i), key -> new HashMap<>())
+                .merge(book.moveAt(i), book.weightAt(i), Integer::sum);
+        }
+    }
+
+    /**
+     * Adds every game in a database's game log that was played on a board of this size.
+     *
+     * @param database the database
+     * @return the number of games added
+     */
+    public int addLoggedGames(Database database) {
+        int added = 0;
+        for (Map.Entry<String, int[][]> game : database.loadMoves(rows, columns).entrySet()) {
+            int[][] moves = game.getValue();
+            if (moves.length == 0) {
+                continue;
+            }
+            char winner = winner(moves);
+            if (winner == 0) {
+                logger.warn("Logged game '{}' has an illegal move, leaving it out", game.getKey());
+                continue;
+            }
+            addGame(moves, winner);
+            added++;
+        }
+        logger.info("Added {} logged games", added);
+        return added;
+    }
+
+    /**
+     * Plays a game's moves on an empty board. A game ends at its first five in a row, so only the
+     * last move can have won it.
+     *
+     * @return the winner's character, GoMokuBoard.Empty if nobody won, or 0 if a move is illegal
+     */
+    private char winner(int[][] moves) {
+        GoMokuBoard board = new GoMokuBoard(rows, columns);
+        char player = GoMokuBoard.Player1;
+        for (int i = 0; i < moves.length; i++) {
+            int[] move = moves[i];
+            if (!board.isValidPosition(move[0], move[1]) || !board.isEmpty(move[0], move[1])) {
+                return 0;
+            }
+            board.setCell(move[0], move[1], player);
+            if (i < moves.length - 1) {
+                player = SearchEngine.opponent(player);
+            }
+        }
+        int[] last = moves[moves.length - 1];
+        return GoMoKuGameService.isWinningMove(board, last[0], last[1]) ? player : GoMokuBoard.Empty;
+    }
+
+    /**
+     * Plays games of a computer player against itself and adds them.
+     * The first few moves of each game are played at random near the centre, since a search
+     * engine would otherwise play the same game every time.
+     *
+     * @param player the player for both sides
+     * @param games the number of games
+     * @param randomPlies the number of random moves at the start of each game
+     * @param random the source of the random moves
+     */
+    public void addSelfPlay(MoveSelector player, int games, int randomPlies, Random random) {
+        for (int game = 0; game < games; game++) {
+            GoMokuBoard board = new GoMokuBoard(rows, columns);
+            int[][] moves = new int[rows * columns][];
+            int count = 0;
+            char side = GoMokuBoard.Player1;
+            char winner = GoMokuBoard.Empty;
+            while (!board.isFull()) {
+                int[] move = count < randomPlies ? randomOpeningMove(board, random) : player.selectMove(board);
+                if (move == null) {
+                    break;
+                }
+                board.setCell(move[0], move[1], side);
+                moves[count++] = move;
+                if (GoMoKuGameService.isWinningMove(board, move[0], move[1])) {
+                    winner = side;
+                    break;
+                }
+                side = SearchEngine.opponent(side);
+            }
+            addGame(Arrays.copyOf(moves, count), winner);
+            logger.debug("Self-play game {} ended after {} moves, winner {}", game + 1, count, winner);
+        }
+    }
+
+    /**
+     * Writes the book file, replacing the file if it exists. The book is written to a temporary file
+     * in the same directory and moved into place, so a reader sees either the old book or the new one.
+     *
+     * @param file the file to write
+     * @return the number of entries written
+     * @throws IOException if the file cannot be written
+     */
+    public int write(Path file) throws IOException {
+        long[] keys = new long[positions.size()];
+        int k = 0;
+        int size = 0;
+        for (Map.Entry<Long, Map<Integer, Integer>> position : positions.entrySet()) {
+            keys[k++] = position.getKey();
+            size += position.getValue().size();
+        }
+        Arrays.sort(keys);
+
+        ByteBuffer out = ByteBuffer.allocate(OpeningBook.HEADER_BYTES + size * OpeningBook.ENTRY_BYTES);
+        OpeningBook.writeHeader(out, rows, columns, size);
+        for (long key : keys) {
+            positions.get(key).entrySet().stream()
+                .sorted(Map.Entry.<Integer, Integer>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey()))
+                .forEach(move -> out.putLong(key).putInt(move.getKey()).putInt(move.getValue()));
+        }
+        out.flip();
+
+        // write next to the book and move it into place, so a reader never sees half a file and a
+        // mapping of the old book keeps the old file instead of faulting on a truncated one
+        Path target = file.toAbsolutePath();
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (out.hasRemaining()) {
+                    channel.write(out);
+                }
+                channel.force(false);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        logger.info("Wrote {} book moves for {} positions to {}", size, keys.length, file);
+        return size;
+    }
+
+    /**
+     * Picks an empty cell within two cells of the centre, or anywhere if those are taken.
+     *
+     * @param board the position
+     * @param random the random source
+     * @return the move as [row, column], or null if the board is full
+     */
+    static int[] randomOpeningMove(GoMokuBoard board, Random random) {
+        int centreRow = board.getRows() / 2;
+        int centreColumn = board.getColumns() / 2;
+        for (int attempt = 0; attempt < 100; attempt++) {
+            int row = centreRow + random.nextInt(5) - 2;
+            int column = centreColumn + random.nextInt(5) - 2;
+            if (board.isValidPosition(row, column) && board.isEmpty(row, column)) {
+                return new int[]{row, column};
+            }
+        }
+        return new computerPlayer().selectMove(board);
+    }
+
+    /**
+     * Builds or grows a book by self-play of the search engine.
+     * Arguments: the book file, then optionally the number of games (default 20), the search depth
+     * (default 3), the board size (default 15) and the number of random opening moves (default 2).
+     * An existing book file of the same board size is merged into the new one.
+     *
+     * @param args the command line arguments
+     * @throws IOException if the book cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: OpeningBookBuilder <book file> [games] [depth] [board size] [random plies]");
+            return;
+        }
+        Path file = Paths.get(args[0]);
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int depth = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        int size = args.length > 3 ? Integer.parseInt(args[3]) : 15;
+        int randomPlies = args.length > 4 ? Integer.parseInt(args[4]) : 2;
+
+        OpeningBookBuilder builder = new OpeningBookBuilder(size, size, DEFAULT_MAX_PLY);
+        if (file.toFile().isFile()) {
+            builder.addBook(OpeningBook.read(file)); // not mapped, since write replaces the file
+        }
+        SearchEngine engine = new SearchEngine(depth, 0);
+        try {
+            builder.addSelfPlay(engine, games, randomPlies, new Random());
+        } finally {
+            engine.shutdown();
+        }
+        builder.write(file);
+    }
+}
@@ -0,0 +1,236 @@
+package MokuGame.Computer;
+
+import MokuGame.Core.GoMokuBoard;
+import MokuGame.Service.GoMoKuGameService;
+
+import java.util.Arrays;
+
+/**
+ * Static evaluator that scores a position by the line patterns each player has:
+ * fives, open and closed fours, open, broken and closed threes, and twos.
+ * Every row, column and diagonal long enough to hold a five is scanned.
+ * One instance keeps its scan buffers, so it does not allocate while evaluating
+ * but must not be shared between threads.
+ */
+public class PatternEvaluator {
+
+    /** Five or more in a row. */
+    public static final int FIVE = 0;
+    /** Four with both ends empty, cannot be blocked. */
+    public static final int OPEN_FOUR = 1;
+    /** Four, possibly with a gap, that needs one more stone to win. */
+    public static final int FOUR = 2;
+    /** Three in a row with both ends empty. */
+    public static final int OPEN_THREE = 3;
+    /** Three with one gap and both ends empty, like .XX.X. */
+    public static final int BROKEN_THREE = 4;
+    /** Three in a row blocked on one side. */
+    public static final int THREE = 5;
+    /** Two in a row with both ends empty. */
+    public static final int OPEN_TWO = 6;
+    /** Two in a row blocked on one side. */
+    public static final int TWO = 7;
+    /** Number of pattern kinds. */
+    public static final int PATTERN_COUNT = 8;
+
+    /** Score of a won position, before the distance to the win is taken off. */
+    public static final int WIN_SCORE = 1_000_000;
+
+    /** Score of a position one side will win next move unless the search finds otherwise. */
+    static final int NEAR_WIN_SCORE = 100_000;
+
+    private static final int[] WEIGHTS = {
+        WIN_SCORE,  // FIVE
+        50_000,     // OPEN_FOUR
+        2_000,      // FOUR
+        2_000,      // OPEN_THREE
+        1_500,      // BROKEN_THREE
+        200,        // THREE
+        150,        // OPEN_TWO
+        20          // TWO
+    };
+
+    private static final byte EMPTY = 0;
+    private static final byte PLAYER1 = 1;
+    private static final byte PLAYER2 = 2;
+
+    private final int[] player1Counts = new int[PATTERN_COUNT];
+    private final int[] player2Counts = new int[PATTERN_COUNT];
+    private byte[] line = new byte[0];
+
+    /**
+     * Scores the board from the point of view of the player about to move.
+     *
+     * @param board the game board
+     * @param sideToMove the player about to move
+     * @return positive if the position favours sideToMove, negative otherwise
+     */
+    public int evaluate(GoMokuBoard board, char sideToMove) {
+        countPatterns(board, player1Counts, player2Counts);
+        return sideToMove == GoMokuBoard.Player1
+            ? score(player1Counts, player2Counts)
+            : score(player2Counts, player1Counts);
+    }
+
+    /**
+     * Counts the patterns of both players over every line of the board.
+     *
+     * @param board the game board
+     * @param counts1 receives Player1's pattern counts
+     * @param counts2 receives Player2's pattern counts
+     */
+    public void countPatterns(GoMokuBoard board, int[] counts1, int[] counts2) {
+        Arrays.fill(counts1, 0);
+        Arrays.fill(counts2, 0);
+        int rows = board.getRows();
+        int columns = board.getColumns();
+
+        for (int r = 0; r < rows; r++) {
+            scanLine(board, r, 0, 0, 1, columns, counts1, counts2);            // rows
+        }
+        for (int c = 0; c < columns; c++) {
+            scanLine(board, 0, c, 1, 0, rows, counts1, counts2);               // columns
+        }
+        for (int r = rows - 1; r >= 0; r--) {                                   // diagonals \
+            scanLine(board, r, 0, 1, 1, Math.min(rows - r, columns), counts1, counts2);
+        }
+        for (int c = 1; c < columns; c++) {
+            scanLine(board, 0, c, 1, 1, Math.min(rows, columns - c), counts1, counts2);
+        }
+        for (int c = 0; c < columns; c++) {                                     // diagonals /
+            scanLine(board, 0, c, 1, -1, Math.min(rows, c + 1), counts1, counts2);
+        }
+        for (int r = 1; r < rows; r++) {
+            scanLine(board, r, columns - 1, 1, -1, Math.min(rows - r, columns), counts1, counts2);
+        }
+    }
+
+    /**
+     * Adds the patterns found along one line to both players' counts.
+     * Lines shorter than a five are skipped.
+     *
+     * @param board the game board
+     * @param row the row of the first cell
+     * @param col the column of the first cell
+     * @param dRow the row step
+     * @param dCol the column step
+     * @param length the number of cells in the line
+     * @param counts1 Player1's pattern counts to add to
+     * @param counts2 Player2's pattern counts to add to
+     */
+    void scanLine(GoMokuBoard board, int row, int col, int dRow, int dCol, int length,
+                  int[] counts1, int[] counts2) {
+        if (length < GoMoKuGameService.WIN_LENGTH) {
+            return;
+        }
+        if (line.length < length) {
+            line = new byte[Math.max(board.getRows(), board.getColumns())];
+        }
+
+        boolean hasStones = false;
+        for (int i = 0; i < length; i++) {
+            char cell = board.getCell(row + i * dRow, col + i * dCol);
+            byte value = cell == GoMokuBoard.Player1 ? PLAYER1 : cell == GoMokuBoard.Player2 ? PLAYER2 : EMPTY;
+            line[i] = value;
+            hasStones |= value != EMPTY;
+        }
+        if (hasStones) {
+            classify(line, length, PLAYER1, counts1);
+            classify(line, length, PLAYER2, counts2);
+        }
+    }
+
+    /**
+     * Combines pattern counts into a score for the side to move.
+     * A side to move with a four wins next move, and an opponent with an open four
+     * or two fours cannot be stopped, so those positions score close to a win.
+     *
+     * @param mine the pattern counts of the side to move
+     * @param theirs the pattern counts of the opponent
+     * @return the score from the side to move's point of view
+     */
+    static int score(int[] mine, int[] theirs) {
+        if (mine[FIVE] > 0) {
+            return WIN_SCORE;
+        }
+        if (theirs[FIVE] > 0) {
+            return -WIN_SCORE;
+        }
+        if (mine[OPEN_FOUR] + mine[FOUR] > 0) {
+            return NEAR_WIN_SCORE;
+        }
+        if (theirs[OPEN_FOUR] > 0 || theirs[FOUR] > 1) {
+            return -NEAR_WIN_SCORE;
+        }
+
+        int score = 0;
+        for (int p = OPEN_FOUR; p < PATTERN_COUNT; p++) {
+            score += WEIGHTS[p] * (mine[p] - theirs[p]);
+        }
+        return score;
+    }
+
+    /**
+     * Finds one player's patterns in a line of cells.
+     * Each run of stones is classified by its length and open ends. A run followed by one
+     * gap and another run is read as a broken four or broken three when it forms one.
+     *
+     * @param line the cells of the line
+     * @param length the number of cells in use
+     * @param me the player to classify for
+     * @param counts the pattern counts to add to
+     */
+    static void classify(byte[] line, int length, byte me, int[] counts) {
+        int i = 0;
+        while (i < length) {
+            if (line[i] != me) {
+                i++;
+                continue;
+            }
+
+            int start = i;
+            while (i < length && line[i] == me) {
+                i++;
+            }
+            int run = i - start;
+            boolean leftOpen = start > 0 && line[start - 1] == EMPTY;
+            boolean rightOpen = i < length && line[i] == EMPTY;
+
+            if (run >= GoMoKuGameService.WIN_LENGTH) {
+                counts[FIVE]++;
+                continue;
+            }
+
+            // one gap and then more stones: X.XXX, XX.XX or X.XX
+            if (rightOpen && i + 1 < length && line[i + 1] == me) {
+                int j = i + 1;
+                while (j < length && line[j] == me) {
+                    j++;
+                }
+                int total = run + j - i - 1;
+                boolean farOpen = j < length && line[j] == EMPTY;
+                if (total >= 4) {
+                    counts[FOUR]++;
+                    i = j;
+                    continue;
+                }
+                if (total == 3 && leftOpen && farOpen) {
+                    counts[BROKEN_THREE]++;
+                    i = j;
+                    continue;
+                }
+            }
+
+            int open = (leftOpen ? 1 : 0) + (rightOpen ? 1 : 0);
+            if (open == 0) {
+                continue;
+            }
+            switch (run) {
+                case 4 -> counts[open == 2 ? OPEN_FOUR : FOUR]++;
+                case 3 -> counts[open == 2 ? OPEN_THREE : THREE]++;
+                case 2 -> counts[open == 2 ? OPEN_TWO : TWO]++;
+                default -> { }
+            }
+        }
+    }
+}
@@ -0,0 +1,589 @@
+package MokuGame.Computer;
+
+import MokuGame.Core.GoMokuBoard;
+import MokuGame.Service.GoMoKuGameService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Computer player that searches the game tree instead of playing randomly.
+ * Uses iterative-deepening negamax with alpha-beta pruning, tries moves in MoveOrderer order
+ * and scores the leaves with a PatternEvaluator. Results are cached in a TranspositionTable
+ * keyed by the board hash, which survives between moves. Before searching, a ThreatSolver
+ * checks for a forced win by continuous fours, which is played at once when found, and
+ * an OpeningBook, when set, answers the first moves of the game without any search.
+ *
+ * While the opponent thinks, the engine can ponder: search on a background thread the
+ * position after the reply it expects. The next search stops the pondering, and when the
+ * expected reply was played, finds the deeper part of the tree already in the table.
+ *
+ * With more than one thread the engine runs a Lazy SMP search: every thread searches the
+ * same root position on its own SearchWorker board copy, and they share only the lock-free
+ * transposition table, so each thread profits from what the others have already searched.
+ * The calling thread runs the main worker and its result is the move played.
+ * An instance must be used by one caller at a time.
+ */
+public class SearchEngine implements MoveSelector {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchEngine.class);
+
+    /** Default depth limit in plies. */
+    public static final int DEFAULT_MAX_DEPTH = 6;
+    /** Default time budget per move. */
+    public static final long DEFAULT_TIME_LIMIT_MILLIS = 2000;
+    /** Deepest search the buffers are sized for. */
+    public static final int MAX_DEPTH = 32;
+    /** Default transposition table size. */
+    public static final int DEFAULT_HASH_MB = 16;
+    /** Node budget of the VCF check run before each search. */
+    public static final long THREAT_NODE_BUDGET = 20_000;
+
+    private final int maxDepth;
+    private long timeLimitMillis;
+    private final TranspositionTable table;
+    private final SearchWorker[] workers;
+    private ThreatSolver threatSolver;
+    private boolean threatSolverEnabled = true;
+    private OpeningBook openingBook;
+    private int moveOrdering = MoveOrderer.ALL_STAGES;
+    private ExecutorService helpers;
+    private ExecutorService ponderer;
+    private Future<?> ponderTask;
+    private long ponderHash;
+    private int ponderHits;
+    private int ponderMisses;
+
+    /** Raised by the main worker when it is done, so the helpers stop too, and to end pondering. */
+    volatile boolean stopped;
+    private long softLimitMillis;
+    private long softDeadline;
+    private long hardDeadline;
+    private boolean timedOut;
+
+    private SearchResult lastResult;
+
+    /**
+     * Creates a single-threaded search engine with the default depth and time budget.
+     */
+    public SearchEngine() {
+        this(DEFAULT_MAX_DEPTH, DEFAULT_TIME_LIMIT_MILLIS);
+    }
+
+    /**
+     * Creates a single-threaded search engine with the given limits.
+     *
+     * @param maxDepth the deepest iteration to search, 1 to MAX_DEPTH
+     * @param timeLimitMillis the hard time limit per move in milliseconds, or 0 for no time limit
+     */
+    public SearchEngine(int maxDepth, long timeLimitMillis) {
+        this(maxDepth, timeLimitMillis, DEFAULT_HASH_MB);
+    }
+
+    /**
+     * Creates a single-threaded search engine with the given limits and transposition table size.
+     *
+     * @param maxDepth the deepest iteration to search, 1 to MAX_DEPTH
+     * @param timeLimitMillis the hard time limit per move in milliseconds, or 0 for no time limit
+     * @param hashSizeMb the transposition table size in megabytes
+     */
+    public SearchEngine(int maxDepth, long timeLimitMillis, int hashSizeMb) {
+        this(maxDepth, timeLimitMillis, hashSizeMb, 1);
+    }
+
+    /**
+     * Creates a search engine with the given limits, transposition table size and thread count.
+     *
+     * @param maxDepth the deepest iteration to search, 1 to MAX_DEPTH
+     * @param timeLimitMillis the hard time limit per move in milliseconds, or 0 for no time limit;
+     *                        the soft limit starts at half of it
+     * @param hashSizeMb the transposition table size in megabytes
+     * @param threads the number of search threads, including the caller's
+     */
+    public SearchEngine(int maxDepth, long timeLimitMillis, int hashSizeMb, int threads) {
+        if (maxDepth < 1 || maxDepth > MAX_DEPTH) {
+            throw new IllegalArgumentException("maxDepth must be between 1 and " + MAX_DEPTH);
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1");
+        }
+        this.maxDepth = maxDepth;
+        setTimeLimit(timeLimitMillis);
+        this.table = new TranspositionTable(hashSizeMb);
+        this.workers = new SearchWorker[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new SearchWorker(this, table);
+        }
+    }
+
+    /**
+     * Searches the position and selects the best move found.
+     * The side to move is worked out from the stone counts, Player1 moving first.
+     *
+     * @param board the game board
+     * @return an array containing [row, column] of the selected move, or null if no moves available
+     */
+    @Override
+    public int[] selectMove(GoMokuBoard board) {
+        SearchResult result = search(board);
+        return result == null ? null : result.getMove();
+    }
+
+    /**
+     * Searches the position within the time limits.
+     * Iterative deepening does not start an iteration after the soft deadline, and the hard
+     * deadline stops the running one; either way the move of the last completed iteration is returned.
+     *
+     * @param board the game board
+     * @return the chosen move with its depth, score and node count, or null if no moves available
+     */
+    public SearchResult search(GoMokuBoard board) {
+        boolean ponderHit = finishPondering(board);
+        if (board.isFull()) {
+            logger.warn("No available moves for AI player");
+            return null;
+        }
+
+        long start = System.nanoTime();
+        if (openingBook != null) {
+            int[] move = openingBook.lookup(board);
+            if (move != null) {
+                lastResult = new SearchResult(move[0], move[1], 0, 0, 0, (System.nanoTime() - start) / 1_000_000, false);
+                logger.info("Book move ({}, {})", move[0], move[1]);
+                return lastResult;
+            }
+        }
+        char side = sideToMove(board);
+        if (threatSolverEnabled) {
+            ThreatSolver.Result forced = threatSolver.solveVcf(board, side);
+            if (forced.isWin()) {
+                int[] move = forced.getFirstMove();
+                lastResult = new SearchResult(move[0], move[1], PatternEvaluator.WIN_SCORE, 0,
+                    forced.getNodes(), (System.nanoTime() - start) / 1_000_000, false);
+                logger.info("Forced win by continuous fours in {} moves ({} nodes)",
+                    (forced.getSequence().length + 1) / 2, forced.getNodes());
+                return lastResult;
+            }
+        }
+
+        stopped = false;
+        lastResult = runSearch(board, side, start, timeLimitMillis, softLimitMillis);
+
+        long nodes = lastResult.getNodes();
+        long elapsed = Math.max(1, System.nanoTime() - start);
+        logger.debug("Search depth {} score {} nodes {} ({} nodes/s, {} threads){}{}",
+            lastResult.getDepth(), lastResult.getScore(), nodes, nodes * 1_000_000_000L / elapsed,
+            workers.length, ponderHit ? ", ponder hit" : "",
+            lastResult.isTimedOut() ? ", stopped at the hard deadline" : "");
+        logger.debug("Transposition table: hits {}%, misses {}%, collisions {}%, filled {}%",
+            percent(table.hitRate()), percent(1.0 - table.hitRate()),
+            percent(table.collisionRate()), percent(table.fillRate()));
+        return lastResult;
+    }
+
+    /**
+     * Runs one search with all workers. The caller has lowered the stop flag.
+     *
+     * @param board the position, not changed during the search
+     * @param side the player to move
+     * @param start the nanoTime the time limits count from
+     * @param hardMillis the hard limit, or 0 for none
+     * @param softMillis the soft limit, or 0 for none
+     * @return the result of the search
+     */
+    private SearchResult runSearch(GoMokuBoard board, char side, long start, long hardMillis, long softMillis) {
+        boolean resized = false;
+        for (SearchWorker worker : workers) {
+            resized |= worker.prepare(board, side, maxDepth);
+        }
+        if (resized) {
+            table.clear(); // cell indices mean something else on another board size
+        }
+        table.newSearch();
+        table.resetStats();
+
+        hardDeadline = hardMillis > 0 ? start + hardMillis * 1_000_000L : Long.MAX_VALUE;
+        softDeadline = softMillis > 0 ? start + softMillis * 1_000_000L : hardDeadline;
+        timedOut = false;
+
+        Future<?>[] running = startHelpers();
+        SearchWorker main = workers[0];
+        main.iterate(1, maxDepth);
+        stopped = true;
+        awaitHelpers(running);
+
+        long nodes = 0;
+        for (SearchWorker worker : workers) {
+            nodes += worker.getNodes();
+        }
+        int best = main.getBestMove();
+        return new SearchResult(main.getBoard().rowOf(best), main.getBoard().columnOf(best),
+            main.getScore(), main.getCompletedDepth(), nodes, (System.nanoTime() - start) / 1_000_000, timedOut);
+    }
+
+    /**
+     * Starts pondering: searching on a background thread while the opponent is to move.
+     * The engine guesses the reply from the transposition table and searches the position after it,
+     * without a time limit, until the next search or stopPondering. Without a guess it searches the
+     * opponent's position itself, which still fills the table with their likely replies.
+     *
+     * @param board the position with the opponent to move, copied so it may change afterwards
+     * @return true if pondering started
+     */
+    public boolean startPondering(GoMokuBoard board) {
+        finishPondering(null);
+        if (board.isFull()) {
+            return false;
+        }
+        GoMokuBoard position = new GoMokuBoard(board.getRows(), board.getColumns());
+        for (int i = 0; i < board.getRows(); i++) {
+            for (int j = 0; j < board.getColumns(); j++) {
+                if (!board.isEmpty(i, j)) {
+                    position.setCell(i, j, board.getCell(i, j));
+                }
+            }
+        }
+
+        int reply = expectedReply(position);
+        if (reply >= 0) {
+            int row = position.rowOf(reply);
+            int column = position.columnOf(reply);
+            position.setCell(row, column, sideToMove(position));
+            if (GoMoKuGameService.isWinningMove(position, row, column) || position.isFull()) {
+                return false; // nothing left to search after that reply
+            }
+        }
+        ponderHash = position.getHash();
+        char side = sideToMove(position);
+
+        if (ponderer == null) {
+            ponderer = Executors.newSingleThreadExecutor(task -> {
+                Thread thread = new Thread(task, "search-ponder");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        stopped = false;
+        ponderTask = ponderer.submit(() -> {
+            SearchResult result = runSearch(position, side, System.nanoTime(), 0, 0);
+            logger.debug("Pondering reached depth {} with {} nodes", result.getDepth(), result.getNodes());
+        });
+        logger.debug("Pondering {}", reply >= 0
+            ? "expected reply (" + position.rowOf(reply) + ", " + position.columnOf(reply) + ")"
+            : "without an expected reply");
+        return true;
+    }
+
+    /**
+     * Stops pondering and waits for the background search to end. Does nothing if not pondering.
+     */
+    public void stopPondering() {
+        finishPondering(null);
+    }
+
+    /**
+     * Checks if a background search is running.
+     *
+     * @return true while pondering
+     */
+    public boolean isPondering() {
+        return ponderTask != null && !ponderTask.isDone();
+    }
+
+    /**
+     * Gets the number of searches that started from the position that was pondered.
+     *
+     * @return the ponder hit count
+     */
+    public int getPonderHits() {
+        return ponderHits;
+    }
+
+    /**
+     * Gets the number of searches that followed pondering on another position.
+     *
+     * @return the ponder miss count
+     */
+    public int getPonderMisses() {
+        return ponderMisses;
+    }
+
+    /**
+     * Stops pondering and works out whether it was on the position now being searched.
+     *
+     * @param actual the position about to be searched, or null when just stopping
+     * @return true if the pondered position is the actual one
+     */
+    private boolean finishPondering(GoMokuBoard actual) {
+        if (ponderTask == null) {
+            return false;
+        }
+        stopped = true;
+        try {
+            ponderTask.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.error("Pondering failed", e.getCause());
+        }
+        ponderTask = null;
+        if (actual == null) {
+            return false;
+        }
+        boolean hit = actual.getHash() == ponderHash;
+        if (hit) {
+            ponderHits++;
+        } else {
+            ponderMisses++;
+        }
+        return hit;
+    }
+
+    /**
+     * Looks up the best reply the last search found for a position.
+     *
+     * @param position the position with the opponent to move
+     * @return the reply as a cell index, or -1 if the table has none
+     */
+    private int expectedReply(GoMokuBoard position) {
+        long entry = table.probe(position.getHash());
+        if (entry == TranspositionTable.MISS) {
+            return -1;
+        }
+        int move = TranspositionTable.moveOf(entry);
+        if (move < 0 || move >= position.getRows() * position.getColumns()
+            || !position.isEmpty(position.rowOf(move), position.columnOf(move))) {
+            return -1;
+        }
+        return move;
+    }
+
+    /**
+     * Sets the hard time limit per move, for drivers whose clock changes during a game.
+     * The soft limit is reset to half of it.
+     *
+     * @param millis the hard limit in milliseconds, or 0 for no time limit
+     */
+    public void setTimeLimit(long millis) {
+        this.timeLimitMillis = millis;
+        this.softLimitMillis = millis / 2;
+        // the VCF check counts against the move's time too, so it gets a tenth of it at most
+        this.threatSolver = new ThreatSolver(THREAT_NODE_BUDGET, millis > 0 ? Math.max(1, millis / 10) : 0);
+    }
+
+    /**
+     * Sets the soft time limit: no new iteration starts once it has passed.
+     * It starts at half the hard limit, since an iteration usually takes several times
+     * as long as the one before it.
+     *
+     * @param millis the soft limit in milliseconds, or 0 to use only the hard limit
+     */
+    public void setSoftTimeLimit(long millis) {
+        this.softLimitMillis = millis;
+    }
+
+    /**
+     * Gets the result of the last search.
+     *
+     * @return the last result, or null if nothing has been searched yet
+     */
+    public SearchResult getLastResult() {
+        return lastResult;
+    }
+
+    /**
+     * Turns the VCF check before each search on or off. It is on by default and plays a forced
+     * win by continuous fours straight away instead of searching.
+     *
+     * @param enabled true to check for forced wins first
+     */
+    public void setThreatSolverEnabled(boolean enabled) {
+        this.threatSolverEnabled = enabled;
+    }
+
+    /**
+     * Sets the opening book. While the position is in the book, its best move is played without searching.
+     *
+     * @param book the book, or null to always search
+     */
+    public void setOpeningBook(OpeningBook book) {
+        this.openingBook = book;
+    }
+
+    /**
+     * Chooses the move ordering stages, for measuring what each one saves.
+     * All stages are on by default.
+     *
+     * @param stages a combination of the MoveOrderer.STAGE_ flags
+     */
+    public void setMoveOrdering(int stages) {
+        this.moveOrdering = stages;
+    }
+
+    /**
+     * Gets the move ordering stages.
+     *
+     * @return a combination of the MoveOrderer.STAGE_ flags
+     */
+    public int getMoveOrdering() {
+        return moveOrdering;
+    }
+
+    /**
+     * Gets the number of search threads.
+     *
+     * @return the thread count, including the caller's
+     */
+    public int getThreads() {
+        return workers.length;
+    }
+
+    /**
+     * Stops pondering and the helper threads. The engine still works afterwards,
+     * and starts the threads again when they are next needed.
+     */
+    public void shutdown() {
+        finishPondering(null);
+        if (ponderer != null) {
+            ponderer.shutdownNow();
+            ponderer = null;
+        }
+        if (helpers != null) {
+            helpers.shutdownNow();
+            helpers = null;
+        }
+    }
+
+    /**
+     * Checks the hard deadline. Workers call this every thousand nodes or so;
+     * it only reads the clock and does not allocate.
+     *
+     * @return true if the search is out of time
+     */
+    boolean pastDeadline() {
+        if (System.nanoTime() > hardDeadline) {
+            timedOut = true;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Checks the soft deadline. Workers call this between iterations.
+     *
+     * @return true if no new iteration should be started
+     */
+    boolean pastSoftDeadline() {
+        return System.nanoTime() > softDeadline;
+    }
+
+    /**
+     * Starts the helper workers on the pool. Odd helpers skip the first iteration
+     * so the threads spread over different depths.
+     *
+     * @return the running helper tasks
+     */
+    private Future<?>[] startHelpers() {
+        Future<?>[] running = new Future<?>[workers.length - 1];
+        if (running.length == 0) {
+            return running;
+        }
+        if (helpers == null) {
+            helpers = Executors.newFixedThreadPool(running.length, task -> {
+                Thread thread = new Thread(task, "search-helper");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        for (int i = 1; i < workers.length; i++) {
+            SearchWorker helper = workers[i];
+            int startDepth = Math.min(maxDepth, 1 + (i & 1));
+            running[i - 1] = helpers.submit(() -> helper.iterate(startDepth, maxDepth));
+        }
+        return running;
+    }
+
+    /**
+     * Waits for the helper workers to notice the stop flag.
+     *
+     * @param running the running helper tasks
+     */
+    private void awaitHelpers(Future<?>[] running) {
+        for (Future<?> task : running) {
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                logger.error("Search helper failed", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Gets the depth of the last fully completed iteration of the last search.
+     *
+     * @return the reached depth in plies
+     */
+    public int getLastDepth() {
+        return lastResult == null ? 0 : lastResult.getDepth();
+    }
+
+    /**
+     * Gets the score of the last search, from the point of view of the side that moved.
+     *
+     * @return the search score
+     */
+    public int getLastScore() {
+        return lastResult == null ? 0 : lastResult.getScore();
+    }
+
+    /**
+     * Gets the number of nodes visited by the last search.
+     *
+     * @return the node count
+     */
+    public long getLastNodes() {
+        return lastResult == null ? 0 : lastResult.getNodes();
+    }
+
+    /**
+     * Gets the transposition table, for reading its statistics.
+     *
+     * @return the engine's transposition table
+     */
+    public TranspositionTable getTranspositionTable() {
+        return table;
+    }
+
+    /**
+     * Works out whose turn it is from the stone counts, Player1 moving first.
+     *
+     * @param board the game board
+     * @return the player about to move
+     */
+    public static char sideToMove(GoMokuBoard board) {
+        return board.getStoneCount(GoMokuBoard.Player1) <= board.getStoneCount(GoMokuBoard.Player2)
+            ? GoMokuBoard.Player1
+            : GoMokuBoard.Player2;
+    }
+
+    /**
+     * Gets the other player.
+     *
+     * @param player a player character
+     * @return the opponent's character
+     */
+    static char opponent(char player) {
+        return player == GoMokuBoard.Player1 ? GoMokuBoard.Player2 : GoMokuBoard.Player1;
+    }
+
+    private static long percent(double rate) {
+        return Math.round(rate * 100);
+    }
+}
@@ -0,0 +1,115 @@
+package MokuGame.Computer;
+
+/**
+ * The outcome of one SearchEngine search: the move chosen and how much searching went into it.
+ */
+public final class SearchResult {
+
+    private final int row;
+    private final int column;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long elapsedMillis;
+    private final boolean timedOut;
+
+    /**
+     * Creates a result.
+     *
+     * @param row the row of the chosen move
+     * @param column the column of the chosen move
+     * @param score the score from the point of view of the side that moved
+     * @param depth the deepest completed iteration, 0 for a forced win found without searching
+     * @param nodes the number of nodes visited by all threads
+     * @param elapsedMillis the wall-clock time of the search
+     * @param timedOut true if the hard deadline stopped an iteration
+     */
+    SearchResult(int row, int column, int score, int depth, long nodes, long elapsedMillis, boolean timedOut) {
+        this.row = row;
+        this.column = column;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.elapsedMillis = elapsedMillis;
+        this.timedOut = timedOut;
+    }
+
+    /**
+     * Gets the chosen move.
+     *
+     * @return a new array containing [row, column]
+     */
+    public int[] getMove() {
+        return new int[]{row, column};
+    }
+
+    /**
+     * Gets the row of the chosen move.
+     *
+     * @return the row index
+     */
+    public int getRow() {
+        return row;
+    }
+
+    /**
+     * Gets the column of the chosen move.
+     *
+     * @return the column index
+     */
+    public int getColumn() {
+        return column;
+    }
+
+    /**
+     * Gets the score of the chosen move.
+     *
+     * @return the score from the point of view of the side that moved
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Gets the deepest completed iteration.
+     *
+     * @return the depth in plies, 0 for a forced win found without searching
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Gets the number of nodes visited.
+     *
+     * @return the node count over all threads
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Gets how long the search took.
+     *
+     * @return the elapsed time in milliseconds
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Checks if the hard deadline cut an iteration short. The move then comes from
+     * the last iteration that did finish.
+     *
+     * @return true if the search ran out of time
+     */
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + row + ", " + column + ") score " + score + " depth " + depth
+            + " nodes " + nodes + " in " + elapsedMillis + " ms" + (timedOut ? ", timed out" : "");
+    }
+}
@@ -0,0 +1,310 @@
+package MokuGame.Computer;
+
+import MokuGame.Core.GoMokuBoard;
+import MokuGame.Service.GoMoKuGameService;
+
+/**
+ * One thread's share of a SearchEngine search.
+ * Each worker has its own copy of the position and move buffers, plus an IncrementalEvaluator
+ * and a CandidateSet that follow the moves made on the copy, so neither leaf scores nor move lists
+ * need a scan of the board. The copy is a char grid GoMokuBoard rather than a BitBoard: the search
+ * reads single cells, which the grid does faster, and never uses the BitBoard masks.
+ * Workers share only the engine's transposition table and stop flag with the other workers.
+ * All buffers are allocated when the board size changes, so the node loop does not allocate.
+ */
+class SearchWorker {
+
+    private static final int INFINITY = 2 * PatternEvaluator.WIN_SCORE;
+    private static final int TIME_CHECK_MASK = 1023;
+
+    private final SearchEngine engine;
+    private final TranspositionTable table;
+
+    private GoMokuBoard work;
+    private IncrementalEvaluator evaluator;
+    private CandidateSet candidates;
+    private MoveOrderer orderer;
+    private int[][] moves;
+
+    private char side;
+    private long nodes;
+    private boolean aborted;
+    private int rootBestMove;
+
+    private int bestMove;
+    private int completedDepth;
+    private int score;
+
+    /**
+     * Creates a worker for an engine.
+     *
+     * @param engine the engine whose limits and stop flag the worker follows
+     * @param table the shared transposition table
+     */
+    SearchWorker(SearchEngine engine, TranspositionTable table) {
+        this.engine = engine;
+        this.table = table;
+    }
+
+    /**
+     * Copies the position into the working board, allocating the buffers when the board size changes.
+     *
+     * @param board the board to search
+     * @param sideToMove the player about to move
+     * @param maxDepth the deepest iteration that will be searched
+     * @return true if the board size changed
+     */
+    boolean prepare(GoMokuBoard board, char sideToMove, int maxDepth) {
+        int rows = board.getRows();
+        int columns = board.getColumns();
+        boolean resized = work == null || work.getRows() != rows || work.getColumns() != columns;
+        if (resized) {
+            work = new GoMokuBoard(rows, columns);
+            evaluator = new IncrementalEvaluator(work);
+            candidates = new CandidateSet(work);
+        } else {
+            work.clear();
+        }
+        if (resized || moves.length <= maxDepth) {
+            moves = new int[maxDepth + 1][rows * columns];
+        }
+        if (resized || orderer.getStages() != engine.getMoveOrdering()) {
+            orderer = new MoveOrderer(engine.getMoveOrdering(), SearchEngine.MAX_DEPTH, rows * columns);
+        } else {
+            orderer.clear();
+        }
+
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                char cell = board.getCell(i, j);
+                if (cell == GoMokuBoard.Player1 || cell == GoMokuBoard.Player2) {
+                    work.setCell(i, j, cell);
+                }
+            }
+        }
+        side = sideToMove;
+        nodes = 0;
+        aborted = false;
+        bestMove = -1;
+        completedDepth = 0;
+        score = 0;
+        return resized;
+    }
+
+    /**
+     * Runs iterative deepening until maxDepth is done, a forced result is found,
+     * the soft deadline passes after an iteration, the hard deadline passes during one,
+     * or the engine raises its stop flag.
+     *
+     * @param startDepth the first iteration, helpers start at different depths to spread out
+     * @param maxDepth the last iteration
+     */
+    void iterate(int startDepth, int maxDepth) {
+        for (int depth = startDepth; depth <= maxDepth; depth++) {
+            rootBestMove = -1;
+            int result = negamax(depth, -INFINITY, INFINITY, 0, -1);
+            if (aborted) {
+                break;
+            }
+            bestMove = rootBestMove;
+            completedDepth = depth;
+            score = result;
+            if (Math.abs(result) >= PatternEvaluator.WIN_SCORE - SearchEngine.MAX_DEPTH) {
+                break; // forced result, deeper search cannot change it
+            }
+            if (engine.pastSoftDeadline()) {
+                break; // the next iteration would most likely not finish
+            }
+        }
+        if (bestMove < 0) {
+            bestMove = rootBestMove >= 0 ? rootBestMove : moves[0][0];
+        }
+    }
+
+    /**
+     * Gets the best move of the deepest completed iteration.
+     *
+     * @return the move as a cell index
+     */
+    int getBestMove() {
+        return bestMove;
+    }
+
+    /**
+     * Gets the deepest completed iteration.
+     *
+     * @return the depth in plies
+     */
+    int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    /**
+     * Gets the score of the deepest completed iteration.
+     *
+     * @return the score from the point of view of the side to move
+     */
+    int getScore() {
+        return score;
+    }
+
+    /**
+     * Gets the number of nodes this worker visited.
+     *
+     * @return the node count
+     */
+    long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Gets the working board.
+     *
+     * @return the worker's copy of the position
+     */
+    GoMokuBoard getBoard() {
+        return work;
+    }
+
+    /**
+     * Negamax search with alpha-beta pruning.
+     *
+     * @param depth the remaining depth in plies
+     * @param alpha the lower bound of the search window
+     * @param beta the upper bound of the search window
+     * @param ply the distance from the root
+     * @param lastMove the cell of the move that led here, or -1 at the root
+     * @return the score from the point of view of the side to move
+     */
+    private int negamax(int depth, int alpha, int beta, int ply, int lastMove) {
+        nodes++;
+        if (engine.stopped || ((nodes & TIME_CHECK_MASK) == 0 && engine.pastDeadline())) {
+            aborted = true;
+        }
+        if (aborted) {
+            return 0;
+        }
+
+        if (lastMove >= 0
+            && GoMoKuGameService.isWinningMove(work, work.rowOf(lastMove), work.columnOf(lastMove))) {
+            return -(PatternEvaluator.WIN_SCORE - ply); // the previous mover made five
+        }
+        if (work.isFull()) {
+            return 0;
+        }
+        if (depth == 0) {
+            return evaluator.evaluate(side);
+        }
+
+        long hash = work.getHash();
+        long entry = table.probe(hash);
+        int tableMove = -1;
+        if (entry != TranspositionTable.MISS) {
+            tableMove = TranspositionTable.moveOf(entry);
+            if (ply > 0 && TranspositionTable.depthOf(entry) >= depth) {
+                int stored = fromTable(TranspositionTable.scoreOf(entry), ply);
+                int bound = TranspositionTable.boundOf(entry);
+                if (bound == TranspositionTable.BOUND_EXACT
+                    || (bound == TranspositionTable.BOUND_LOWER && stored >= beta)
+                    || (bound == TranspositionTable.BOUND_UPPER && stored <= alpha)) {
+                    return stored;
+                }
+            }
+        }
+
+        int count = generateMoves(ply);
+        int[] list = moves[ply];
+        char mover = side;
+        orderer.order(work, list, count, ply, tableMove, mover, depth);
+        int alphaStart = alpha;
+        int best = -INFINITY;
+        int bestHere = -1;
+
+        for (int i = 0; i < count; i++) {
+            int move = list[i];
+            int row = work.rowOf(move);
+            int column = work.columnOf(move);
+
+            work.setCell(row, column, mover);
+            side = SearchEngine.opponent(mover);
+            int result = -negamax(depth - 1, -beta, -alpha, ply + 1, move);
+            work.setCell(row, column, GoMokuBoard.Empty);
+            side = mover;
+
+            if (aborted) {
+                return 0;
+            }
+            if (result > best) {
+                best = result;
+                bestHere = move;
+                if (ply == 0) {
+                    rootBestMove = move;
+                }
+            }
+            if (best > alpha) {
+                alpha = best;
+            }
+            if (alpha >= beta) {
+                orderer.recordCutoff(ply, move, depth, mover);
+                break;
+            }
+        }
+
+        int bound = best <= alphaStart ? TranspositionTable.BOUND_UPPER
+            : best >= beta ? TranspositionTable.BOUND_LOWER
+            : TranspositionTable.BOUND_EXACT;
+        table.store(hash, depth, toTable(best, ply), bound, bestHere);
+        return best;
+    }
+
+    /**
+     * Converts a win or loss score from distance-to-root to distance-to-this-node before storing,
+     * so the entry stays correct when the position is reached at another ply.
+     *
+     * @param score the search score
+     * @param ply the distance from the root
+     * @return the score to store
+     */
+    private static int toTable(int score, int ply) {
+        if (score >= PatternEvaluator.WIN_SCORE - SearchEngine.MAX_DEPTH) {
+            return score + ply;
+        }
+        if (score <= -PatternEvaluator.WIN_SCORE + SearchEngine.MAX_DEPTH) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    /**
+     * Converts a stored win or loss score back to distance-to-root.
+     *
+     * @param score the stored score
+     * @param ply the distance from the root
+     * @return the search score
+     */
+    private static int fromTable(int score, int ply) {
+        if (score >= PatternEvaluator.WIN_SCORE - SearchEngine.MAX_DEPTH) {
+            return score - ply;
+        }
+        if (score <= -PatternEvaluator.WIN_SCORE + SearchEngine.MAX_DEPTH) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    /**
+     * Writes the candidate moves for a ply: every empty cell within the CandidateSet radius of a stone,
+     * or the centre on an empty board.
+     *
+     * @param ply the ply whose move buffer to fill
+     * @return the number of candidates
+     */
+    private int generateMoves(int ply) {
+        int[] list = moves[ply];
+        int count = candidates.copyTo(list);
+        if (count == 0) {
+            list[count++] = work.cellIndex(work.getRows() / 2, work.getColumns() / 2);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,142 @@
+package MokuGame.Computer;
+
+import MokuGame.Core.GoMokuBoard;
+import MokuGame.Service.Database;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Batch analyzer that runs the ThreatSolver over every board saved in the database
+ * and reports which ones have a forced win for the side to move.
+ *
+ * mvn compile exec:java -Dexec.mainClass=MokuGame.Computer.ThreatAnalyzer [-Dexec.args="nodeBudget"]
+ */
+public class ThreatAnalyzer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThreatAnalyzer.class);
+
+    private final ThreatSolver solver;
+
+    /**
+     * Creates an analyzer with the given solver.
+     *
+     * @param solver the solver to run on each board
+     */
+    public ThreatAnalyzer(ThreatSolver solver) {
+        this.solver = solver;
+    }
+
+    /**
+     * Analyzes one board for the side to move, first by continuous fours, then by continuous threats.
+     *
+     * @param board the board to analyze
+     * @return the solver's result with a one-line summary
+     */
+    public Analysis analyze(GoMokuBoard board) {
+        char side = SearchEngine.sideToMove(board);
+        ThreatSolver.Result result = solver.solveVcf(board, side);
+        String kind = "VCF";
+        if (!result.isWin()) {
+            result = solver.solveVct(board, side);
+            kind = "VCT";
+        }
+        String summary;
+        if (result.isWin()) {
+            summary = side + " wins by " + kind + ": " + describe(result.getSequence())
+                + " (" + result.getNodes() + " nodes)";
+        } else {
+            summary = side + (result.isBudgetExhausted() ? " unknown, budget exhausted" : " has no forced win")
+                + " (" + result.getNodes() + " nodes)";
+        }
+        return new Analysis(result, summary);
+    }
+
+    /**
+     * Formats a move sequence as "(row,column)" pairs.
+     *
+     * @param sequence the moves
+     * @return the formatted sequence
+     */
+    static String describe(int[][] sequence) {
+        StringBuilder text = new StringBuilder();
+        for (int[] move : sequence) {
+            if (text.length() > 0) {
+                text.append(' ');
+            }
+            text.append('(').append(move[0]).append(',').append(move[1]).append(')');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Analyzes every saved board.
+     *
+     * @param args optional node budget per solve
+     */
+    public static void main(String[] args) {
+        long budget = args.length > 0 ? Long.parseLong(args[0]) : ThreatSolver.DEFAULT_NODE_BUDGET;
+        ThreatAnalyzer analyzer = new ThreatAnalyzer(new ThreatSolver(budget, 0));
+        int analyzed = 0;
+        int wins = 0;
+        try (Database database = new Database()) {
+            for (String name : database.listBoards()) {
+                GoMokuBoard board = database.loadBoard(name);
+                if (board == null) {
+                    continue;
+                }
+                Analysis analysis = analyzer.analyze(board);
+                analyzed++;
+                if (analysis.isWin()) {
+                    wins++;
+                }
+                System.out.println(name + ": " + analysis.getSummary());
+            }
+        }
+        logger.info("Analyzed {} boards, {} with a forced win", analyzed, wins);
+    }
+
+    /**
+     * The result of analyzing one board.
+     */
+    public static final class Analysis {
+        private final ThreatSolver.Result result;
+        private final String summary;
+
+        Analysis(ThreatSolver.Result result, String summary) {
+            this.result = result;
+            this.summary = summary;
+        }
+
+        /**
+         * Gets the solver's result: the VCF result if it found a win, otherwise the VCT result.
+         *
+         * @return the result
+         */
+        public ThreatSolver.Result getResult() {
+            return result;
+        }
+
+        /**
+         * Checks if the side to move has a forced win.
+         *
+         * @return true if a winning sequence was found
+         */
+        public boolean isWin() {
+            return result.isWin();
+        }
+
+        /**
+         * Gets a one-line summary: the side to move, the kind of win and its moves, and the nodes searched.
+         *
+         * @return the summary
+         */
+        public String getSummary() {
+            return summary;
+        }
+
+        @Override
+        public String toString() {
+            return summary;
+        }
+    }
+}
@@ -0,0 +1,660 @@
+package MokuGame.Computer;
+
+import MokuGame.Core.GoMokuBoard;
+import MokuGame.Service.GoMoKuGameService;
+
+/**
+ * Threat-space solver that answers whether one side has a forced win, and how.
+ * VCF (victory by continuous fours) only plays fours, so every defender reply is forced.
+ * VCT (victory by continuous threats) also plays threes that threaten an open four; the
+ * defender may then answer anywhere on the threatened lines or with a four of their own,
+ * and the attacker must win against every such answer.
+ *
+ * Threats are found with the game's win rule: a four is a window of WIN_LENGTH cells holding
+ * four attacker stones and one empty cell. The solver works on its own copy of the board and
+ * stops when its node or time budget runs out, in which case the answer is "unknown" rather than "no".
+ * An instance is not thread-safe.
+ */
+public class ThreatSolver {
+
+    /** Default number of nodes a solve may visit. */
+    public static final long DEFAULT_NODE_BUDGET = 200_000;
+
+    private static final int WIN = GoMoKuGameService.WIN_LENGTH;
+    private static final int[] DR = {0, 1, 1, 1};
+    private static final int[] DC = {1, 0, 1, -1};
+    private static final int MAX_VCF_DEPTH = 30;
+    private static final int MAX_VCT_DEPTH = 12;
+    private static final int CELL_BITS = 20;
+    private static final int CELL_MASK = (1 << CELL_BITS) - 1;
+
+    private final long nodeBudget;
+    private final long timeLimitMillis;
+
+    private GoMokuBoard work;
+    private int rows;
+    private int columns;
+    private int[][] candidates;
+    private int[][] defenses;
+    private int[] stamp;
+    private int stampValue;
+    private int[] path;
+    private int pathLength;
+    private int[] winningLine;
+    private int winningLength;
+
+    private char attacker;
+    private char defender;
+    private int depthLimit;
+    private long nodes;
+    private long deadline;
+    private boolean exhausted;
+    private int firstFound;
+
+    /**
+     * Result of a solve.
+     */
+    public static final class Result {
+        private final boolean win;
+        private final boolean exhausted;
+        private final int[][] sequence;
+        private final long nodes;
+
+        Result(boolean win, boolean exhausted, int[][] sequence, long nodes) {
+            this.win = win;
+            this.exhausted = exhausted;
+            this.sequence = sequence;
+            this.nodes = nodes;
+        }
+
+        /**
+         * Checks if a forced win was found.
+         *
+         * @return true if the attacker wins by force
+         */
+        public boolean isWin() {
+            return win;
+        }
+
+        /**
+         * Checks if the budget ran out before the search finished.
+         * A result without a win and with an exhausted budget means "unknown", not "no win".
+         *
+         * @return true if the node or time budget was used up
+         */
+        public boolean isBudgetExhausted() {
+            return exhausted;
+        }
+
+        /**
+         * Gets the winning line, attacker and defender moves alternating and starting with the attacker.
+         *
+         * @return the moves as [row, column] pairs, empty if there is no win
+         */
+        public int[][] getSequence() {
+            return sequence;
+        }
+
+        /**
+         * Gets the attacker's first winning move.
+         *
+         * @return [row, column] of the first move, or null if there is no win
+         */
+        public int[] getFirstMove() {
+            return sequence.length > 0 ? sequence[0] : null;
+        }
+
+        /**
+         * Gets the number of nodes the solve visited.
+         *
+         * @return the node count
+         */
+        public long getNodes() {
+            return nodes;
+        }
+    }
+
+    /**
+     * Creates a solver with the default node budget and no time limit.
+     */
+    public ThreatSolver() {
+        this(DEFAULT_NODE_BUDGET, 0);
+    }
+
+    /**
+     * Creates a solver with the given budgets.
+     *
+     * @param nodeBudget the most nodes a solve may visit
+     * @param timeLimitMillis the time budget per solve in milliseconds, or 0 for no time limit
+     */
+    public ThreatSolver(long nodeBudget, long timeLimitMillis) {
+        this.nodeBudget = nodeBudget;
+        this.timeLimitMillis = timeLimitMillis;
+    }
+
+    /**
+     * Checks if the attacker, moving next, wins by continuous fours.
+     *
+     * @param board the position, left unchanged
+     * @param attacker the player to move and attack
+     * @return the solve result
+     */
+    public Result solveVcf(GoMokuBoard board, char attacker) {
+        return solve(board, attacker, false);
+    }
+
+    /**
+     * Checks if the attacker, moving next, wins by continuous fours and threes.
+     *
+     * @param board the position, left unchanged
+     * @param attacker the player to move and attack
+     * @return the solve result
+     */
+    public Result solveVct(GoMokuBoard board, char attacker) {
+        return solve(board, attacker, true);
+    }
+
+    private Result solve(GoMokuBoard board, char attacker, boolean threes) {
+        prepare(board);
+        this.attacker = attacker;
+        this.defender = SearchEngine.opponent(attacker);
+        nodes = 0;
+        exhausted = false;
+        pathLength = 0;
+        winningLength = 0;
+        deadline = timeLimitMillis > 0 ? System.nanoTime() + timeLimitMillis * 1_000_000L : Long.MAX_VALUE;
+
+        boolean win;
+        int five = findFives(attacker);
+        if (five >= 0) {
+            winningLine[0] = five;   // already a four on the board, just complete it
+            winningLength = 1;
+            win = true;
+        } else {
+            int threats = countFives(defender);
+            int defenderThreat = threats == 1 ? firstFound : -1;
+            win = false;
+            if (threats < 2) {
+                // VCT deepens one attacker move at a time so short wins are found before long
+                // refutations use up the budget; VCF is narrow enough to search to full depth at once
+                int first = threes ? 1 : MAX_VCF_DEPTH;
+                int last = threes ? MAX_VCT_DEPTH : MAX_VCF_DEPTH;
+                for (depthLimit = first; depthLimit <= last && !win && !exhausted; depthLimit++) {
+                    win = attack(0, defenderThreat, threes);
+                }
+            }
+        }
+
+        int[][] sequence = new int[win ? winningLength : 0][];
+        for (int i = 0; i < sequence.length; i++) {
+            sequence[i] = new int[]{winningLine[i] / columns, winningLine[i] % columns};
+        }
+        return new Result(win, exhausted, sequence, nodes);
+    }
+
+    /**
+     * Attacker node: tries every four, and with threes enabled every three,
+     * that keeps the initiative.
+     *
+     * @param depth the number of attacker moves played so far
+     * @param defenderThreat the cell where the defender would make five, or -1
+     * @param threes whether threes count as threats
+     * @return true if the attacker wins by force from here
+     */
+    private boolean attack(int depth, int defenderThreat, boolean threes) {
+        if (++nodes > nodeBudget || ((nodes & 255) == 0 && System.nanoTime() > deadline)) {
+            exhausted = true;
+        }
+        if (exhausted || depth >= depthLimit) {
+            return false;
+        }
+
+        int[] list = candidates[depth];
+        int count = collectWindows(attacker, WIN - 2, list);
+        for (int i = 0; i < count && !exhausted; i++) {
+            int cell = list[i];
+            if (defenderThreat >= 0 && cell != defenderThreat) {
+                continue; // the defender's five has to be blocked first
+            }
+            int gains = countGains(attacker, cell);
+            if (gains == 0) {
+                continue;
+            }
+            int gain = firstFound;
+            play(cell, attacker);
+            if (gains >= 2) {
+                pushWinningLine(gain, firstSecondGain(cell, gain));
+                undo(cell);
+                return true;
+            }
+            boolean won = defendFour(depth, gain, threes);
+            undo(cell);
+            if (won) {
+                return true;
+            }
+        }
+
+        if (!threes) {
+            return false;
+        }
+        count = collectWindows(attacker, WIN - 3, list);
+        orderThrees(list, count);
+        for (int i = 0; i < count && !exhausted; i++) {
+            int cell = list[i];
+            if (defenderThreat >= 0 && cell != defenderThreat) {
+                continue;
+            }
+            play(cell, attacker);
+            boolean won = threatensOpenFour(cell) && defendThree(depth, cell);
+            undo(cell);
+            if (won) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sorts three candidates so that cells on the most half-filled windows, which are likeliest
+     * to make a double threat, come first.
+     *
+     * @param list the candidate cells
+     * @param count the number of candidates
+     */
+    private void orderThrees(int[] list, int count) {
+        for (int i = 0; i < count; i++) {
+            list[i] |= countWindows(attacker, WIN - 3, list[i]) << CELL_BITS;
+        }
+        for (int i = 1; i < count; i++) {
+            int entry = list[i];
+            int j = i - 1;
+            while (j >= 0 && list[j] >>> CELL_BITS < entry >>> CELL_BITS) {
+                list[j + 1] = list[j];
+                j--;
+            }
+            list[j + 1] = entry;
+        }
+        for (int i = 0; i < count; i++) {
+            list[i] &= CELL_MASK;
+        }
+    }
+
+    /**
+     * Counts the windows through an empty cell that hold the given number of the player's stones
+     * and none of the opponent's.
+     */
+    private int countWindows(char player, int stones, int cell) {
+        char opponent = SearchEngine.opponent(player);
+        int row = cell / columns;
+        int column = cell % columns;
+        int count = 0;
+        for (int d = 0; d < 4; d++) {
+            for (int k = -(WIN - 1); k <= 0; k++) {
+                int r0 = row + k * DR[d];
+                int c0 = column + k * DC[d];
+                if (windowFits(r0, c0, d)
+                    && windowCount(r0, c0, d, player) == stones
+                    && windowCount(r0, c0, d, opponent) == 0) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Defender node after a four: the only reply is to block its gain cell.
+     *
+     * @param depth the attacker depth
+     * @param block the cell the defender must take
+     * @param threes whether threes count as threats
+     * @return true if the attacker still wins
+     */
+    private boolean defendFour(int depth, int block, boolean threes) {
+        play(block, defender);
+        boolean won = false;
+        if (!GoMoKuGameService.isWinningMove(work, block / columns, block % columns)) {
+            int threats = countFivesAround(defender, block);
+            if (threats < 2) {
+                won = attack(depth + 1, threats == 1 ? firstFound : -1, threes);
+            }
+        }
+        undo(block);
+        return won;
+    }
+
+    /**
+     * Defender node after a three: the attacker must win against every reply on the threatened
+     * lines and against every counter-four.
+     *
+     * @param depth the attacker depth
+     * @param three the cell of the attacker's three
+     * @return true if the attacker wins against every defense
+     */
+    private boolean defendThree(int depth, int three) {
+        int[] list = defenses[depth];
+        int count = collectDefenses(three, list);
+        for (int i = 0; i < count; i++) {
+            int cell = list[i];
+            play(cell, defender);
+            int threats = countFivesAround(defender, cell);
+            boolean won = threats < 2 && attack(depth + 1, threats == 1 ? firstFound : -1, true);
+            undo(cell);
+            if (!won) {
+                return false;
+            }
+        }
+        return count > 0;
+    }
+
+    /**
+     * Checks if the attacker, after playing a three, could next make an open four or a double four.
+     *
+     * @param three the cell of the three just played
+     * @return true if the three is a real threat
+     */
+    private boolean threatensOpenFour(int three) {
+        int row = three / columns;
+        int column = three % columns;
+        for (int d = 0; d < 4; d++) {
+            for (int k = -(WIN - 1); k <= WIN - 1; k++) {
+                int r = row + k * DR[d];
+                int c = column + k * DC[d];
+                if (work.isValidPosition(r, c) && work.isEmpty(r, c) && countGains(attacker, r * columns + c) >= 2) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Collects the defender's replies to a three: empty cells of the attacker's windows through the
+     * three that hold three attacker stones, plus every cell where the defender can make a four.
+     *
+     * @param three the cell of the attacker's three
+     * @param out receives the replies
+     * @return the number of replies
+     */
+    private int collectDefenses(int three, int[] out) {
+        int mark = ++stampValue;
+        int count = 0;
+        int row = three / columns;
+        int column = three % columns;
+        for (int d = 0; d < 4; d++) {
+            for (int k = -(WIN - 1); k <= 0; k++) {
+                int r0 = row + k * DR[d];
+                int c0 = column + k * DC[d];
+                if (!windowFits(r0, c0, d)) {
+                    continue;
+                }
+                if (windowCount(r0, c0, d, attacker) == WIN - 2 && windowCount(r0, c0, d, defender) == 0) {
+                    for (int j = 0; j < WIN; j++) {
+                        int r = r0 + j * DR[d];
+                        int c = c0 + j * DC[d];
+                        int cell = r * columns + c;
+                        if (work.isEmpty(r, c) && stamp[cell] != mark) {
+                            stamp[cell] = mark;
+                            out[count++] = cell;
+                        }
+                    }
+                }
+            }
+        }
+
+        int[] scratch = candidates[candidates.length - 1];
+        int fours = collectWindows(defender, WIN - 2, scratch);
+        for (int i = 0; i < fours; i++) {
+            int cell = scratch[i];
+            if (countGains(defender, cell) > 0 && !contains(out, count, cell)) {
+                out[count++] = cell;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Collects every empty cell of a window holding exactly the given number of the player's stones
+     * and none of the opponent's.
+     *
+     * @param player the player
+     * @param stones the number of the player's stones in the window
+     * @param out receives the cells
+     * @return the number of cells
+     */
+    private int collectWindows(char player, int stones, int[] out) {
+        char opponent = SearchEngine.opponent(player);
+        int mark = ++stampValue;
+        int count = 0;
+        for (int r0 = 0; r0 < rows; r0++) {
+            for (int c0 = 0; c0 < columns; c0++) {
+                for (int d = 0; d < 4; d++) {
+                    if (!windowFits(r0, c0, d)
+                        || windowCount(r0, c0, d, player) != stones
+                        || windowCount(r0, c0, d, opponent) != 0) {
+                        continue;
+                    }
+                    for (int j = 0; j < WIN; j++) {
+                        int r = r0 + j * DR[d];
+                        int c = c0 + j * DC[d];
+                        int cell = r * columns + c;
+                        if (work.isEmpty(r, c) && stamp[cell] != mark) {
+                            stamp[cell] = mark;
+                            out[count++] = cell;
+                        }
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts the distinct cells where the player would make five after playing an empty cell.
+     * Stops counting at two, since two already cannot be blocked. The first one is left in firstFound.
+     *
+     * @param player the player
+     * @param cell the empty cell to play
+     * @return 0, 1 or 2
+     */
+    private int countGains(char player, int cell) {
+        return gainsExcept(player, cell, -1);
+    }
+
+    /**
+     * Finds a second gain cell different from the given one, for recording a double four.
+     */
+    private int firstSecondGain(int cell, int gain) {
+        undo(cell);
+        gainsExcept(attacker, cell, gain);
+        int second = firstFound;
+        play(cell, attacker);
+        return second;
+    }
+
+    private int gainsExcept(char player, int cell, int except) {
+        char opponent = SearchEngine.opponent(player);
+        int row = cell / columns;
+        int column = cell % columns;
+        int found = 0;
+        int first = -1;
+        for (int d = 0; d < 4; d++) {
+            for (int k = -(WIN - 1); k <= 0; k++) {
+                int r0 = row + k * DR[d];
+                int c0 = column + k * DC[d];
+                if (!windowFits(r0, c0, d)
+                    || windowCount(r0, c0, d, player) != WIN - 2
+                    || windowCount(r0, c0, d, opponent) != 0) {
+                    continue;
+                }
+                for (int j = 0; j < WIN; j++) {
+                    int r = r0 + j * DR[d];
+                    int c = c0 + j * DC[d];
+                    int other = r * columns + c;
+                    if (other != cell && other != except && work.isEmpty(r, c) && other != first) {
+                        if (first < 0) {
+                            first = other;
+                            found = 1;
+                        } else {
+                            firstFound = first;
+                            return 2;
+                        }
+                    }
+                }
+            }
+        }
+        firstFound = first;
+        return found;
+    }
+
+    /**
+     * Counts the distinct cells where the player makes five, over windows through one cell.
+     * The first one is left in firstFound.
+     */
+    private int countFivesAround(char player, int cell) {
+        char opponent = SearchEngine.opponent(player);
+        int row = cell / columns;
+        int column = cell % columns;
+        int first = -1;
+        for (int d = 0; d < 4; d++) {
+            for (int k = -(WIN - 1); k <= 0; k++) {
+                int r0 = row + k * DR[d];
+                int c0 = column + k * DC[d];
+                if (!windowFits(r0, c0, d)
+                    || windowCount(r0, c0, d, player) != WIN - 1
+                    || windowCount(r0, c0, d, opponent) != 0) {
+                    continue;
+                }
+                int empty = emptyInWindow(r0, c0, d);
+                if (first < 0) {
+                    first = empty;
+                } else if (empty != first) {
+                    firstFound = first;
+                    return 2;
+                }
+            }
+        }
+        firstFound = first;
+        return first < 0 ? 0 : 1;
+    }
+
+    /**
+     * Counts the distinct cells where the player makes five anywhere on the board, up to two.
+     * The first one is left in firstFound.
+     */
+    private int countFives(char player) {
+        char opponent = SearchEngine.opponent(player);
+        int first = -1;
+        for (int r0 = 0; r0 < rows; r0++) {
+            for (int c0 = 0; c0 < columns; c0++) {
+                for (int d = 0; d < 4; d++) {
+                    if (!windowFits(r0, c0, d)
+                        || windowCount(r0, c0, d, player) != WIN - 1
+                        || windowCount(r0, c0, d, opponent) != 0) {
+                        continue;
+                    }
+                    int empty = emptyInWindow(r0, c0, d);
+                    if (first < 0) {
+                        first = empty;
+                    } else if (empty != first) {
+                        firstFound = first;
+                        return 2;
+                    }
+                }
+            }
+        }
+        firstFound = first;
+        return first < 0 ? 0 : 1;
+    }
+
+    /**
+     * Finds a cell where the player makes five right away.
+     *
+     * @return the cell, or -1 if there is none
+     */
+    private int findFives(char player) {
+        return countFives(player) > 0 ? firstFound : -1;
+    }
+
+    private boolean windowFits(int r0, int c0, int d) {
+        return work.isValidPosition(r0, c0)
+            && work.isValidPosition(r0 + (WIN - 1) * DR[d], c0 + (WIN - 1) * DC[d]);
+    }
+
+    private int windowCount(int r0, int c0, int d, char player) {
+        int count = 0;
+        for (int j = 0; j < WIN; j++) {
+            if (work.getCell(r0 + j * DR[d], c0 + j * DC[d]) == player) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private int emptyInWindow(int r0, int c0, int d) {
+        for (int j = 0; j < WIN; j++) {
+            int r = r0 + j * DR[d];
+            int c = c0 + j * DC[d];
+            if (work.isEmpty(r, c)) {
+                return r * columns + c;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean contains(int[] list, int count, int cell) {
+        for (int i = 0; i < count; i++) {
+            if (list[i] == cell) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void play(int cell, char player) {
+        work.setCell(cell / columns, cell % columns, player);
+        path[pathLength++] = cell;
+    }
+
+    private void undo(int cell) {
+        work.setCell(cell / columns, cell % columns, GoMokuBoard.Empty);
+        pathLength--;
+    }
+
+    /**
+     * Records the current path plus the defender's block and the attacker's five as the winning line.
+     */
+    private void pushWinningLine(int block, int five) {
+        System.arraycopy(path, 0, winningLine, 0, pathLength);
+        winningLength = pathLength;
+        winningLine[winningLength++] = block;
+        winningLine[winningLength++] = five;
+    }
+
+    /**
+     * Copies the position into the working board, allocating the buffers when the board size changes.
+     */
+    private void prepare(GoMokuBoard board) {
+        if (work == null || rows != board.getRows() || columns != board.getColumns()) {
+            rows = board.getRows();
+            columns = board.getColumns();
+            work = new GoMokuBoard(rows, columns);
+            int cells = rows * columns;
+            candidates = new int[MAX_VCF_DEPTH + 2][cells];
+            defenses = new int[MAX_VCF_DEPTH + 1][cells];
+            stamp = new int[cells];
+            path = new int[2 * MAX_VCF_DEPTH + 4];
+            winningLine = new int[2 * MAX_VCF_DEPTH + 4];
+        } else {
+            work.clear();
+        }
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                char cell = board.getCell(i, j);
+                if (cell == GoMokuBoard.Player1 || cell == GoMokuBoard.Player2) {
+                    work.setCell(i, j, cell);
+                }
+            }
+        }
+    }
+}
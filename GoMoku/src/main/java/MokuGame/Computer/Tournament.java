@@ -0,0 +1,404 @@
+package MokuGame.Computer;
+
+import MokuGame.Core.GoMokuBoard;
+import MokuGame.Service.GoMoKuGameService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Headless self-play match between two computer players, for measuring whether an AI change
+ * makes it stronger. Games run on a thread pool; every thread makes its own pair of players
+ * from the suppliers, since players such as SearchEngine must not be shared, and every game
+ * gets its own GoMokuBoard and GoMoKuGameService. The first moves can be played at random so
+ * deterministic players do not repeat one game. The players swap colours every game, and each
+ * pair of games shares its random opening, so neither player gains from a lucky opening.
+ *
+ * The result counts wins, draws and losses of player A, with A's Elo difference over B and its
+ * 95% confidence interval, the games per second and each player's average time per move.
+ * A player that returns no move or an illegal one loses the game.
+ *
+ * mvn compile exec:java -Dexec.mainClass=MokuGame.Computer.Tournament -Dexec.args="search:4 random 200"
+ *   -Dorg.slf4j.simpleLogger.defaultLogLevel=warn
+ */
+public class Tournament {
+
+    private static final Logger logger = LoggerFactory.getLogger(Tournament.class);
+
+    /** Default number of random moves at the start of each game. */
+    public static final int DEFAULT_RANDOM_PLIES = 2;
+
+    private final Supplier<MoveSelector> playerA;
+    private final Supplier<MoveSelector> playerB;
+    private final int rows;
+    private final int columns;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int randomPlies = DEFAULT_RANDOM_PLIES;
+    private long seed = System.nanoTime();
+
+    /**
+     * Creates a match between two players.
+     *
+     * @param playerA makes player A; called once per thread
+     * @param playerB makes player B; called once per thread
+     * @param rows the number of rows of the board
+     * @param columns the number of columns of the board
+     */
+    public Tournament(Supplier<MoveSelector> playerA, Supplier<MoveSelector> playerB, int rows, int columns) {
+        this.playerA = playerA;
+        this.playerB = playerB;
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    /**
+     * Sets the number of games played at the same time. The default is the core count.
+     *
+     * @param threads the thread count, at least 1
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1");
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Sets how many moves at the start of each game are played at random near the centre.
+     *
+     * @param plies the number of random moves, 0 to let the players open
+     */
+    public void setRandomPlies(int plies) {
+        this.randomPlies = plies;
+    }
+
+    /**
+     * Sets the seed of the random openings, so a match can be repeated.
+     *
+     * @param seed the seed; games 2k and 2k + 1 use seed + k
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Plays the match.
+     *
+     * @param games the number of games
+     * @return the match result
+     */
+    public Result run(int games) {
+        Result result = new Result();
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger names = new AtomicInteger();
+        int workers = Math.max(1, Math.min(threads, games));
+        ExecutorService pool = Executors.newFixedThreadPool(workers, task -> {
+            Thread thread = new Thread(task, "tournament-" + names.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                running.add(pool.submit(() -> {
+                    MoveSelector a = playerA.get();
+                    MoveSelector b = playerB.get();
+                    try {
+                        for (int game = next.getAndIncrement(); game < games; game = next.getAndIncrement()) {
+                            playGame(game, a, b, result);
+                        }
+                    } finally {
+                        close(a);
+                        close(b);
+                    }
+                }));
+            }
+            for (Future<?> worker : running) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Tournament interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A game failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        result.elapsedNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    /**
+     * Plays one game. Player A moves first in even games.
+     *
+     * @param game the game number
+     * @param a player A
+     * @param b player B
+     * @param result the result to add the game to
+     */
+    private void playGame(int game, MoveSelector a, MoveSelector b, Result result) {
+        GoMoKuGameService service = new GoMoKuGameService(new GoMokuBoard(rows, columns));
+        Random random = new Random(seed + game / 2); // the same opening with colours reversed
+        boolean aFirst = game % 2 == 0;
+        char aStone = aFirst ? GoMokuBoard.Player1 : GoMokuBoard.Player2;
+        char winner = GoMokuBoard.Empty;
+
+        for (int ply = 0; !service.isGameOver(); ply++) {
+            boolean aToMove = service.getCurrentPlayer() == aStone;
+            int[] move;
+            if (ply < randomPlies) {
+                move = OpeningBookBuilder.randomOpeningMove(service.getBoard(), random);
+            } else {
+                long start = System.nanoTime();
+                move = (aToMove ? a : b).selectMove(service.getBoard());
+                long elapsed = System.nanoTime() - start;
+                (aToMove ? result.nanosA : result.nanosB).add(elapsed);
+                (aToMove ? result.movesA : result.movesB).increment();
+            }
+            if (move == null || !service.makeMove(move[0], move[1])) {
+                logger.warn("Game {}: player {} made no legal move and forfeits", game, aToMove ? "A" : "B");
+                winner = SearchEngine.opponent(service.getCurrentPlayer());
+                result.forfeits.incrementAndGet();
+                break;
+            }
+            winner = service.getWinner();
+        }
+
+        if (winner == GoMokuBoard.Empty) {
+            result.draws.incrementAndGet();
+        } else if (winner == aStone) {
+            result.wins.incrementAndGet();
+        } else {
+            result.losses.incrementAndGet();
+        }
+    }
+
+    private static void close(MoveSelector player) {
+        if (player instanceof SearchEngine engine) {
+            engine.shutdown();
+        }
+    }
+
+    /**
+     * Makes a player from a command line description.
+     *
+     * @param spec "random", or "search" with an optional depth and time limit in milliseconds,
+     *             such as "search:4" or "search:8:500"
+     * @return a supplier of new players
+     */
+    public static Supplier<MoveSelector> player(String spec) {
+        String[] parts = spec.split(":");
+        if (parts[0].equals("random") && parts.length == 1) {
+            return computerPlayer::new;
+        }
+        if (parts[0].equals("search") && parts.length <= 3) {
+            int depth = parts.length > 1 ? Integer.parseInt(parts[1]) : SearchEngine.DEFAULT_MAX_DEPTH;
+            long millis = parts.length > 2 ? Long.parseLong(parts[2]) : 0;
+            return () -> new SearchEngine(depth, millis);
+        }
+        throw new IllegalArgumentException("Unknown player: " + spec);
+    }
+
+    /**
+     * Plays a match and prints the result.
+     * Arguments: player A, player B, then optionally the number of games (default 100),
+     * the thread count (default the core count) and the board size (default 15).
+     *
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: Tournament <player A> <player B> [games] [threads] [board size]");
+            System.out.println("Players: random, search[:depth[:millis]]");
+            return;
+        }
+        int games = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+        int size = args.length > 4 ? Integer.parseInt(args[4]) : 15;
+        Tournament tournament = new Tournament(player(args[0]), player(args[1]), size, size);
+        if (args.length > 3) {
+            tournament.setThreads(Integer.parseInt(args[3]));
+        }
+        System.out.println(args[0] + " vs " + args[1]);
+        System.out.println(tournament.run(games));
+    }
+
+    /**
+     * Outcome of a match, from player A's point of view.
+     * The counts are updated by the game threads while the match runs.
+     */
+    public static final class Result {
+
+        private static final double Z_95 = 1.96;
+
+        private final AtomicInteger wins = new AtomicInteger();
+        private final AtomicInteger draws = new AtomicInteger();
+        private final AtomicInteger losses = new AtomicInteger();
+        private final AtomicInteger forfeits = new AtomicInteger();
+        private final LongAdder nanosA = new LongAdder();
+        private final LongAdder nanosB = new LongAdder();
+        private final LongAdder movesA = new LongAdder();
+        private final LongAdder movesB = new LongAdder();
+        private long elapsedNanos;
+
+        private Result() {
+        }
+
+        /**
+         * Gets the number of games played.
+         *
+         * @return the game count
+         */
+        public int getGames() {
+            return wins.get() + draws.get() + losses.get();
+        }
+
+        /**
+         * Gets the number of games player A won.
+         *
+         * @return the win count
+         */
+        public int getWins() {
+            return wins.get();
+        }
+
+        /**
+         * Gets the number of drawn games.
+         *
+         * @return the draw count
+         */
+        public int getDraws() {
+            return draws.get();
+        }
+
+        /**
+         * Gets the number of games player A lost.
+         *
+         * @return the loss count
+         */
+        public int getLosses() {
+            return losses.get();
+        }
+
+        /**
+         * Gets the number of games lost by a missing or illegal move, by either player.
+         *
+         * @return the forfeit count
+         */
+        public int getForfeits() {
+            return forfeits.get();
+        }
+
+        /**
+         * Gets player A's score: a point per win and half a point per draw, over the games played.
+         *
+         * @return the score from 0 to 1
+         */
+        public double getScore() {
+            int games = getGames();
+            return games == 0 ? 0.5 : (wins.get() + draws.get() / 2.0) / games;
+        }
+
+        /**
+         * Gets player A's Elo difference over player B.
+         *
+         * @return the Elo difference; infinite if one player won every game
+         */
+        public double getElo() {
+            return elo(getScore());
+        }
+
+        /**
+         * Gets the low end of the 95% confidence interval of the Elo difference.
+         *
+         * @return the lower bound
+         */
+        public double getEloLower() {
+            return elo(scoreBound(-1));
+        }
+
+        /**
+         * Gets the high end of the 95% confidence interval of the Elo difference.
+         *
+         * @return the upper bound
+         */
+        public double getEloUpper() {
+            return elo(scoreBound(1));
+        }
+
+        /**
+         * Gets the match speed.
+         *
+         * @return games finished per second of wall time
+         */
+        public double getGamesPerSecond() {
+            return elapsedNanos == 0 ? 0 : getGames() * 1e9 / elapsedNanos;
+        }
+
+        /**
+         * Gets a player's average time to choose a move. Random opening moves are not counted.
+         *
+         * @param playerA true for player A, false for player B
+         * @return the average move time in milliseconds
+         */
+        public double getAverageMoveMillis(boolean playerA) {
+            long moves = (playerA ? movesA : movesB).sum();
+            return moves == 0 ? 0 : (playerA ? nanosA : nanosB).sum() / 1e6 / moves;
+        }
+
+        /**
+         * Gets one end of the 95% Wilson interval of the score, using the spread of the per-game
+         * results so draws narrow it. Unlike the plain normal interval it stays inside (0, 1)
+         * when one player won every game.
+         *
+         * @param sign -1 for the lower end, 1 for the upper end
+         */
+        private double scoreBound(int sign) {
+            int games = getGames();
+            if (games == 0) {
+                return 0.5;
+            }
+            double score = getScore();
+            double variance = (wins.get() * Math.pow(1 - score, 2) + draws.get() * Math.pow(0.5 - score, 2)
+                + losses.get() * Math.pow(score, 2)) / games;
+            double z2 = Z_95 * Z_95 / games;
+            double centre = score + z2 / 2;
+            double half = Z_95 * Math.sqrt(variance / games + z2 / (4.0 * games));
+            return (centre + sign * half) / (1 + z2);
+        }
+
+        /**
+         * Converts a score to the Elo difference that predicts it.
+         */
+        private static double elo(double score) {
+            if (score <= 0) {
+                return Double.NEGATIVE_INFINITY;
+            }
+            if (score >= 1) {
+                return Double.POSITIVE_INFINITY;
+            }
+            return -400 * Math.log10(1 / score - 1);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "games %d: +%d =%d -%d (%d forfeits), score %.1f%%%n"
+                    + "Elo %+.0f, 95%% interval [%+.0f, %+.0f]%n"
+                    + "%.2f games/s, average move A %.2f ms, B %.2f ms",
+                getGames(), getWins(), getDraws(), getLosses(), getForfeits(), getScore() * 100,
+                getElo(), getEloLower(), getEloUpper(),
+                getGamesPerSecond(), getAverageMoveMillis(true), getAverageMoveMillis(false));
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package MokuGame.Computer;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size transposition table keyed by the 64-bit position hash.
+ * The table has a power-of-two number of buckets with two slots each:
+ * a depth-preferred slot that keeps the deepest result of the current search,
+ * and an always-replace slot that takes everything else.
+ * Entries live in two primitive long arrays, one for the keys and one for the packed data,
+ * so probes and stores never allocate.
+ *
+ * The table is shared by all search threads without locks. Each slot stores key XOR data
+ * next to the data, so an entry whose two words were written by different threads
+ * fails the key check and reads as a miss instead of returning the wrong data.
+ * The statistics are LongAdders for the same reason; they allocate their striped cells
+ * once, the first time threads contend, and not per probe after that.
+ *
+ * Packed data layout, from the high bits down:
+ * score (32 bits) | age (4) | depth (6) | bound (2) | move + 1 (20).
+ * A data word of 0 marks an empty slot.
+ */
+public class TranspositionTable {
+
+    /** The score is exact. */
+    public static final int BOUND_EXACT = 1;
+    /** The score is a lower bound, the search failed high. */
+    public static final int BOUND_LOWER = 2;
+    /** The score is an upper bound, the search failed low. */
+    public static final int BOUND_UPPER = 3;
+
+    /** Returned by probe when the position is not in the table. */
+    public static final long MISS = 0L;
+
+    private static final int BYTES_PER_BUCKET = 32;
+    private static final int MOVE_BITS = 20;
+    private static final int MOVE_MASK = (1 << MOVE_BITS) - 1;
+    private static final int MAX_DEPTH = 63;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int bucketMask;
+    private volatile int age;
+
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder collisions = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+
+    /**
+     * Creates a table that uses at most the given amount of memory.
+     * The bucket count is rounded down to a power of two.
+     *
+     * @param sizeMb the table size in megabytes, at least 1
+     */
+    public TranspositionTable(int sizeMb) {
+        if (sizeMb < 1) {
+            throw new IllegalArgumentException("Table size must be at least 1 MB");
+        }
+        long bucketCount = Long.highestOneBit((long) sizeMb * 1024 * 1024 / BYTES_PER_BUCKET);
+        bucketCount = Math.min(bucketCount, 1 << 29);
+        this.keys = new long[(int) bucketCount * 2];
+        this.data = new long[(int) bucketCount * 2];
+        this.bucketMask = (int) bucketCount - 1;
+    }
+
+    /**
+     * Looks up a position.
+     *
+     * @param key the position hash
+     * @return the packed entry data, or MISS if the position is not stored
+     */
+    public long probe(long key) {
+        probes.increment();
+        int slot = slotOf(key);
+        long first = data[slot];
+        if (first != 0 && (keys[slot] ^ first) == key) {
+            hits.increment();
+            return first;
+        }
+        long second = data[slot + 1];
+        if (second != 0 && (keys[slot + 1] ^ second) == key) {
+            hits.increment();
+            return second;
+        }
+        if (first != 0 && second != 0) {
+            collisions.increment();
+        }
+        return MISS;
+    }
+
+    /**
+     * Stores a search result. It goes to the depth-preferred slot if that slot holds the same
+     * position, an older search or a shallower result, and to the always-replace slot otherwise.
+     *
+     * @param key the position hash
+     * @param depth the depth searched, 0 to 63
+     * @param score the score found
+     * @param bound BOUND_EXACT, BOUND_LOWER or BOUND_UPPER
+     * @param move the best move as a cell index, or -1 if none
+     */
+    public void store(long key, int depth, int score, int bound, int move) {
+        stores.increment();
+        int currentAge = age;
+        long packed = pack(depth, score, bound, move, currentAge);
+        int slot = slotOf(key);
+        long current = data[slot];
+        if (current == 0 || (keys[slot] ^ current) == key
+            || ageOf(current) != currentAge || depthOf(current) <= depth) {
+            keys[slot] = key ^ packed;
+            data[slot] = packed;
+        } else {
+            keys[slot + 1] = key ^ packed;
+            data[slot + 1] = packed;
+        }
+    }
+
+    /**
+     * Starts a new search. Entries from earlier searches stay usable,
+     * but the depth-preferred slots stop protecting them.
+     */
+    public void newSearch() {
+        age = (age + 1) & 0xF;
+    }
+
+    /**
+     * Empties the table and resets the statistics.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(data, 0L);
+        resetStats();
+    }
+
+    /**
+     * Resets the hit, miss and collision counters.
+     */
+    public void resetStats() {
+        probes.reset();
+        hits.reset();
+        collisions.reset();
+        stores.reset();
+    }
+
+    /**
+     * Gets the number of entries the table can hold.
+     *
+     * @return the slot count
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Gets the number of lookups since the statistics were reset.
+     *
+     * @return the probe count
+     */
+    public long getProbes() {
+        return probes.sum();
+    }
+
+    /**
+     * Gets the number of lookups that found their position.
+     *
+     * @return the hit count
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups that did not find their position.
+     *
+     * @return the miss count
+     */
+    public long getMisses() {
+        return probes.sum() - hits.sum();
+    }
+
+    /**
+     * Gets the number of misses where both slots of the bucket held other positions.
+     * A high share of these means the table is too small for the search.
+     *
+     * @return the collision count
+     */
+    public long getCollisions() {
+        return collisions.sum();
+    }
+
+    /**
+     * Gets the number of results stored.
+     *
+     * @return the store count
+     */
+    public long getStores() {
+        return stores.sum();
+    }
+
+    /**
+     * Gets the share of lookups that hit.
+     *
+     * @return the hit rate from 0 to 1
+     */
+    public double hitRate() {
+        long total = probes.sum();
+        return total == 0 ? 0.0 : (double) hits.sum() / total;
+    }
+
+    /**
+     * Gets the share of lookups that missed on a full bucket.
+     *
+     * @return the collision rate from 0 to 1
+     */
+    public double collisionRate() {
+        long total = probes.sum();
+        return total == 0 ? 0.0 : (double) collisions.sum() / total;
+    }
+
+    /**
+     * Gets the share of slots in use, estimated from the first thousand buckets.
+     *
+     * @return the fill rate from 0 to 1
+     */
+    public double fillRate() {
+        int sample = Math.min(2000, data.length);
+        int used = 0;
+        for (int i = 0; i < sample; i++) {
+            if (data[i] != 0) {
+                used++;
+            }
+        }
+        return (double) used / sample;
+    }
+
+    /**
+     * Unpacks the score of an entry.
+     *
+     * @param entry the packed entry data
+     * @return the stored score
+     */
+    public static int scoreOf(long entry) {
+        return (int) (entry >> 32);
+    }
+
+    /**
+     * Unpacks the depth of an entry.
+     *
+     * @param entry the packed entry data
+     * @return the stored depth
+     */
+    public static int depthOf(long entry) {
+        return (int) (entry >>> 22) & 0x3F;
+    }
+
+    /**
+     * Unpacks the bound type of an entry.
+     *
+     * @param entry the packed entry data
+     * @return BOUND_EXACT, BOUND_LOWER or BOUND_UPPER
+     */
+    public static int boundOf(long entry) {
+        return (int) (entry >>> MOVE_BITS) & 0x3;
+    }
+
+    /**
+     * Unpacks the best move of an entry.
+     *
+     * @param entry the packed entry data
+     * @return the move as a cell index, or -1 if none was stored
+     */
+    public static int moveOf(long entry) {
+        return ((int) entry & MOVE_MASK) - 1;
+    }
+
+    private static int ageOf(long entry) {
+        return (int) (entry >>> 28) & 0xF;
+    }
+
+    private static long pack(int depth, int score, int bound, int move, int age) {
+        return ((long) score << 32)
+            | ((long) age << 28)
+            | ((long) Math.min(depth, MAX_DEPTH) << 22)
+            | ((long) bound << MOVE_BITS)
+            | ((move + 1) & MOVE_MASK);
+    }
+
+    private int slotOf(long key) {
+        return ((int) (key ^ (key >>> 32)) & bucketMask) << 1;
+    }
+}
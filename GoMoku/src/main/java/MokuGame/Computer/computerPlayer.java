@@ -5,17 +5,17 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
 
 
 /**
  * Computer player that selects moves randomly from available positions.
+ * Move generation reuses one buffer, so an instance should not be shared between threads.
  */
-public class computerPlayer {
+public class computerPlayer implements MoveSelector {
     private static final Logger logger = LoggerFactory.getLogger(computerPlayer.class);
     private final Random random;
+    private int[] moveBuffer = new int[0];
 
 
 
@@ -32,39 +32,50 @@ public class computerPlayer {
      * @param board the game board
      * @return an array containing [row, column] of the selected move, or null if no moves available
      */
-
+    @Override
     public int[] selectMove(GoMokuBoard board) {
-        List<int[]> availableMoves = getAvailableMoves(board);
+        int count = getAvailableMoves(board);
 
-        if (availableMoves.isEmpty()) {
+        if (count == 0) {
             logger.warn("No available moves for AI player");
             return null;
         }
 
-        int[] selectedMove = availableMoves.get(random.nextInt(availableMoves.size()));
-        logger.info("AI selected move at ({}, {})", selectedMove[0], selectedMove[1]);
+        int cell = moveBuffer[random.nextInt(count)];
+        int row = board.rowOf(cell);
+        int column = board.columnOf(cell);
+        logger.debug("AI selected move at ({}, {})", row, column);
 
-        return selectedMove;
+        return new int[]{row, column};
     }
 
     /**
-     *  list of all available empty positions on the board.
+     * Writes all available empty positions into the move buffer as packed cell indices.
+     * The buffer only grows when a larger board is seen, so this does not allocate per move.
      *
      * @param board the game board
-     * @return a list of available positions as [row, column] arrays
+     * @return the number of moves written to the buffer
      */
+    int getAvailableMoves(GoMokuBoard board) {
+        int count = board.getEmptyCount();
+        if (moveBuffer.length < count) {
+            moveBuffer = new int[board.getRows() * board.getColumns()];
+        }
 
-    private List<int[]> getAvailableMoves(GoMokuBoard board) {
-        List<int[]> moves = new ArrayList<>();
-
-        for (int i = 0; i < board.getRows(); i++) {
-            for (int j = 0; j < board.getColumns(); j++) {
-                if (board.isEmpty(i, j)) {
-                    moves.add(new int[]{i, j});
-                }
-            }
+        // the board keeps its empty cells, so no rescan of the grid is needed
+        for (int i = 0; i < count; i++) {
+            moveBuffer[i] = board.getEmptyCell(i);
         }
 
-        return moves;
+        return count;
+    }
+
+    /**
+     * Gets the buffer filled by the last getAvailableMoves call.
+     *
+     * @return the move buffer, valid up to the count that call returned
+     */
+    int[] getMoveBuffer() {
+        return moveBuffer;
     }
 }
@@ -0,0 +1,213 @@
+package MokuGame.Core;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Go-Moku board that stores the stones in one packed bit array per player
+ * instead of a char grid. Cell (row, column) is bit row * columns + column,
+ * so any rows x columns size works.
+ * It has the same public API as GoMokuBoard and can be used anywhere a GoMokuBoard is expected.
+ * Reading single cells costs more than on the char grid, so code that reads cells one at a time,
+ * such as the search, should use a GoMokuBoard; the bulk mask operations are where a BitBoard wins.
+ */
+public class BitBoard extends GoMokuBoard {
+
+    private final int rows;
+    private final int columns;
+    private final long[] player1Bits;
+    private final long[] player2Bits;
+
+    /** Mask of the valid bits in the last word, so bulk operations ignore the padding. */
+    private final long lastWordMask;
+
+    /**
+     * Creates a new empty bitboard with the specified dimensions.
+     *
+     * @param rows the number of rows
+     * @param columns the number of columns
+     */
+    public BitBoard(int rows, int columns) {
+        super(rows, columns, false);
+        this.rows = rows;
+        this.columns = columns;
+        int cells = rows * columns;
+        int words = (cells + 63) >>> 6;
+        this.player1Bits = new long[words];
+        this.player2Bits = new long[words];
+        int tail = cells & 63;
+        this.lastWordMask = tail == 0 ? -1L : (1L << tail) - 1;
+    }
+
+    /**
+     * Gets the cell value at the specified position.
+     *
+     * @param row the row index
+     * @param column the column index
+     * @return the character at the specified position
+     */
+    @Override
+    public char getCell(int row, int column) {
+        int index = checkedIndex(row, column);
+        int word = index >>> 6;
+        long bit = 1L << index;
+        if ((player1Bits[word] & bit) != 0) {
+            return Player1;
+        }
+        if ((player2Bits[word] & bit) != 0) {
+            return Player2;
+        }
+        return Empty;
+    }
+
+    /**
+     * Sets the cell value at the specified position.
+     * A bitboard only holds player stones, so any other character empties the cell.
+     *
+     * @param row the row index
+     * @param column the column index
+     * @param player the player character to place
+     */
+    @Override
+    public void setCell(int row, int column, char player) {
+        if (player != Player1 && player != Player2) {
+            player = Empty;
+        }
+        super.setCell(row, column, player);
+    }
+
+    /**
+     * Stores a cell value in the bit arrays.
+     *
+     * @param row the row index
+     * @param column the column index
+     * @param player the player character to store
+     */
+    @Override
+    protected void writeCell(int row, int column, char player) {
+        int index = row * columns + column;
+        int word = index >>> 6;
+        long bit = 1L << index;
+        player1Bits[word] &= ~bit;
+        player2Bits[word] &= ~bit;
+        if (player == Player1) {
+            player1Bits[word] |= bit;
+        } else if (player == Player2) {
+            player2Bits[word] |= bit;
+        }
+    }
+
+    /**
+     * Checks if the specified cell is empty.
+     *
+     * @param row the row index
+     * @param column the column index
+     * @return true if the cell is empty, false otherwise
+     */
+    @Override
+    public boolean isEmpty(int row, int column) {
+        int index = checkedIndex(row, column);
+        int word = index >>> 6;
+        return ((player1Bits[word] | player2Bits[word]) & (1L << index)) == 0;
+    }
+
+    /**
+     * Empties both bit arrays.
+     */
+    @Override
+    protected void clearCells() {
+        Arrays.fill(player1Bits, 0L);
+        Arrays.fill(player2Bits, 0L);
+    }
+
+    /**
+     * Gets the number of longs used by each player's bit array.
+     * Callers size the arrays passed to the mask methods with this.
+     *
+     * @return the number of words per mask
+     */
+    public int wordCount() {
+        return player1Bits.length;
+    }
+
+    /**
+     * Counts the stones of one player.
+     *
+     * @param player the player character
+     * @return the number of cells holding that player's stones
+     */
+    public int stoneCount(char player) {
+        long[] bits = bitsOf(player);
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Copies one player's stones into the given mask.
+     *
+     * @param player the player character
+     * @param out the destination, at least wordCount() long
+     */
+    public void playerMask(char player, long[] out) {
+        long[] bits = bitsOf(player);
+        System.arraycopy(bits, 0, out, 0, bits.length);
+    }
+
+    /**
+     * Writes the union of both players' stones into the given mask.
+     *
+     * @param out the destination, at least wordCount() long
+     */
+    public void occupiedMask(long[] out) {
+        for (int i = 0; i < player1Bits.length; i++) {
+            out[i] = player1Bits[i] | player2Bits[i];
+        }
+    }
+
+    /**
+     * Writes the empty cells into the given mask. Padding bits past the last cell stay clear.
+     *
+     * @param out the destination, at least wordCount() long
+     */
+    public void emptyMask(long[] out) {
+        int last = player1Bits.length - 1;
+        for (int i = 0; i < last; i++) {
+            out[i] = ~(player1Bits[i] | player2Bits[i]);
+        }
+        if (last >= 0) {
+            out[last] = ~(player1Bits[last] | player2Bits[last]) & lastWordMask;
+        }
+    }
+
+    /**
+     * Gets the bit array for one player.
+     *
+     * @param player the player character
+     * @return the backing bit array
+     */
+    private long[] bitsOf(char player) {
+        if (player == Player1) {
+            return player1Bits;
+        }
+        if (player == Player2) {
+            return player2Bits;
+        }
+        throw new IllegalArgumentException("Not a player: " + player);
+    }
+
+    /**
+     * Validates a position the way the char grid does and packs it into a bit index.
+     *
+     * @param row the row index
+     * @param column the column index
+     * @return the bit index of the cell
+     */
+    private int checkedIndex(int row, int column) {
+        Objects.checkIndex(row, rows);
+        Objects.checkIndex(column, columns);
+        return row * columns + column;
+    }
+}
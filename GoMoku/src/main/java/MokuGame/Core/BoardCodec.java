@@ -0,0 +1,217 @@
+package MokuGame.Core;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Compact, versioned binary form of a board, for storage. A 15x15 board takes at most 63 bytes,
+ * against 239 characters in the serialize text form, and an opening with a few stones far less.
+ *
+ * All numbers are unsigned and big-endian:
+ * <pre>
+ * byte 0      VERSION
+ * byte 1      layout, DENSE or SPARSE
+ * bytes 2-3   rows
+ * bytes 4-5   columns
+ * DENSE       2 bits per cell in row-major order, four cells a byte starting at the low bits:
+ *             0 empty, 1 Player1, 2 Player2
+ * SPARSE      a 2-byte stone count, then 2 bytes per stone in cell order:
+ *             the cell index, with the top bit set for Player2
+ * </pre>
+ * encode picks whichever layout is smaller; SPARSE only fits boards of up to 32768 cells.
+ * Cells other than Empty, Player1 and Player2 cannot be encoded.
+ */
+public final class BoardCodec {
+
+    /** Format version written in the first byte. */
+    public static final int VERSION = 1;
+    /** Layout storing every cell in 2 bits. */
+    public static final int DENSE = 0;
+    /** Layout storing only the stones. */
+    public static final int SPARSE = 1;
+    /** Bytes before the cells: version, layout, rows and columns. */
+    public static final int HEADER_BYTES = 6;
+
+    private static final int MAX_SPARSE_CELLS = 1 << 15;
+    private static final int PLAYER2_BIT = 1 << 15;
+
+    private BoardCodec() {
+    }
+
+    /**
+     * Gets the number of bytes encode writes for a board.
+     *
+     * @param board the board
+     * @return the encoded size in bytes
+     */
+    public static int encodedSize(GoMokuBoard board) {
+        return HEADER_BYTES + (layout(board) == SPARSE ? sparseBytes(board) : denseBytes(board));
+    }
+
+    /**
+     * Encodes a board into a new array.
+     *
+     * @param board the board
+     * @return the encoded board
+     */
+    public static byte[] encode(GoMokuBoard board) {
+        byte[] bytes = new byte[encodedSize(board)];
+        encode(board, ByteBuffer.wrap(bytes));
+        return bytes;
+    }
+
+    /**
+     * Encodes a board at the buffer's position and advances it.
+     *
+     * @param board the board
+     * @param out the buffer, with at least encodedSize bytes remaining
+     * @return the number of bytes written
+     * @throws IllegalArgumentException if a cell holds something other than a stone or Empty
+     */
+    public static int encode(GoMokuBoard board, ByteBuffer out) {
+        int start = out.position();
+        int rows = board.getRows();
+        int columns = board.getColumns();
+        int layout = layout(board);
+        out.put((byte) VERSION);
+        out.put((byte) layout);
+        out.putShort((short) rows);
+        out.putShort((short) columns);
+
+        if (layout == SPARSE) {
+            out.putShort((short) board.getStoneCount());
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < columns; j++) {
+                    int code = code(board.getCell(i, j));
+                    if (code != 0) {
+                        out.putShort((short) (i * columns + j | (code == 2 ? PLAYER2_BIT : 0)));
+                    }
+                }
+            }
+        } else {
+            int packed = 0;
+            int cell = 0;
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < columns; j++) {
+                    packed |= code(board.getCell(i, j)) << ((cell & 3) << 1);
+                    if ((++cell & 3) == 0) {
+                        out.put((byte) packed);
+                        packed = 0;
+                    }
+                }
+            }
+            if ((cell & 3) != 0) {
+                out.put((byte) packed);
+            }
+        }
+        return out.position() - start;
+    }
+
+    /**
+     * Decodes a board from an array.
+     *
+     * @param bytes the encoded board
+     * @return a new board
+     * @throws IllegalArgumentException if the data is not a board in a known version
+     */
+    public static GoMokuBoard decode(byte[] bytes) {
+        return decode(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Decodes a board at the buffer's position and advances past it.
+     *
+     * @param in the buffer
+     * @return a new board of the encoded size
+     * @throws IllegalArgumentException if the data is not a board in a known version
+     */
+    public static GoMokuBoard decode(ByteBuffer in) {
+        checkHeader(in);
+        GoMokuBoard board = new GoMokuBoard(in.getShort(in.position() + 2) & 0xFFFF, in.getShort(in.position() + 4) & 0xFFFF);
+        decodeInto(in, board);
+        return board;
+    }
+
+    /**
+     * Decodes a board into an existing board of the same size, replacing its stones.
+     * Every stone goes through setCell, so the hash and the listeners stay up to date.
+     *
+     * @param in the buffer, advanced past the board
+     * @param board the board to fill
+     * @throws IllegalArgumentException if the data is not a board in a known version or the sizes differ
+     */
+    public static void decodeInto(ByteBuffer in, GoMokuBoard board) {
+        checkHeader(in);
+        in.get(); // version
+        int layout = in.get();
+        int rows = in.getShort() & 0xFFFF;
+        int columns = in.getShort() & 0xFFFF;
+        if (rows != board.getRows() || columns != board.getColumns()) {
+            throw new IllegalArgumentException("Encoded board is " + rows + "x" + columns
+                + ", not " + board.getRows() + "x" + board.getColumns());
+        }
+        board.clear();
+
+        if (layout == SPARSE) {
+            int stones = in.getShort() & 0xFFFF;
+            for (int s = 0; s < stones; s++) {
+                int entry = in.getShort() & 0xFFFF;
+                int cell = entry & ~PLAYER2_BIT;
+                if (cell >= rows * columns) {
+                    throw new IllegalArgumentException("Cell " + cell + " is off the board");
+                }
+                board.setCell(cell / columns, cell % columns,
+                    (entry & PLAYER2_BIT) != 0 ? GoMokuBoard.Player2 : GoMokuBoard.Player1);
+            }
+            return;
+        }
+        int cells = rows * columns;
+        for (int base = 0; base < cells; base += 4) {
+            int packed = in.get() & 0xFF;
+            for (int cell = base; packed != 0; cell++, packed >>>= 2) {
+                int code = packed & 3;
+                if (code == 3 || (code != 0 && cell >= cells)) {
+                    throw new IllegalArgumentException("Bad cell code at " + cell);
+                }
+                if (code != 0) {
+                    board.setCell(cell / columns, cell % columns, code == 1 ? GoMokuBoard.Player1 : GoMokuBoard.Player2);
+                }
+            }
+        }
+    }
+
+    private static void checkHeader(ByteBuffer in) {
+        if (in.remaining() < HEADER_BYTES) {
+            throw new IllegalArgumentException("Encoded board is too short");
+        }
+        int version = in.get(in.position());
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unknown board format version " + version);
+        }
+        int layout = in.get(in.position() + 1);
+        if (layout != DENSE && layout != SPARSE) {
+            throw new IllegalArgumentException("Unknown board layout " + layout);
+        }
+    }
+
+    private static int layout(GoMokuBoard board) {
+        boolean sparseFits = board.getRows() * board.getColumns() <= MAX_SPARSE_CELLS;
+        return sparseFits && sparseBytes(board) < denseBytes(board) ? SPARSE : DENSE;
+    }
+
+    private static int denseBytes(GoMokuBoard board) {
+        return (board.getRows() * board.getColumns() + 3) / 4;
+    }
+
+    private static int sparseBytes(GoMokuBoard board) {
+        return 2 + 2 * board.getStoneCount();
+    }
+
+    private static int code(char cell) {
+        return switch (cell) {
+            case GoMokuBoard.Empty -> 0;
+            case GoMokuBoard.Player1 -> 1;
+            case GoMokuBoard.Player2 -> 2;
+            default -> throw new IllegalArgumentException("Cannot encode cell '" + cell + "'");
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package MokuGame.Core;
+
+/**
+ * Receives a call whenever a GoMokuBoard changes, so derived data such as
+ * pattern counts or candidate moves can be updated incrementally instead of rebuilt.
+ * Listeners are called on the thread that changed the board.
+ */
+public interface BoardListener {
+
+    /**
+     * Called after a cell has changed. Undoing a move is a change back to Empty.
+     *
+     * @param board the board that changed
+     * @param row the row index
+     * @param column the column index
+     * @param previous the old cell value
+     * @param current the new cell value
+     */
+    void cellChanged(GoMokuBoard board, int row, int column, char previous, char current);
+
+    /**
+     * Called after the whole board has been cleared.
+     *
+     * @param board the board that was cleared
+     */
+    void boardCleared(GoMokuBoard board);
+}
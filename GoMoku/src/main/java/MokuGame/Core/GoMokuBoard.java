@@ -1,5 +1,8 @@
 package MokuGame.Core;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
 /**
  * Represents the game board for Go-Moku.
  * The board is a rectangular grid where players place their pieces.
@@ -10,6 +13,18 @@ public class GoMokuBoard {
     private final int rows;
     private final int columns;
     private final char[][] grid;
+    private long hash;
+
+    // Sparse set of empty cells: emptyCells[0..emptyCount) holds their indices,
+    // emptySlot[index] is where a cell sits in emptyCells, so add and remove are O(1)
+    private final int[] emptyCells;
+    private final int[] emptySlot;
+    private int emptyCount;
+    private int player1Count;
+    private int player2Count;
+    private BoardListener[] listeners = NO_LISTENERS;
+
+    private static final BoardListener[] NO_LISTENERS = new BoardListener[0];
 
 
     public static final char Empty = '.';
@@ -24,11 +39,28 @@ public class GoMokuBoard {
      */
 
     public GoMokuBoard(int rows, int columns){
+        this(rows, columns, true);
+    }
+
+    /**
+     * Creates a board for a subclass that keeps the cells in its own storage.
+     * When allocateGrid is false no char grid is created, and the subclass must
+     * override getCell, isEmpty, writeCell and clearCells.
+     *
+     * @param rows the number of rows
+     * @param columns the number of columns
+     * @param allocateGrid whether to back the board with the default char grid
+     */
+    protected GoMokuBoard(int rows, int columns, boolean allocateGrid){
         this.rows = rows;
         this.columns = columns;
-        this.grid = new char[rows][columns];
-        ConstructBoard();
-
+        this.grid = allocateGrid ? new char[rows][columns] : null;
+        this.emptyCells = new int[rows * columns];
+        this.emptySlot = new int[rows * columns];
+        if (grid != null) {
+            ConstructBoard();
+        }
+        resetCounters();
     }
 
     /**
@@ -64,6 +96,18 @@ public class GoMokuBoard {
     }
 
 
+    /**
+     * Packs a position into a single cell index, row by row.
+     *
+     * @param row the row index
+     * @param column the column index
+     * @return the cell index, row * columns + column
+     */
+    public int cellIndex(int row, int column){
+        return row * columns + column;
+    }
+
+
     /**
      * Gets the cell value at the specified position.
      *
@@ -83,6 +127,63 @@ public class GoMokuBoard {
      * @param player the player character to place
      */
     public void setCell(int row, int column, char player) {
+        char previous = getCell(row, column);
+        if (previous == player) {
+            return;
+        }
+        int index = cellIndex(row, column);
+        hash ^= Zobrist.key(index, previous) ^ Zobrist.key(index, player);
+        countStone(previous, -1);
+        countStone(player, 1);
+        if (previous == Empty) {
+            removeEmpty(index);
+        } else if (player == Empty) {
+            addEmpty(index);
+        }
+        writeCell(row, column, player);
+        for (BoardListener listener : listeners) {
+            listener.cellChanged(this, row, column, previous, player);
+        }
+    }
+
+    /**
+     * Registers a listener that is told about every change to the board.
+     *
+     * @param listener the listener to add
+     */
+    public void addListener(BoardListener listener) {
+        BoardListener[] grown = Arrays.copyOf(listeners, listeners.length + 1);
+        grown[listeners.length] = listener;
+        listeners = grown;
+    }
+
+    /**
+     * Removes a listener added with addListener.
+     *
+     * @param listener the listener to remove
+     * @return true if the listener was registered
+     */
+    public boolean removeListener(BoardListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                BoardListener[] shrunk = new BoardListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, shrunk, 0, i);
+                System.arraycopy(listeners, i + 1, shrunk, i, listeners.length - i - 1);
+                listeners = shrunk;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Stores a cell value without any bookkeeping. setCell has already validated the position.
+     *
+     * @param row the row index
+     * @param column the column index
+     * @param player the player character to store
+     */
+    protected void writeCell(int row, int column, char player) {
         grid[row][column] = player;
     }
 
@@ -112,10 +213,157 @@ public class GoMokuBoard {
      * This Clears the entire board, setting all cells to empty for a new game.
      */
     public void clear() {
+        clearCells();
+        hash = 0L;
+        resetCounters();
+        for (BoardListener listener : listeners) {
+            listener.boardCleared(this);
+        }
+    }
+
+    /**
+     * Empties the cell storage without any bookkeeping.
+     */
+    protected void clearCells() {
         ConstructBoard();
     }
 
+    /**
+     * Gets the 64-bit Zobrist hash of the current position.
+     * It is kept up to date by setCell and clear, so reading it is O(1) and allocation free.
+     * Boards of the same size holding the same stones have the same hash.
+     *
+     * @return the position hash, 0 for an empty board
+     */
+    public long getHash() {
+        return hash;
+    }
+
+
+
+    /**
+     * Unpacks the row of a cell index.
+     *
+     * @param index the cell index
+     * @return the row of the cell
+     */
+    public int rowOf(int index) {
+        return index / columns;
+    }
+
+    /**
+     * Unpacks the column of a cell index.
+     *
+     * @param index the cell index
+     * @return the column of the cell
+     */
+    public int columnOf(int index) {
+        return index % columns;
+    }
+
+    /**
+     * Gets the number of stones on the board, kept up to date by setCell.
+     *
+     * @return the number of Player1 and Player2 stones
+     */
+    public int getStoneCount() {
+        return player1Count + player2Count;
+    }
+
+    /**
+     * Gets the number of stones one player has on the board.
+     *
+     * @param player the player character
+     * @return the number of that player's stones, 0 for any other character
+     */
+    public int getStoneCount(char player) {
+        if (player == Player1) {
+            return player1Count;
+        }
+        if (player == Player2) {
+            return player2Count;
+        }
+        return 0;
+    }
+
+    /**
+     * Gets the number of empty cells.
+     *
+     * @return the number of empty cells
+     */
+    public int getEmptyCount() {
+        return emptyCount;
+    }
+
+    /**
+     * Gets one of the empty cells by position in the empty set.
+     * The order of the set is unspecified and changes as stones are placed and removed.
+     *
+     * @param i a position from 0 to getEmptyCount() - 1
+     * @return the cell index of that empty cell
+     */
+    public int getEmptyCell(int i) {
+        return emptyCells[i];
+    }
+
+    /**
+     * Checks in O(1) if the board has no empty cells left.
+     *
+     * @return true if no empty cells remain, false otherwise
+     */
+    public boolean isFull() {
+        return emptyCount == 0;
+    }
+
+    /**
+     * Updates the stone counter of one player.
+     *
+     * @param player the cell value
+     * @param delta +1 when the stone is added, -1 when it is removed
+     */
+    private void countStone(char player, int delta) {
+        if (player == Player1) {
+            player1Count += delta;
+        } else if (player == Player2) {
+            player2Count += delta;
+        }
+    }
+
+    /**
+     * Adds a cell to the empty set.
+     *
+     * @param index the cell index
+     */
+    private void addEmpty(int index) {
+        emptyCells[emptyCount] = index;
+        emptySlot[index] = emptyCount;
+        emptyCount++;
+    }
 
+    /**
+     * Removes a cell from the empty set by moving the last entry into its slot.
+     *
+     * @param index the cell index
+     */
+    private void removeEmpty(int index) {
+        int slot = emptySlot[index];
+        int last = emptyCells[--emptyCount];
+        emptyCells[slot] = last;
+        emptySlot[last] = slot;
+    }
+
+    /**
+     * Resets the counters and the empty set for an empty board.
+     */
+    private void resetCounters() {
+        for (int i = 0; i < emptyCells.length; i++) {
+            emptyCells[i] = i;
+            emptySlot[i] = i;
+        }
+        emptyCount = emptyCells.length;
+        player1Count = 0;
+        player2Count = 0;
+    }
 
     /**
      * Returns a string representation of the board for display.
@@ -137,7 +385,7 @@ public class GoMokuBoard {
                for(int i = 0; i < rows; i++){
                    sb.append(i).append(" ");// print row number
                    for (int j = 0; j < columns; j++){
-                       sb.append(grid[i][j]).append(" ");// print each cell + space
+                       sb.append(getCell(i, j)).append(" ");// print each cell + space
                    }
                    sb.append("\n");
                }
@@ -150,34 +398,108 @@ public class GoMokuBoard {
      *
      * @return a string representation of the board grid
      */
-
     public String serialize() {
-        StringBuilder sb = new StringBuilder();
+        StringBuilder sb = new StringBuilder(serializedLength()); // sized up front, so it never grows
+        serializeTo(sb);
+        return sb.toString();                    // return the full string
+    }
+
+    /**
+     * Gets the length of the serialize form: one character per cell and a | between rows.
+     *
+     * @return the number of characters, which is also the number of bytes in ASCII
+     */
+    public int serializedLength() {
+        return rows * columns + Math.max(0, rows - 1);
+    }
 
+    /**
+     * Appends the serialize form to a caller's builder, so a reused builder allocates nothing.
+     *
+     * @param out the builder to append to
+     */
+    public void serializeTo(StringBuilder out) {
+        out.ensureCapacity(out.length() + serializedLength());
         for (int i = 0; i < rows; i++) {         // for each row
+            if (i > 0) {
+                out.append('|');                 // | between rows, none after the last
+            }
+            if (grid != null) {
+                out.append(grid[i]);             // the whole row at once
+                continue;
+            }
             for (int j = 0; j < columns; j++) {  // for each column
-                sb.append(grid[i][j]);           // add the stone (., X, or O)
+                out.append(getCell(i, j));       // add the stone (., X, or O)
             }
-            if (i < rows - 1) {                  // don't add | after last row
-                sb.append("|");
+        }
+    }
+
+    /**
+     * Writes the serialize form as ASCII bytes at the buffer's position and advances it.
+     *
+     * @param out the buffer, with at least serializedLength bytes remaining
+     * @return the number of bytes written
+     */
+    public int serializeTo(ByteBuffer out) {
+        int start = out.position();
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                out.put((byte) '|');
+            }
+            for (int j = 0; j < columns; j++) {
+                out.put((byte) getCell(i, j));
             }
         }
-        return sb.toString();                    // return the full string
+        return out.position() - start;
     }
 
 
     /**string back to board
+     * Every cell goes through setCell, so the position hash is rebuilt as the data is loaded.
+     * The data is read in one pass without splitting it. Rows and cells beyond the board are
+     * ignored, and cells the data does not reach keep their stones.
      *
+     * @param data the serialized board data
+     */
+    public void loadFromString(CharSequence data) {
+        int row = 0;
+        int column = 0;
+        for (int k = 0, n = data.length(); k < n && row < rows; k++) {
+            char c = data.charAt(k);
+            if (c == '|') {                      // | separates each row in the serialized format
+                row++;
+                column = 0;
+            } else {
+                if (column < columns) {
+                    setCell(row, column, c);
+                }
+                column++;
+            }
+        }
+    }
+
+    /**
+     * Loads serialized board data from ASCII bytes, from the buffer's position to its limit,
+     * the same way as loadFromString. The buffer is advanced to its limit.
      *
      * @param data the serialized board data
      */
-    public void loadFromString(String data) {
-        String[] rowData = data.split("\\|");//splits the string into rows, because | separate each row in the serialized format.
-        for (int i = 0; i < rows && i < rowData.length; i++) { // Loop through each column of the current row
-            for (int j = 0; j < columns && j < rowData[i].length(); j++) {
-                grid[i][j] = rowData[i].charAt(j);
+    public void loadFrom(ByteBuffer data) {
+        int row = 0;
+        int column = 0;
+        while (data.hasRemaining() && row < rows) {
+            char c = (char) (data.get() & 0xFF);
+            if (c == '|') {
+                row++;
+                column = 0;
+            } else {
+                if (column < columns) {
+                    setCell(row, column, c);
+                }
+                column++;
             }
         }
+        data.position(data.limit());
     }
 
 
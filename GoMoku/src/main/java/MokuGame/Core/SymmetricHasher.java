@@ -0,0 +1,140 @@
+package MokuGame.Core;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the Zobrist hash of all eight symmetric versions of a board up to date as it changes,
+ * so the canonical key of a position costs eight comparisons instead of transforming the grid.
+ * Each change XORs the stone's key at its mapped cell into every hash, using cell tables
+ * built once per board size.
+ *
+ * The canonical key is the smallest of the hashes, the same one Symmetry.canonical picks, and
+ * toCanonical and fromCanonical map moves between the board and the canonical orientation.
+ * An instance listens to one board and, like the board, must be used by one thread.
+ */
+public class SymmetricHasher implements BoardListener {
+
+    private final long[] hashes = new long[Symmetry.COUNT];
+
+    private GoMokuBoard board;
+    private int rows;
+    private int columns;
+    private int[][] maps;
+
+    /**
+     * Creates a hasher and attaches it to a board.
+     *
+     * @param board the board to follow
+     */
+    public SymmetricHasher(GoMokuBoard board) {
+        attach(board);
+    }
+
+    /**
+     * Follows another board, rehashing it from scratch.
+     * The hasher stops listening to its previous board.
+     *
+     * @param board the board to follow
+     */
+    public void attach(GoMokuBoard board) {
+        if (this.board != null) {
+            this.board.removeListener(this);
+        }
+        this.board = board;
+        if (maps == null || rows != board.getRows() || columns != board.getColumns()) {
+            rows = board.getRows();
+            columns = board.getColumns();
+            maps = Symmetry.cellMaps(rows, columns);
+        }
+        board.addListener(this);
+        System.arraycopy(Symmetry.hashes(board), 0, hashes, 0, Symmetry.COUNT);
+    }
+
+    /**
+     * Stops listening to the board. The hashes are left as they were.
+     */
+    public void detach() {
+        if (board != null) {
+            board.removeListener(this);
+            board = null;
+        }
+    }
+
+    /**
+     * Gets the hash of one symmetric version of the board.
+     *
+     * @param symmetry the symmetry
+     * @return the hash, the same as getHash() of Symmetry.apply(symmetry, board); 0 if the symmetry does not fit
+     */
+    public long getHash(int symmetry) {
+        return hashes[symmetry];
+    }
+
+    /**
+     * Gets the symmetry that turns the board into its canonical form.
+     *
+     * @return the canonical symmetry
+     */
+    public int getCanonicalSymmetry() {
+        return Symmetry.canonical(hashes, rows, columns);
+    }
+
+    /**
+     * Gets the canonical key of the position, the same for all its symmetric versions.
+     *
+     * @return the smallest of the symmetric hashes
+     */
+    public long getCanonicalHash() {
+        return hashes[getCanonicalSymmetry()];
+    }
+
+    /**
+     * Maps a cell on the board to the canonical orientation.
+     *
+     * @param cell the cell index on the board
+     * @return the cell index in the canonical form
+     */
+    public int toCanonical(int cell) {
+        return maps[getCanonicalSymmetry()][cell];
+    }
+
+    /**
+     * Maps a cell in the canonical orientation back to the board.
+     *
+     * @param cell the cell index in the canonical form
+     * @return the cell index on the board
+     */
+    public int fromCanonical(int cell) {
+        return maps[Symmetry.inverse(getCanonicalSymmetry())][cell];
+    }
+
+    /**
+     * Updates every hash for the changed cell.
+     *
+     * @param board the board that changed
+     * @param row the row index
+     * @param column the column index
+     * @param previous the old cell value
+     * @param current the new cell value
+     */
+    @Override
+    public void cellChanged(GoMokuBoard board, int row, int column, char previous, char current) {
+        int cell = row * columns + column;
+        for (int s = 0; s < Symmetry.COUNT; s++) {
+            if (maps[s] != null) {
+                int mapped = maps[s][cell];
+                hashes[s] ^= Zobrist.key(mapped, previous) ^ Zobrist.key(mapped, current);
+            }
+        }
+    }
+
+    /**
+     * Resets the hashes after the board was cleared.
+     *
+     * @param board the board that was cleared
+     */
+    @Override
+    public void boardCleared(GoMokuBoard board) {
+        Arrays.fill(hashes, 0L);
+    }
+}
@@ -0,0 +1,180 @@
+package MokuGame.Core;
+
+/**
+ * The symmetries of a Go-Moku board: four rotations, each with and without a mirror.
+ * Positions that are mirror images or rotations of each other play the same, so caches and books
+ * can store them once under a canonical key, the smallest Zobrist hash among the symmetric boards,
+ * and map moves between the stored orientation and the one on the board.
+ *
+ * A symmetry is a number from 0 to COUNT - 1: 0 is the identity, 1 to 3 rotate by 90, 180 and
+ * 270 degrees, and 4 to 7 mirror left to right and then rotate the same way. Rotations by 90 and
+ * 270 degrees and the diagonal mirrors only fit square boards; other boards have symmetries 0, 2, 4 and 6.
+ */
+public final class Symmetry {
+
+    /** Number of symmetries of a square board. */
+    public static final int COUNT = 8;
+
+    // the rotations by 90 and 270 degrees undo each other, the rest undo themselves
+    private static final int[] INVERSE = {0, 3, 2, 1, 4, 5, 6, 7};
+
+    private Symmetry() {
+    }
+
+    /**
+     * Checks if a symmetry maps a board of a given size onto itself.
+     *
+     * @param symmetry the symmetry
+     * @param rows the number of rows
+     * @param columns the number of columns
+     * @return true if the symmetry can be used on the board
+     */
+    public static boolean fits(int symmetry, int rows, int columns) {
+        return rows == columns || symmetry % 2 == 0;
+    }
+
+    /**
+     * Gets the symmetry that undoes another.
+     *
+     * @param symmetry the symmetry
+     * @return the inverse symmetry
+     */
+    public static int inverse(int symmetry) {
+        return INVERSE[symmetry];
+    }
+
+    /**
+     * Maps a cell through a symmetry.
+     *
+     * @param symmetry the symmetry, which must fit the board
+     * @param row the row index
+     * @param column the column index
+     * @param rows the number of rows
+     * @param columns the number of columns
+     * @return the mapped cell as [row, column]
+     */
+    public static int[] map(int symmetry, int row, int column, int rows, int columns) {
+        if (symmetry >= 4) {
+            column = columns - 1 - column;
+            symmetry -= 4;
+        }
+        return switch (symmetry) {
+            case 1 -> new int[]{column, rows - 1 - row};
+            case 2 -> new int[]{rows - 1 - row, columns - 1 - column};
+            case 3 -> new int[]{columns - 1 - column, row};
+            default -> new int[]{row, column};
+        };
+    }
+
+    /**
+     * Maps a cell index through a symmetry.
+     *
+     * @param symmetry the symmetry, which must fit the board
+     * @param cell the cell index, row * columns + column
+     * @param rows the number of rows
+     * @param columns the number of columns
+     * @return the mapped cell index
+     */
+    public static int mapCell(int symmetry, int cell, int rows, int columns) {
+        int[] mapped = map(symmetry, cell / columns, cell % columns, rows, columns);
+        return mapped[0] * columns + mapped[1];
+    }
+
+    /**
+     * Builds the cell index table of every symmetry, for mapping many cells quickly.
+     *
+     * @param rows the number of rows
+     * @param columns the number of columns
+     * @return for each symmetry the mapped index of every cell, or null if the symmetry does not fit
+     */
+    public static int[][] cellMaps(int rows, int columns) {
+        int[][] maps = new int[COUNT][];
+        for (int s = 0; s < COUNT; s++) {
+            if (fits(s, rows, columns)) {
+                maps[s] = new int[rows * columns];
+                for (int cell = 0; cell < rows * columns; cell++) {
+                    maps[s][cell] = mapCell(s, cell, rows, columns);
+                }
+            }
+        }
+        return maps;
+    }
+
+    /**
+     * Hashes every symmetric version of a board from scratch.
+     * SymmetricHasher keeps the same hashes up to date as a board changes.
+     *
+     * @param board the position
+     * @return the Zobrist hash of the board after each symmetry; 0 for symmetries that do not fit
+     */
+    public static long[] hashes(GoMokuBoard board) {
+        int rows = board.getRows();
+        int columns = board.getColumns();
+        long[] hashes = new long[COUNT];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                char player = board.getCell(r, c);
+                if (player != GoMokuBoard.Player1 && player != GoMokuBoard.Player2) {
+                    continue;
+                }
+                for (int s = 0; s < COUNT; s++) {
+                    if (fits(s, rows, columns)) {
+                        hashes[s] ^= Zobrist.key(mapCell(s, r * columns + c, rows, columns), player);
+                    }
+                }
+            }
+        }
+        return hashes;
+    }
+
+    /**
+     * Picks the canonical symmetry: the one with the smallest hash. When several symmetric
+     * boards are the same, the lowest symmetry among them is picked.
+     *
+     * @param hashes the hash after each symmetry
+     * @param rows the number of rows
+     * @param columns the number of columns
+     * @return the canonical symmetry
+     */
+    public static int canonical(long[] hashes, int rows, int columns) {
+        int best = 0;
+        for (int s = 1; s < COUNT; s++) {
+            if (fits(s, rows, columns) && hashes[s] < hashes[best]) {
+                best = s;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Builds the board a symmetry turns a board into.
+     *
+     * @param symmetry the symmetry, which must fit the board
+     * @param board the board, not changed
+     * @return a new board with every stone mapped
+     */
+    public static GoMokuBoard apply(int symmetry, GoMokuBoard board) {
+        int rows = board.getRows();
+        int columns = board.getColumns();
+        GoMokuBoard result = new GoMokuBoard(rows, columns);
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                if (!board.isEmpty(r, c)) {
+                    int[] cell = map(symmetry, r, c, rows, columns);
+                    result.setCell(cell[0], cell[1], board.getCell(r, c));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Builds the canonical form of a board: the symmetric version with the smallest hash.
+     *
+     * @param board the board, not changed
+     * @return a new board whose hash is the canonical key of the position
+     */
+    public static GoMokuBoard canonicalForm(GoMokuBoard board) {
+        return apply(canonical(hashes(board), board.getRows(), board.getColumns()), board);
+    }
+}
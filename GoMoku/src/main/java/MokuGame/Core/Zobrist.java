@@ -0,0 +1,45 @@
+package MokuGame.Core;
+
+/**
+ * Zobrist keys for Go-Moku positions.
+ * A position hash is the XOR of the keys of all its stones. Keys are derived from
+ * the cell index with the SplitMix64 mixer instead of a random table, so they cost
+ * no memory, work for any board size and are the same in every run.
+ */
+public final class Zobrist {
+
+    private static final long SEED = 0x5DEECE66DL;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private Zobrist() {
+    }
+
+    /**
+     * Gets the key of a stone on a cell.
+     *
+     * @param index the cell index, row * columns + column
+     * @param player the cell value
+     * @return the 64-bit key, or 0 if the cell value is not a player stone
+     */
+    public static long key(int index, char player) {
+        if (player == GoMokuBoard.Player1) {
+            return mix(SEED + (2L * index) * GOLDEN_GAMMA);
+        }
+        if (player == GoMokuBoard.Player2) {
+            return mix(SEED + (2L * index + 1) * GOLDEN_GAMMA);
+        }
+        return 0L;
+    }
+
+    /**
+     * SplitMix64 finalizer.
+     *
+     * @param z the value to mix
+     * @return the mixed value
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,33 @@
+package MokuGame;
+
+import UI.PiskvorkAdapter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Entry point for running the computer player as a Gomocup (Piskvork) brain.
+ * Tournament managers start this instead of Main and talk to it over stdin and stdout.
+ */
+public class PiskvorkMain {
+    /**
+     * Starts the protocol adapter.
+     *
+     * @param args optionally the engine: "search" (default), "search:depth" or "random"
+     * @throws IOException if stdin cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        // stdout carries the protocol, so logging stays quiet unless asked for and anything else goes to stderr
+        if (System.getProperty("org.slf4j.simpleLogger.defaultLogLevel") == null) {
+            System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "warn");
+        }
+        PrintStream protocol = new PrintStream(System.out, false, StandardCharsets.US_ASCII);
+        System.setOut(System.err);
+
+        PiskvorkAdapter adapter = new PiskvorkAdapter(args.length > 0 ? args[0] : "search");
+        adapter.run(new BufferedReader(new InputStreamReader(System.in, StandardCharsets.US_ASCII)), protocol);
+    }
+}
@@ -0,0 +1,543 @@
+package MokuGame.Service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Small JDBC connection pool in the style of HikariCP, so database calls reuse open connections
+ * instead of paying a TCP handshake and authentication each time.
+ *
+ * At most maxSize connections are checked out at once; a caller that finds them all in use waits
+ * up to the acquire timeout for one to come back. Idle connections are kept most recently used first,
+ * so a quiet pool keeps reusing the same few, and connections idle past the idle timeout are closed
+ * down to minSize: whenever a connection is returned, and by a background housekeeper, so a pool
+ * that goes quiet after a burst shrinks as well. A connection that has been idle longer than the
+ * validation window is checked with Connection.isValid before it is handed out, and replaced if the
+ * server has dropped it.
+ *
+ * getConnection returns a wrapper whose close() gives the connection back, rolling back any open
+ * transaction first, so callers keep using try-with-resources as with DriverManager.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPool.class);
+
+    /** Default time a caller waits for a connection when all of them are in use. */
+    public static final long DEFAULT_ACQUIRE_TIMEOUT_MILLIS = 5_000;
+    /** Default time an idle connection above the minimum is kept open. */
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 10 * 60_000;
+    /** Default idle time after which a connection is validated before it is handed out. */
+    public static final long DEFAULT_VALIDATION_WINDOW_MILLIS = 500;
+    /** Default time between runs of the housekeeper that closes idle connections. */
+    public static final long DEFAULT_HOUSEKEEPING_PERIOD_MILLIS = 30_000;
+    /** Time Connection.isValid may take before the connection is given up. */
+    public static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final AtomicInteger total = new AtomicInteger();
+    private volatile long acquireTimeoutMillis = DEFAULT_ACQUIRE_TIMEOUT_MILLIS;
+    private volatile long idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_IDLE_TIMEOUT_MILLIS);
+    private volatile long validationWindowNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_VALIDATION_WINDOW_MILLIS);
+    private volatile boolean closed;
+    private ScheduledExecutorService housekeeper;
+
+    private final LongAdder acquires = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+    private final AtomicLong maxAcquireNanos = new AtomicLong();
+    private final LongAdder saturated = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+
+    /**
+     * Creates a pool. No connection is opened until one is needed or fill is called.
+     *
+     * @param url the JDBC URL
+     * @param user the database user
+     * @param password the user's password
+     * @param minSize the number of connections kept open when idle
+     * @param maxSize the most connections open at once
+     */
+    public ConnectionPool(String url, String user, String password, int minSize, int maxSize) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size " + minSize + ".." + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Sets how long getConnection waits when every connection is in use.
+     *
+     * @param millis the timeout in milliseconds
+     */
+    public void setAcquireTimeout(long millis) {
+        acquireTimeoutMillis = millis;
+    }
+
+    /**
+     * Sets how long a connection above the minimum may stay idle before it is closed.
+     *
+     * @param millis the timeout in milliseconds
+     */
+    public void setIdleTimeout(long millis) {
+        idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    /**
+     * Sets how long a connection may be idle and still be handed out without validating it.
+     *
+     * @param millis the window in milliseconds, 0 to validate every time
+     */
+    public void setValidationWindow(long millis) {
+        validationWindowNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    /**
+     * Opens connections until the pool holds its minimum.
+     *
+     * @throws SQLException if a connection cannot be opened
+     */
+    public void fill() throws SQLException {
+        while (!closed && total.get() < minSize) {
+            idle.offerLast(open());
+        }
+    }
+
+    /**
+     * Runs evictIdle on a background thread at a fixed period until the pool is closed.
+     *
+     * @param periodMillis the time between runs
+     */
+    public synchronized void startHousekeeping(long periodMillis) {
+        if (housekeeper != null || closed) {
+            return;
+        }
+        housekeeper = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        housekeeper.scheduleAtFixedRate(this::evictIdle, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Closes the connections that have been idle longer than the idle timeout, the least recently
+     * used first, as long as more than the minimum are open.
+     *
+     * @return the number of connections closed
+     */
+    public int evictIdle() {
+        int evicted = evictIdle(System.nanoTime());
+        if (evicted > 0) {
+            logger.debug("Closed {} idle connections, {} open", evicted, total.get());
+        }
+        return evicted;
+    }
+
+    /**
+     * Checks out a connection. Closing it returns it to the pool.
+     *
+     * @return the connection
+     * @throws SQLTimeoutException if none became free within the acquire timeout
+     * @throws SQLException if the pool is closed or a new connection cannot be opened
+     */
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        if (closed) {
+            throw new SQLException("Connection pool is closed", "08003");
+        }
+        if (!permits.tryAcquire()) {
+            saturated.increment();
+            try {
+                if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                    timeouts.increment();
+                    throw new SQLTimeoutException("No connection free after " + acquireTimeoutMillis
+                        + " ms, all " + maxSize + " in use");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a connection", e);
+            }
+        }
+        try {
+            PooledConnection entry = take();
+            long elapsed = System.nanoTime() - start;
+            acquires.increment();
+            acquireNanos.add(elapsed);
+            maxAcquireNanos.accumulateAndGet(elapsed, Math::max);
+            return entry.checkOut();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Closes the idle connections and stops handing out new ones.
+     * Connections still checked out are closed when they are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        synchronized (this) {
+            if (housekeeper != null) {
+                housekeeper.shutdownNow();
+                housekeeper = null;
+            }
+        }
+        PooledConnection entry;
+        while ((entry = idle.pollFirst()) != null) {
+            discard(entry);
+        }
+    }
+
+    /**
+     * Gets the number of connections handed out.
+     *
+     * @return the acquire count
+     */
+    public long getAcquireCount() {
+        return acquires.sum();
+    }
+
+    /**
+     * Gets the mean time getConnection took, including waits and opening new connections.
+     *
+     * @return the mean acquire time in microseconds
+     */
+    public double getAverageAcquireMicros() {
+        long count = acquires.sum();
+        return count == 0 ? 0 : acquireNanos.sum() / 1_000.0 / count;
+    }
+
+    /**
+     * Gets the longest time getConnection took.
+     *
+     * @return the longest acquire time in microseconds
+     */
+    public double getMaxAcquireMicros() {
+        return maxAcquireNanos.get() / 1_000.0;
+    }
+
+    /**
+     * Gets the number of getConnection calls that found every connection in use and had to wait.
+     *
+     * @return the saturated acquire count
+     */
+    public long getSaturatedCount() {
+        return saturated.sum();
+    }
+
+    /**
+     * Gets the number of getConnection calls that gave up waiting.
+     *
+     * @return the timeout count
+     */
+    public long getTimeoutCount() {
+        return timeouts.sum();
+    }
+
+    /**
+     * Gets the number of physical connections opened.
+     *
+     * @return the created count
+     */
+    public long getCreatedCount() {
+        return created.sum();
+    }
+
+    /**
+     * Gets the number of physical connections closed, because they were broken, idle or the pool closed.
+     *
+     * @return the discarded count
+     */
+    public long getDiscardedCount() {
+        return discarded.sum();
+    }
+
+    /**
+     * Gets the number of connections checked out right now.
+     *
+     * @return the active count
+     */
+    public int getActiveCount() {
+        return maxSize - permits.availablePermits();
+    }
+
+    /**
+     * Gets the number of open connections waiting in the pool.
+     *
+     * @return the idle count
+     */
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * Gets the number of open physical connections.
+     *
+     * @return the total count
+     */
+    public int getTotalCount() {
+        return total.get();
+    }
+
+    /**
+     * Gets the most connections the pool opens.
+     *
+     * @return the maximum size
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ConnectionPool[active=%d, idle=%d, total=%d/%d, acquires=%d, avg=%.1f us, max=%.1f us,"
+                + " saturated=%d, timeouts=%d, created=%d, discarded=%d]",
+            getActiveCount(), getIdleCount(), getTotalCount(), maxSize, getAcquireCount(), getAverageAcquireMicros(),
+            getMaxAcquireMicros(), getSaturatedCount(), getTimeoutCount(), getCreatedCount(), getDiscardedCount());
+    }
+
+    /**
+     * Takes the most recently used idle connection that still works, or opens one.
+     * The caller holds a permit.
+     */
+    private PooledConnection take() throws SQLException {
+        PooledConnection entry;
+        while ((entry = idle.pollFirst()) != null) {
+            if (System.nanoTime() - entry.lastUsed <= validationWindowNanos || isValid(entry)) {
+                return entry;
+            }
+            logger.warn("Dropping a connection that failed validation");
+            discard(entry);
+        }
+        return open();
+    }
+
+    private PooledConnection open() throws SQLException {
+        total.incrementAndGet();
+        try {
+            Connection connection = DriverManager.getConnection(url, user, password);
+            created.increment();
+            return new PooledConnection(connection);
+        } catch (SQLException | RuntimeException e) {
+            total.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Takes a connection back from its wrapper: resets it and puts it first in line,
+     * or closes it if it is broken or the pool is closed.
+     */
+    private void release(PooledConnection entry) {
+        try {
+            boolean reusable = !closed && !entry.broken && reset(entry.connection);
+            if (reusable) {
+                entry.lastUsed = System.nanoTime();
+                idle.offerFirst(entry);
+                evictIdle(entry.lastUsed);
+            } else {
+                discard(entry);
+            }
+        } finally {
+            permits.release();
+        }
+        if (closed) {
+            close(); // in case the pool closed while the connection was being put back
+        }
+    }
+
+    /**
+     * Closes connections at the back of the line, the least recently used, that have been idle too long.
+     * The housekeeper and release can run this at the same time, so each eviction first takes its
+     * connection off the total, and only while that stays above minSize.
+     */
+    private int evictIdle(long now) {
+        int evicted = 0;
+        PooledConnection oldest;
+        while ((oldest = idle.peekLast()) != null && now - oldest.lastUsed > idleTimeoutNanos
+            && reserveEviction()) {
+            if (idle.removeLastOccurrence(oldest)) {
+                closeConnection(oldest);
+                evicted++;
+            } else {
+                total.incrementAndGet(); // taken by a caller or another eviction in the meantime
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Counts one connection less if the pool has more than minSize.
+     *
+     * @return true if the count was lowered
+     */
+    private boolean reserveEviction() {
+        while (true) {
+            int count = total.get();
+            if (count <= minSize) {
+                return false;
+            }
+            if (total.compareAndSet(count, count - 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void discard(PooledConnection entry) {
+        total.decrementAndGet();
+        closeConnection(entry);
+    }
+
+    /**
+     * Closes a connection that is no longer counted in the total.
+     */
+    private void closeConnection(PooledConnection entry) {
+        discarded.increment();
+        try {
+            entry.connection.close();
+        } catch (SQLException e) {
+            logger.debug("Error closing connection: {}", e.getMessage());
+        }
+    }
+
+    private static boolean isValid(PooledConnection entry) {
+        try {
+            return entry.connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Undoes what a borrower may have left behind: an open transaction and auto-commit turned off.
+     *
+     * @return false if the connection is closed or cannot be reset
+     */
+    private static boolean reset(Connection connection) {
+        try {
+            if (connection.isClosed()) {
+                return false;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            return true;
+        } catch (SQLException e) {
+            logger.warn("Dropping a connection that could not be reset: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * A physical connection and its pool bookkeeping.
+     */
+    private final class PooledConnection {
+        final Connection connection;
+        volatile long lastUsed = System.nanoTime();
+        volatile boolean broken;
+
+        PooledConnection(Connection connection) {
+            this.connection = connection;
+        }
+
+        Connection checkOut() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new Borrowed(this));
+        }
+    }
+
+    /**
+     * The wrapper one borrower gets. Each checkout has its own, so a wrapper kept after close
+     * cannot reach a connection someone else is using.
+     */
+    private final class Borrowed implements InvocationHandler {
+        private final PooledConnection entry;
+        private boolean returned;
+
+        Borrowed(PooledConnection entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!returned) {
+                        returned = true;
+                        release(entry);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return returned || entry.connection.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Pooled " + entry.connection;
+                }
+                case "unwrap" -> {
+                    if (((Class<?>) args[0]).isInstance(entry.connection)) {
+                        return entry.connection;
+                    }
+                }
+                case "isWrapperFor" -> {
+                    if (((Class<?>) args[0]).isInstance(entry.connection)) {
+                        return true;
+                    }
+                }
+                default -> {
+                    // everything else goes to the connection
+                }
+            }
+            if (returned) {
+                throw new SQLException("Connection is closed");
+            }
+            try {
+                return method.invoke(entry.connection, args);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException sql && sql.getSQLState() != null && sql.getSQLState().startsWith("08")) {
+                    entry.broken = true; // connection exception class: do not hand it out again
+                }
+                throw cause;
+            }
+        }
+    }
+}
@@ -1,26 +1,94 @@
 package MokuGame.Service;
 
+import MokuGame.Core.BoardCodec;
 import MokuGame.Core.GoMokuBoard;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Manages database operations for saving and loading GoMoku game boards.
- * Uses PostgreSQL for persistent storage.
+ * Uses PostgreSQL for persistent storage, through a ConnectionPool so calls reuse open connections.
+ * Close the Database when done with it to close the pool.
+ *
+ * Boards are stored in BoardCodec binary form in the board_bytes column. Tables from before the
+ * binary format kept the serialize text in board_data; initializeDatabase converts those rows,
+ * and loadBoard still reads the text if a row has not been converted.
+ *
+ * Games can also be kept as their moves, in an append-only log: the games table holds each game's
+ * board size and game_moves every move and take-back in the order they happened. A MoveLog writes it
+ * in the background, and loadGame replays it.
  */
-public class Database {
+public class Database implements AutoCloseable {
 
     private static final Logger logger = LoggerFactory.getLogger(Database.class);
 
-    private static final String DB_URL = "jdbc:postgresql://localhost:5432/gomoku";
+    // the driver sends batched inserts as multi-row INSERTs, which saveBoards relies on for speed
+    private static final String DB_URL = "jdbc:postgresql://localhost:5432/gomoku?reWriteBatchedInserts=true";
     private static final String USER = "postgres";
     private static final String PASS = "alma";
 
+    /** Connections kept open while the database is idle. */
+    public static final int DEFAULT_MIN_POOL_SIZE = 1;
+    /** Most connections open at once. */
+    public static final int DEFAULT_MAX_POOL_SIZE = 10;
+
+    /** Boards sent to the server per batch by saveBoards. */
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    // one SQL string for saveBoard and saveBoards, so the driver's per-connection statement cache
+    // finds it and, after a few uses, runs it as a server-side prepared statement
+    private static final String SAVE_SQL = """
+        INSERT INTO boards (name, rows, columns, board_bytes)
+        VALUES (?, ?, ?, ?)
+        ON CONFLICT (name) DO UPDATE SET
+            rows = EXCLUDED.rows,
+            columns = EXCLUDED.columns,
+            board_bytes = EXCLUDED.board_bytes,
+            board_data = NULL,
+            created_at = NOW()
+        """;
+
+    private static final String START_SQL = """
+        INSERT INTO games (game_id, rows, columns, started_at)
+        VALUES (?, ?, ?, ?)
+        ON CONFLICT DO NOTHING
+        """;
+    private static final String MOVE_SQL =
+        "INSERT INTO game_moves (game_id, ply, move_row, move_col, player, played_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final ConnectionPool pool;
+    private volatile int batchSize = DEFAULT_BATCH_SIZE;
+
+    /**
+     * Creates a Database for the local PostgreSQL server with the default pool size.
+     */
+    public Database() {
+        this(DB_URL, USER, PASS, DEFAULT_MIN_POOL_SIZE, DEFAULT_MAX_POOL_SIZE);
+    }
+
+    /**
+     * Creates a Database for any JDBC URL.
+     *
+     * @param url the JDBC URL
+     * @param user the database user
+     * @param password the user's password
+     * @param minPoolSize the connections kept open while idle
+     * @param maxPoolSize the most connections open at once
+     */
+    public Database(String url, String user, String password, int minPoolSize, int maxPoolSize) {
+        this.pool = new ConnectionPool(url, user, password, minPoolSize, maxPoolSize);
+        pool.startHousekeeping(ConnectionPool.DEFAULT_HOUSEKEEPING_PERIOD_MILLIS);
+    }
+
     /**
-     * Initializes the database by creating the boards table if it doesn't exist.
+     * Initializes the database by creating the boards table if it doesn't exist,
+     * and brings a table from before the binary format up to date.
      * This method should be called when the application starts.
      */
     public void initializeDatabase() {
@@ -29,27 +97,127 @@ public class Database {
                 name        TEXT PRIMARY KEY,
                 rows        INT  NOT NULL,
                 columns     INT  NOT NULL,
-                board_data  TEXT NOT NULL,
+                board_bytes BYTEA,
+                board_data  TEXT,
                 created_at  TIMESTAMP NOT NULL DEFAULT NOW()
             );
             """;
+        String gamesDdl = """
+            CREATE TABLE IF NOT EXISTS games (
+                game_id     TEXT PRIMARY KEY,
+                rows        INT  NOT NULL,
+                columns     INT  NOT NULL,
+                started_at  TIMESTAMP NOT NULL
+            );
+            """;
+        // move_row -1 is a take-back to ply moves; rows are replayed in id order
+        String movesDdl = """
+            CREATE TABLE IF NOT EXISTS game_moves (
+                id          BIGSERIAL PRIMARY KEY,
+                game_id     TEXT NOT NULL,
+                ply         INT  NOT NULL,
+                move_row    INT  NOT NULL,
+                move_col    INT  NOT NULL,
+                player      CHAR(1),
+                played_at   TIMESTAMP NOT NULL
+            );
+            """;
         try (Connection conn = connect();
              Statement stmt = conn.createStatement()) {
             stmt.execute(ddl);
-            logger.info("PostgreSQL connected. Table 'boards' is ready.");
+            stmt.execute("ALTER TABLE boards ADD COLUMN IF NOT EXISTS board_bytes BYTEA");
+            stmt.execute("ALTER TABLE boards ALTER COLUMN board_data DROP NOT NULL");
+            stmt.execute(gamesDdl);
+            stmt.execute(movesDdl);
+            stmt.execute("CREATE INDEX IF NOT EXISTS game_moves_game ON game_moves (game_id, id)");
+            pool.fill();
+            logger.info("PostgreSQL connected. Tables 'boards', 'games' and 'game_moves' are ready.");
         } catch (SQLException e) {
             logger.error("Failed to initialize database schema", e);
+            return;
+        }
+        migrateBoards();
+    }
+
+    /**
+     * Converts boards saved as text to the binary format, a batch at a time in one transaction.
+     * Rows that are already binary are left alone, so it is safe to run again.
+     *
+     * @return the number of boards converted, or -1 if the migration failed
+     */
+    public int migrateBoards() {
+        String select = "SELECT name, rows, columns, board_data FROM boards WHERE board_bytes IS NULL";
+        String update = "UPDATE boards SET board_bytes = ?, board_data = NULL WHERE name = ? AND board_bytes IS NULL";
+        int chunk = batchSize;
+        int converted = 0;
+
+        try (Connection conn = connect()) {
+            conn.setAutoCommit(false); // lets the driver read the rows a chunk at a time
+            try (PreparedStatement query = conn.prepareStatement(select);
+                 PreparedStatement pstmt = conn.prepareStatement(update)) {
+                query.setFetchSize(chunk);
+                try (ResultSet rs = query.executeQuery()) {
+                    int pending = 0;
+                    while (rs.next()) {
+                        GoMokuBoard board = new GoMokuBoard(rs.getInt("rows"), rs.getInt("columns"));
+                        board.loadFromString(rs.getString("board_data"));
+                        pstmt.setBytes(1, BoardCodec.encode(board));
+                        pstmt.setString(2, rs.getString("name"));
+                        pstmt.addBatch();
+                        converted++;
+                        if (++pending == chunk) {
+                            pstmt.executeBatch();
+                            pending = 0;
+                        }
+                    }
+                    if (pending > 0) {
+                        pstmt.executeBatch();
+                    }
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            if (converted > 0) {
+                logger.info("Converted {} boards to the binary format", converted);
+            }
+            return converted;
+
+        } catch (SQLException | IllegalArgumentException e) {
+            logger.error("Failed to convert boards to the binary format", e);
+            return -1;
         }
     }
 
     /**
-     * Establishes a connection to the PostgreSQL database.
+     * Gets the connection pool, for its metrics.
+     *
+     * @return the pool
+     */
+    public ConnectionPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Closes the pooled connections.
+     */
+    @Override
+    public void close() {
+        pool.close();
+        logger.info("Database closed: {}", pool);
+    }
+
+    /**
+     * Takes a connection from the pool; closing it gives it back.
      *
      * @return a Connection object to the database
      * @throws SQLException if connection fails
      */
     private Connection connect() throws SQLException {
-        return DriverManager.getConnection(DB_URL, USER, PASS);
+        return pool.getConnection();
     }
 
     /**
@@ -61,24 +229,10 @@ public class Database {
      * @return true if save was successful, false otherwise
      */
     public boolean saveBoard(String name, GoMokuBoard board) {
-        String sql = """
-            INSERT INTO boards (name, rows, columns, board_data)
-            VALUES (?, ?, ?, ?)
-            ON CONFLICT (name) DO UPDATE SET
-                rows = EXCLUDED.rows,
-                columns = EXCLUDED.columns,
-                board_data = EXCLUDED.board_data,
-                created_at = NOW()
-            """;
-
         try (Connection conn = connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setString(1, name);
-            pstmt.setInt(2, board.getRows());
-            pstmt.setInt(3, board.getColumns());
-            pstmt.setString(4, board.serialize());
+             PreparedStatement pstmt = conn.prepareStatement(SAVE_SQL)) {
 
+            bindBoard(pstmt, name, board);
             pstmt.executeUpdate();
             logger.info("Board '{}' saved successfully", name);
             return true;
@@ -89,6 +243,71 @@ public class Database {
         }
     }
 
+    /**
+     * Saves many boards at once, replacing boards with the same names. The boards are sent in
+     * batches of the batch size over one connection and one prepared statement, and saved in one
+     * transaction: either all of them are saved or none is.
+     *
+     * @param boards the boards by name
+     * @return true if every board was saved, false otherwise
+     */
+    public boolean saveBoards(Map<String, GoMokuBoard> boards) {
+        if (boards.isEmpty()) {
+            return true;
+        }
+        int chunk = batchSize;
+        try (Connection conn = connect();
+             PreparedStatement pstmt = conn.prepareStatement(SAVE_SQL)) {
+
+            conn.setAutoCommit(false);
+            try {
+                int pending = 0;
+                for (Map.Entry<String, GoMokuBoard> entry : boards.entrySet()) {
+                    bindBoard(pstmt, entry.getKey(), entry.getValue());
+                    pstmt.addBatch();
+                    if (++pending == chunk) {
+                        pstmt.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    pstmt.executeBatch();
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            logger.info("Saved {} boards in batches of {}", boards.size(), chunk);
+            return true;
+
+        } catch (SQLException e) {
+            logger.error("Failed to save {} boards", boards.size(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Sets how many boards saveBoards sends to the server at a time.
+     *
+     * @param batchSize the boards per batch
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    private static void bindBoard(PreparedStatement pstmt, String name, GoMokuBoard board) throws SQLException {
+        pstmt.setString(1, name);
+        pstmt.setInt(2, board.getRows());
+        pstmt.setInt(3, board.getColumns());
+        pstmt.setBytes(4, BoardCodec.encode(board));
+    }
+
     /**
      * Loads a game board from the database by name.
      *
@@ -96,7 +315,7 @@ public class Database {
      * @return the loaded GoMokuBoard, or null if not found or error occurs
      */
     public GoMokuBoard loadBoard(String name) {
-        String sql = "SELECT rows, columns, board_data FROM boards WHERE name = ?";
+        String sql = "SELECT rows, columns, board_bytes, board_data FROM boards WHERE name = ?";
 
         try (Connection conn = connect();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -105,13 +324,15 @@ public class Database {
             ResultSet rs = pstmt.executeQuery();
 
             if (rs.next()) {
-                int rows = rs.getInt("rows");
-                int columns = rs.getInt("columns");
-                String boardData = rs.getString("board_data");
+                byte[] boardBytes = rs.getBytes("board_bytes");
+                GoMokuBoard board;
+                if (boardBytes != null) {
+                    board = BoardCodec.decode(boardBytes);
+                } else { // not converted yet
+                    board = new GoMokuBoard(rs.getInt("rows"), rs.getInt("columns"));
+                    board.loadFromString(rs.getString("board_data"));
+                }
 
-                GoMokuBoard board = new GoMokuBoard(rows, columns);
-                board.loadFromString(boardData);
-                
                 logger.info("Board '{}' loaded successfully", name);
                 return board;
             } else {
@@ -119,7 +340,7 @@ public class Database {
                 return null;
             }
 
-        } catch (SQLException e) {
+        } catch (SQLException | IllegalArgumentException e) {
             logger.error("Failed to load board '{}'", name, e);
             return null;
         }
@@ -179,4 +400,302 @@ public class Database {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Appends entries to the game log in one transaction, batched like saveBoards: either all of
+     * them are written or none is. Starts of games already in the log are ignored.
+     *
+     * @param records the entries in the order they happened
+     * @return true if every entry was written, false otherwise
+     */
+    public boolean appendMoves(List<MoveRecord> records) {
+        try {
+            insertMoves(records);
+            return true;
+        } catch (SQLException e) {
+            logger.error("Failed to append {} entries to the game log", records.size(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Appends entries to the game log in one transaction, as appendMoves does, but reports a failure
+     * with its exception, so a caller such as MoveLog can tell a lost connection from bad data.
+     *
+     * @param records the entries in the order they happened
+     * @throws SQLException if the entries could not be written; none of them were
+     */
+    void insertMoves(List<MoveRecord> records) throws SQLException {
+        if (records.isEmpty()) {
+            return;
+        }
+        int chunk = batchSize;
+        try (Connection conn = connect();
+             PreparedStatement starts = conn.prepareStatement(START_SQL);
+             PreparedStatement moves = conn.prepareStatement(MOVE_SQL)) {
+
+            conn.setAutoCommit(false);
+            try {
+                int pendingStarts = 0;
+                int pendingMoves = 0;
+                for (MoveRecord record : records) {
+                    if (record.getKind() == MoveRecord.START) {
+                        starts.setString(1, record.getGameId());
+                        starts.setInt(2, record.getRow());
+                        starts.setInt(3, record.getColumn());
+                        starts.setTimestamp(4, new Timestamp(record.getTime()));
+                        starts.addBatch();
+                        pendingStarts++;
+                        continue;
+                    }
+                    if (pendingStarts > 0) { // a game's start goes in before its moves
+                        starts.executeBatch();
+                        pendingStarts = 0;
+                    }
+                    moves.setString(1, record.getGameId());
+                    moves.setInt(2, record.getPly());
+                    moves.setInt(3, record.getRow());
+                    moves.setInt(4, record.getColumn());
+                    if (record.getKind() == MoveRecord.MOVE) {
+                        moves.setString(5, String.valueOf(record.getPlayer()));
+                    } else {
+                        moves.setNull(5, Types.CHAR);
+                    }
+                    moves.setTimestamp(6, new Timestamp(record.getTime()));
+                    moves.addBatch();
+                    if (++pendingMoves == chunk) {
+                        moves.executeBatch();
+                        pendingMoves = 0;
+                    }
+                }
+                if (pendingStarts > 0) {
+                    starts.executeBatch();
+                }
+                if (pendingMoves > 0) {
+                    moves.executeBatch();
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            logger.debug("Appended {} entries to the game log", records.size());
+        }
+    }
+
+    /**
+     * Loads the moves of a logged game, with the moves that were taken back left out.
+     *
+     * @param gameId the game ID
+     * @return the moves in order, each as [row, column], or null if the game is not logged or an error occurs
+     */
+    public int[][] loadMoves(String gameId) {
+        try (Connection conn = connect()) {
+            if (readSize(conn, gameId) == null) {
+                logger.warn("No logged game with ID '{}'", gameId);
+                return null;
+            }
+            return readMoves(conn, gameId);
+        } catch (SQLException e) {
+            logger.error("Failed to load the moves of game '{}'", gameId, e);
+            return null;
+        }
+    }
+
+    /**
+     * Rebuilds a logged game by replaying its moves on a new board, so the board, the player to move
+     * and the result are as they were after the last move. Moves that were taken back cannot be redone.
+     *
+     * @param gameId the game ID
+     * @return the game, or null if the game is not logged or an error occurs
+     */
+    public GoMoKuGameService loadGame(String gameId) {
+        try (Connection conn = connect()) {
+            int[] size = readSize(conn, gameId);
+            if (size == null) {
+                logger.warn("No logged game with ID '{}'", gameId);
+                return null;
+            }
+            int[][] moves = readMoves(conn, gameId);
+            GoMoKuGameService game = new GoMoKuGameService(new GoMokuBoard(size[0], size[1]));
+            for (int[] move : moves) {
+                if (!game.makeMove(move[0], move[1])) {
+                    logger.error("Logged game '{}' has an illegal move at ({}, {})", gameId, move[0], move[1]);
+                    return null;
+                }
+            }
+            logger.info("Game '{}' loaded, {} moves", gameId, moves.length);
+            return game;
+
+        } catch (SQLException e) {
+            logger.error("Failed to load game '{}'", gameId, e);
+            return null;
+        }
+    }
+
+    private static int[] readSize(Connection conn, String gameId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT rows, columns FROM games WHERE game_id = ?")) {
+            pstmt.setString(1, gameId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? new int[]{rs.getInt("rows"), rs.getInt("columns")} : null;
+            }
+        }
+    }
+
+    private static int[][] readMoves(Connection conn, String gameId) throws SQLException {
+        String sql = "SELECT ply, move_row, move_col FROM game_moves WHERE game_id = ? ORDER BY id";
+        MoveList moves = new MoveList(gameId);
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, gameId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    moves.add(rs.getInt(1), rs.getInt(2), rs.getInt(3));
+                }
+            }
+        }
+        return moves.toArray();
+    }
+
+    /**
+     * Loads the moves of every logged game played on a board of the given size, in one query, with
+     * the moves that were taken back left out.
+     *
+     * @param rows the number of rows of the board
+     * @param columns the number of columns of the board
+     * @return the moves of each game by game ID, each as [row, column]; empty if there are none or an error occurs
+     */
+    public Map<String, int[][]> loadMoves(int rows, int columns) {
+        String sql = """
+            SELECT m.game_id, m.ply, m.move_row, m.move_col
+            FROM game_moves m JOIN games g ON g.game_id = m.game_id
+            WHERE g.rows = ? AND g.columns = ?
+            ORDER BY m.game_id, m.id
+            """;
+        Map<String, int[][]> games = new LinkedHashMap<>();
+
+        try (Connection conn = connect();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, rows);
+            pstmt.setInt(2, columns);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                MoveList moves = null;
+                while (rs.next()) {
+                    String gameId = rs.getString(1);
+                    if (moves == null || !moves.gameId.equals(gameId)) {
+                        if (moves != null) {
+                            games.put(moves.gameId, moves.toArray());
+                        }
+                        moves = new MoveList(gameId);
+                    }
+                    moves.add(rs.getInt(2), rs.getInt(3), rs.getInt(4));
+                }
+                if (moves != null) {
+                    games.put(moves.gameId, moves.toArray());
+                }
+            }
+            logger.debug("Loaded the moves of {} logged {}x{} games", games.size(), rows, columns);
+
+        } catch (SQLException e) {
+            logger.error("Failed to load the moves of {}x{} games", rows, columns, e);
+            games.clear();
+        }
+
+        return games;
+    }
+
+    /**
+     * Replays a game's log entries in the order they were written: a move sets the move at its ply,
+     * a take-back cuts the game short.
+     */
+    private static final class MoveList {
+        private final String gameId;
+        private int[][] moves = new int[16][];
+        private int count;
+        private boolean broken;
+
+        MoveList(String gameId) {
+            this.gameId = gameId;
+        }
+
+        void add(int ply, int row, int column) {
+            if (broken) {
+                return;
+            }
+            if (row < 0) {
+                count = Math.min(count, ply);
+            } else if (ply >= 1 && ply <= count + 1) {
+                if (ply > moves.length) {
+                    moves = Arrays.copyOf(moves, moves.length * 2);
+                }
+                moves[ply - 1] = new int[]{row, column};
+                count = ply;
+            } else {
+                logger.warn("Game '{}' is missing moves before ply {}, replaying the first {}", gameId, ply, count);
+                broken = true;
+            }
+        }
+
+        int[][] toArray() {
+            return Arrays.copyOf(moves, count);
+        }
+    }
+
+    /**
+     * Retrieves the IDs of all logged games, most recently started first.
+     *
+     * @return an array of game IDs, empty array if none exist
+     */
+    public String[] listGames() {
+        String sql = "SELECT game_id FROM games ORDER BY started_at DESC";
+        List<String> ids = new ArrayList<>();
+
+        try (Connection conn = connect();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                ids.add(rs.getString("game_id"));
+            }
+
+        } catch (SQLException e) {
+            logger.error("Failed to list games", e);
+        }
+
+        return ids.toArray(new String[0]);
+    }
+
+    /**
+     * Deletes a logged game and all of its moves.
+     *
+     * @param gameId the game ID
+     * @return true if the game was deleted, false otherwise
+     */
+    public boolean deleteGame(String gameId) {
+        try (Connection conn = connect();
+             PreparedStatement moves = conn.prepareStatement("DELETE FROM game_moves WHERE game_id = ?");
+             PreparedStatement game = conn.prepareStatement("DELETE FROM games WHERE game_id = ?")) {
+
+            conn.setAutoCommit(false);
+            try {
+                moves.setString(1, gameId);
+                moves.executeUpdate();
+                game.setString(1, gameId);
+                int affected = game.executeUpdate();
+                conn.commit();
+                return affected > 0;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+        } catch (SQLException e) {
+            logger.error("Failed to delete game '{}'", gameId, e);
+            return false;
+        }
+    }
+}
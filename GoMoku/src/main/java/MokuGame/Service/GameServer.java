@@ -0,0 +1,405 @@
+package MokuGame.Service;
+
+import MokuGame.Core.GoMokuBoard;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Headless TCP game server with a line protocol, offering the console menu's actions to remote players.
+ * Every connection is served on its own virtual thread, so thousands of mostly idle players cost
+ * little more than their sockets. The games live in a GameSessionManager; a connection plays one game
+ * at a time, and two connections can share a game by joining the same ID.
+ *
+ * Each command is one line and gets one reply line, starting with OK or ERR:
+ * <pre>
+ * NEW [size | rows columns]   start a game (default 15x15)        OK id
+ * JOIN id                     play in an existing game             OK id
+ * MOVE row column             move for the player to move          OK player row column [WIN player | DRAW]
+ * UNDO, REDO                  take back or replay a move           OK
+ * BOARD                       show the game                        OK rows columns player-to-move cells
+ * SAVE name, LOAD name        save the board, or start a game from a saved one
+ * LIST                        saved board names, tab separated
+ * END                         end the game
+ * QUIT                        close the connection                 BYE
+ * </pre>
+ * The board cells are in GoMokuBoard.serialize format.
+ *
+ * With a MoveLog, every game started with NEW or LOAD is logged move by move under its ID, in the
+ * background.
+ */
+public class GameServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameServer.class);
+
+    /** Default TCP port. */
+    public static final int DEFAULT_PORT = 7777;
+    /** Connections the operating system may queue before they are accepted. */
+    public static final int BACKLOG = 10_000;
+    /** Default board size, as in the console menu. */
+    public static final int DEFAULT_SIZE = 15;
+    /** Smallest board size, as in the console menu. */
+    public static final int MIN_SIZE = 5;
+    /** Largest board size a client may ask for. */
+    public static final int MAX_SIZE = 100;
+
+    private final GameSessionManager sessions;
+    private final Database database;
+    private final MoveLog moveLog;
+    private final Set<Socket> open = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger connectionIds = new AtomicInteger();
+    private final LongAdder commands = new LongAdder();
+    private ExecutorService connections;
+    private ServerSocket serverSocket;
+    private Thread acceptor;
+
+    /**
+     * Creates a server.
+     *
+     * @param sessions the games
+     * @param database the saved boards, or null to turn SAVE, LOAD and LIST off
+     */
+    public GameServer(GameSessionManager sessions, Database database) {
+        this(sessions, database, null);
+    }
+
+    /**
+     * Creates a server that logs the moves of the games it starts.
+     *
+     * @param sessions the games
+     * @param database the saved boards, or null to turn SAVE, LOAD and LIST off
+     * @param moveLog the log for the moves of new and loaded games, or null to log nothing
+     */
+    public GameServer(GameSessionManager sessions, Database database, MoveLog moveLog) {
+        this.sessions = sessions;
+        this.database = database;
+        this.moveLog = moveLog;
+    }
+
+    /**
+     * Starts listening and accepting connections on a background thread.
+     *
+     * @param port the TCP port, or 0 for any free port
+     * @throws IOException if the port cannot be opened
+     */
+    public synchronized void start(int port) throws IOException {
+        if (serverSocket != null) {
+            throw new IllegalStateException("Server already started");
+        }
+        serverSocket = new ServerSocket(port, BACKLOG);
+        connections = Executors.newVirtualThreadPerTaskExecutor();
+        // not a daemon: the acceptor keeps the process alive until stop
+        acceptor = Thread.ofPlatform().name("game-server-accept").start(this::acceptLoop);
+        logger.info("Game server listening on port {}", getPort());
+    }
+
+    /**
+     * Gets the port the server listens on.
+     *
+     * @return the port, or -1 if the server is not running
+     */
+    public synchronized int getPort() {
+        return serverSocket == null ? -1 : serverSocket.getLocalPort();
+    }
+
+    /**
+     * Gets the number of open connections.
+     *
+     * @return the connection count
+     */
+    public int getConnectionCount() {
+        return open.size();
+    }
+
+    /**
+     * Gets the number of commands handled since the server started.
+     *
+     * @return the command count
+     */
+    public long getCommandCount() {
+        return commands.sum();
+    }
+
+    /**
+     * Stops accepting, closes every connection and waits for their threads to end.
+     * The games are kept in the session manager.
+     */
+    public synchronized void stop() {
+        if (serverSocket == null) {
+            return;
+        }
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            logger.warn("Error closing server socket: {}", e.getMessage());
+        }
+        try {
+            acceptor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Socket socket : open) {
+            closeQuietly(socket);
+        }
+        connections.close(); // waits for the connection threads
+        serverSocket = null;
+        logger.info("Game server stopped");
+    }
+
+    private void acceptLoop() {
+        ServerSocket listener = serverSocket;
+        while (!listener.isClosed()) {
+            try {
+                Socket socket = listener.accept();
+                socket.setTcpNoDelay(true); // replies are single short lines
+                open.add(socket);
+                connections.submit(() -> serve(socket));
+            } catch (IOException e) {
+                if (!listener.isClosed()) {
+                    logger.error("Accept failed: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads commands from one connection until it closes. Runs on the connection's virtual thread.
+     *
+     * @param socket the connection
+     */
+    private void serve(Socket socket) {
+        Thread.currentThread().setName("game-connection-" + connectionIds.incrementAndGet());
+        Client client = new Client();
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(socket.getOutputStream(), false, StandardCharsets.UTF_8)) {
+            String line;
+            while (!client.quit && (line = in.readLine()) != null) {
+                out.print(handle(line, client));
+                out.print('\n');
+                out.flush();
+            }
+        } catch (SocketException e) {
+            logger.debug("Connection closed: {}", e.getMessage());
+        } catch (IOException e) {
+            logger.warn("Connection error: {}", e.getMessage());
+        } finally {
+            open.remove(socket);
+        }
+    }
+
+    /**
+     * Runs one command and builds its reply.
+     *
+     * @param line the command line
+     * @param client the state of the connection it came from
+     * @return the reply line, without a line break
+     */
+    String handle(String line, Client client) {
+        commands.increment();
+        String[] words = line.trim().split("\\s+");
+        String command = words[0].toUpperCase(Locale.ROOT);
+        try {
+            return switch (command) {
+                case "NEW" -> newGame(words, client);
+                case "JOIN" -> join(words, client);
+                case "MOVE" -> move(words, client);
+                case "UNDO" -> inGame(client, service -> service.undoMove() ? "OK" : "ERR nothing to undo");
+                case "REDO" -> inGame(client, service -> service.redoMove() ? "OK" : "ERR nothing to redo");
+                case "BOARD" -> inGame(client, service -> "OK " + describe(service));
+                case "SAVE" -> save(words, client);
+                case "LOAD" -> load(words, client);
+                case "LIST" -> list();
+                case "END" -> end(client);
+                case "QUIT" -> {
+                    client.quit = true;
+                    yield "BYE";
+                }
+                default -> "ERR unknown command " + words[0];
+            };
+        } catch (NumberFormatException e) {
+            return "ERR not a number: " + e.getMessage();
+        }
+    }
+
+    private String newGame(String[] words, Client client) {
+        int rows = words.length > 1 ? Integer.parseInt(words[1]) : DEFAULT_SIZE;
+        int columns = words.length > 2 ? Integer.parseInt(words[2]) : rows;
+        if (Math.min(rows, columns) < MIN_SIZE || Math.max(rows, columns) > MAX_SIZE) {
+            return "ERR board size must be between " + MIN_SIZE + " and " + MAX_SIZE;
+        }
+        return bind(logged(sessions.create(rows, columns)), client);
+    }
+
+    private String join(String[] words, Client client) {
+        if (words.length < 2) {
+            return "ERR usage: JOIN id";
+        }
+        if (!sessions.contains(words[1])) {
+            return "ERR no game " + words[1];
+        }
+        client.sessionId = words[1];
+        return "OK " + words[1];
+    }
+
+    private String move(String[] words, Client client) {
+        if (words.length < 3) {
+            return "ERR usage: MOVE row column";
+        }
+        int row = Integer.parseInt(words[1]);
+        int column = Integer.parseInt(words[2]);
+        return inGame(client, service -> {
+            if (service.isGameOver()) {
+                return "ERR game over";
+            }
+            char player = service.getCurrentPlayer();
+            if (!service.makeMove(row, column)) {
+                return "ERR illegal move";
+            }
+            String reply = "OK " + player + " " + row + " " + column;
+            if (service.isGameOver()) {
+                reply += service.getWinner() == GoMokuBoard.Empty ? " DRAW" : " WIN " + service.getWinner();
+            }
+            return reply;
+        });
+    }
+
+    private String save(String[] words, Client client) {
+        if (database == null) {
+            return "ERR no database";
+        }
+        if (words.length < 2) {
+            return "ERR usage: SAVE name";
+        }
+        // copy under the game's lock, write to the database outside it
+        GoMokuBoard copy = sessions.withSession(client.sessionId == null ? "" : client.sessionId, service -> {
+            GoMokuBoard board = service.getBoard();
+            GoMokuBoard snapshot = new GoMokuBoard(board.getRows(), board.getColumns());
+            snapshot.loadFromString(board.serialize());
+            return snapshot;
+        });
+        if (copy == null) {
+            return "ERR no game";
+        }
+        return database.saveBoard(words[1], copy) ? "OK" : "ERR save failed";
+    }
+
+    private String load(String[] words, Client client) {
+        if (database == null) {
+            return "ERR no database";
+        }
+        if (words.length < 2) {
+            return "ERR usage: LOAD name";
+        }
+        GoMokuBoard board = database.loadBoard(words[1]);
+        if (board == null) {
+            return "ERR no board " + words[1];
+        }
+        return bind(logged(sessions.create(board)), client);
+    }
+
+    private GameSession logged(GameSession session) {
+        if (session != null && moveLog != null) {
+            sessions.withSession(session.getId(), service -> moveLog.attach(session.getId(), service));
+        }
+        return session;
+    }
+
+    private String list() {
+        if (database == null) {
+            return "ERR no database";
+        }
+        return "OK " + String.join("\t", database.listBoards());
+    }
+
+    private String end(Client client) {
+        if (client.sessionId == null || !sessions.remove(client.sessionId)) {
+            return "ERR no game";
+        }
+        client.sessionId = null;
+        return "OK";
+    }
+
+    private String bind(GameSession session, Client client) {
+        if (session == null) {
+            return "ERR server full";
+        }
+        client.sessionId = session.getId();
+        return "OK " + session.getId();
+    }
+
+    private String inGame(Client client, Function<GoMoKuGameService, String> action) {
+        String reply = client.sessionId == null ? null : sessions.withSession(client.sessionId, action);
+        return reply == null ? "ERR no game" : reply;
+    }
+
+    private static String describe(GoMoKuGameService service) {
+        GoMokuBoard board = service.getBoard();
+        return board.getRows() + " " + board.getColumns() + " " + service.getCurrentPlayer() + " " + board.serialize();
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            logger.debug("Error closing connection: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * State of one connection.
+     */
+    static final class Client {
+        String sessionId;
+        boolean quit;
+    }
+
+    /**
+     * Runs the server until the process is stopped.
+     * Arguments: the port (default 7777), then "--no-database" to run without PostgreSQL.
+     *
+     * @param args the command line arguments
+     * @throws IOException if the port cannot be opened
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        Database database = null;
+        if (args.length < 2 || !args[1].equals("--no-database")) {
+            database = new Database();
+            database.initializeDatabase();
+        }
+        GameSessionManager sessions = new GameSessionManager(GameSessionManager.DEFAULT_MAX_SESSIONS * 10,
+            GameSessionManager.DEFAULT_IDLE_TIMEOUT_MILLIS);
+        sessions.startEviction(60_000);
+        MoveLog moveLog = database == null ? null : new MoveLog(database);
+        GameServer server = new GameServer(sessions, database, moveLog);
+        server.start(port);
+        Database shutdownDatabase = database;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            sessions.shutdown();
+            if (moveLog != null) {
+                moveLog.close();
+            }
+            if (shutdownDatabase != null) {
+                shutdownDatabase.close();
+            }
+        }));
+    }
+}
@@ -0,0 +1,103 @@
+package MokuGame.Service;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * One hosted game: a GoMoKuGameService with its own lock, so moves in one game are applied one at
+ * a time while other games go ahead in parallel. Sessions are made and looked up through a
+ * GameSessionManager, which closes them when they have been idle too long.
+ */
+public final class GameSession {
+
+    private final String id;
+    private final GoMoKuGameService service;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile long lastAccess;
+    private boolean closed;
+
+    /**
+     * Creates a session.
+     *
+     * @param id the session ID
+     * @param service the game
+     * @param now the creation time in nanoseconds
+     */
+    GameSession(String id, GoMoKuGameService service, long now) {
+        this.id = id;
+        this.service = service;
+        this.lastAccess = now;
+    }
+
+    /**
+     * Gets the session ID.
+     *
+     * @return the ID
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Gets when the session was last used.
+     *
+     * @return the time of the last access in nanoseconds, on the manager's clock
+     */
+    public long getLastAccess() {
+        return lastAccess;
+    }
+
+    /**
+     * Runs an action on the game while holding the session lock.
+     *
+     * @param action the action, which must not keep the service after it returns
+     * @param now the current time in nanoseconds
+     * @param <T> the action's result type
+     * @return the action's result, or null if the session was closed first
+     */
+    <T> T apply(Function<GoMoKuGameService, T> action, long now) {
+        lock.lock();
+        try {
+            if (closed) {
+                return null;
+            }
+            lastAccess = now;
+            return action.apply(service);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes the session, waiting for an action that is running on it to finish.
+     */
+    void close() {
+        lock.lock();
+        try {
+            closed = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes the session if it has not been used since a time and no one is using it now.
+     *
+     * @param idleSince the time in nanoseconds it must not have been used after
+     * @return true if the session was closed
+     */
+    boolean closeIfIdle(long idleSince) {
+        if (lastAccess > idleSince || !lock.tryLock()) {
+            return false;
+        }
+        try {
+            if (lastAccess > idleSince) {
+                return false;
+            }
+            closed = true;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package MokuGame.Service;
+
+import MokuGame.Core.GoMokuBoard;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Hosts many games in one process, each in a GameSession found by its ID.
+ * Sessions live in a ConcurrentHashMap and each has its own lock, so there is no global lock:
+ * moves in one game are applied in order while any number of other games are played at once.
+ *
+ * Memory is bounded twice: at most maxSessions games exist at a time, and games not used for
+ * the idle timeout are evicted, either by evictIdle or by a background evictor. A session that
+ * is in use is never evicted, and once evicted its ID is unknown.
+ */
+public class GameSessionManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameSessionManager.class);
+
+    /** Default number of games that may exist at a time. */
+    public static final int DEFAULT_MAX_SESSIONS = 10_000;
+    /** Default time a game may go unused before it is evicted. */
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 30 * 60 * 1000;
+
+    private final ConcurrentHashMap<String, GameSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger count = new AtomicInteger();
+    private final int maxSessions;
+    private final long idleTimeoutNanos;
+    private final LongSupplier clock;
+    private ScheduledExecutorService evictor;
+
+    /**
+     * Creates a manager with the default limits.
+     */
+    public GameSessionManager() {
+        this(DEFAULT_MAX_SESSIONS, DEFAULT_IDLE_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Creates a manager.
+     *
+     * @param maxSessions the number of games that may exist at a time
+     * @param idleTimeoutMillis the time a game may go unused before it is evicted
+     */
+    public GameSessionManager(int maxSessions, long idleTimeoutMillis) {
+        this(maxSessions, idleTimeoutMillis, System::nanoTime);
+    }
+
+    /**
+     * Creates a manager with its own clock, for tests.
+     *
+     * @param maxSessions the number of games that may exist at a time
+     * @param idleTimeoutMillis the time a game may go unused before it is evicted
+     * @param clock the current time in nanoseconds
+     */
+    GameSessionManager(int maxSessions, long idleTimeoutMillis, LongSupplier clock) {
+        if (maxSessions < 1) {
+            throw new IllegalArgumentException("maxSessions must be at least 1");
+        }
+        this.maxSessions = maxSessions;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        this.clock = clock;
+    }
+
+    /**
+     * Starts a new game.
+     *
+     * @param rows the number of rows of the board
+     * @param columns the number of columns of the board
+     * @return the new session, or null if the manager is full
+     */
+    public GameSession create(int rows, int columns) {
+        return create(new GoMokuBoard(rows, columns));
+    }
+
+    /**
+     * Starts a game on an existing board, such as one loaded from the database.
+     * Player1 moves first, as in GoMoKuGameService.
+     *
+     * @param board the board, which belongs to the session from now on
+     * @return the new session, or null if the manager is full
+     */
+    public GameSession create(GoMokuBoard board) {
+        if (count.incrementAndGet() > maxSessions) {
+            count.decrementAndGet();
+            logger.warn("Session limit of {} reached", maxSessions);
+            return null;
+        }
+        GameSession session = new GameSession(UUID.randomUUID().toString(),
+            new GoMoKuGameService(board), clock.getAsLong());
+        sessions.put(session.getId(), session);
+        logger.debug("Created session {}", session.getId());
+        return session;
+    }
+
+    /**
+     * Checks if a session exists.
+     *
+     * @param id the session ID
+     * @return true if the session exists and has not been evicted
+     */
+    public boolean contains(String id) {
+        return sessions.containsKey(id);
+    }
+
+    /**
+     * Gets the number of sessions.
+     *
+     * @return the session count
+     */
+    public int size() {
+        return count.get();
+    }
+
+    /**
+     * Runs an action on a session's game while holding that session's lock, and marks it used.
+     *
+     * @param id the session ID
+     * @param action the action, which must not keep the service after it returns
+     * @param <T> the action's result type
+     * @return the action's result, or null if there is no such session
+     */
+    public <T> T withSession(String id, Function<GoMoKuGameService, T> action) {
+        GameSession session = sessions.get(id);
+        return session == null ? null : session.apply(action, clock.getAsLong());
+    }
+
+    /**
+     * Makes a move for the player to move in a session.
+     *
+     * @param id the session ID
+     * @param row the row index
+     * @param column the column index
+     * @return true if the session exists and the move was made
+     */
+    public boolean makeMove(String id, int row, int column) {
+        return Boolean.TRUE.equals(withSession(id, service -> service.makeMove(row, column)));
+    }
+
+    /**
+     * Ends a session.
+     *
+     * @param id the session ID
+     * @return true if the session existed
+     */
+    public boolean remove(String id) {
+        GameSession session = sessions.remove(id);
+        if (session == null) {
+            return false;
+        }
+        session.close();
+        count.decrementAndGet();
+        logger.debug("Removed session {}", id);
+        return true;
+    }
+
+    /**
+     * Evicts every session that has not been used for the idle timeout and is not in use.
+     *
+     * @return the number of sessions evicted
+     */
+    public int evictIdle() {
+        long idleSince = clock.getAsLong() - idleTimeoutNanos;
+        int evicted = 0;
+        for (GameSession session : sessions.values()) {
+            if (session.closeIfIdle(idleSince) && sessions.remove(session.getId(), session)) {
+                count.decrementAndGet();
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            logger.info("Evicted {} idle sessions, {} left", evicted, count.get());
+        }
+        return evicted;
+    }
+
+    /**
+     * Runs evictIdle on a background thread at a fixed period until shutdown.
+     *
+     * @param periodMillis the time between runs
+     */
+    public synchronized void startEviction(long periodMillis) {
+        if (evictor != null) {
+            return;
+        }
+        evictor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "session-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleAtFixedRate(this::evictIdle, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the background evictor. The sessions are kept.
+     */
+    public synchronized void shutdown() {
+        if (evictor != null) {
+            evictor.shutdownNow();
+            evictor = null;
+        }
+    }
+}
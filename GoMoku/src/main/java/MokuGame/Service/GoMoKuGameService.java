@@ -4,9 +4,13 @@ import MokuGame.Core.GoMokuBoard;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
+
 /**
  * Service class that manages GoMoku game logic including move validation,
  * turn management, and win detection.
+ * Moves are kept on a stack so they can be undone and redone in O(1) without copying the board.
+ * MoveListeners are told about every move played and taken back, which is how a MoveLog records games.
  */
 public class GoMoKuGameService {
     
@@ -15,7 +19,19 @@ public class GoMoKuGameService {
     private char currentPlayer;
     private boolean gameOver;
     private char winner;
-    private static final int WIN_LENGTH = 5;
+
+    // Move history: moves[0..moveCount) have been played, moves[moveCount..redoCount) were undone
+    // and can be redone. Each entry is cellIndex << 1 | 1 if Player2 made the move.
+    private int[] moves;
+    private int moveCount;
+    private int redoCount;
+
+    private MoveListener[] listeners = NO_LISTENERS;
+
+    private static final MoveListener[] NO_LISTENERS = new MoveListener[0];
+
+    /** Number of stones in a row needed to win. */
+    public static final int WIN_LENGTH = 5;
 
     /**
      * Creates a new game service with the specified board.
@@ -27,7 +43,8 @@ public class GoMoKuGameService {
         this.currentPlayer = GoMokuBoard.Player1;
         this.gameOver = false;
         this.winner = GoMokuBoard.Empty;
-        logger.info("New game service created with {}x{} board", board.getRows(), board.getColumns());
+        this.moves = new int[Math.max(16, board.getRows() * board.getColumns())];
+        logger.debug("New game service created with {}x{} board", board.getRows(), board.getColumns());
     }
 
     /**
@@ -89,8 +106,119 @@ public class GoMoKuGameService {
             return false;
         }
 
-        board.setCell(row, col, currentPlayer);
-        logger.info("Player {} placed at ({}, {})", currentPlayer, row, col);
+        redoCount = moveCount; // a new move replaces whatever could have been redone
+        play(row, col);
+        return true;
+    }
+
+    /**
+     * Takes back the last move, restoring the player to move and clearing any game over state.
+     *
+     * @return true if a move was undone, false if there was nothing to undo
+     */
+    public boolean undoMove() {
+        if (moveCount == 0) {
+            return false;
+        }
+        int move = moves[--moveCount];
+        int cell = move >>> 1;
+        board.setCell(board.rowOf(cell), board.columnOf(cell), GoMokuBoard.Empty);
+        // a move can only be made while the game is running, so undoing it always reopens the game
+        currentPlayer = (move & 1) == 0 ? GoMokuBoard.Player1 : GoMokuBoard.Player2;
+        gameOver = false;
+        winner = GoMokuBoard.Empty;
+        logger.debug("Undid move at ({}, {})", board.rowOf(cell), board.columnOf(cell));
+        for (MoveListener listener : listeners) {
+            listener.movesTakenBack(this, moveCount);
+        }
+        return true;
+    }
+
+    /**
+     * Plays the last undone move again.
+     *
+     * @return true if a move was redone, false if there was nothing to redo
+     */
+    public boolean redoMove() {
+        if (moveCount == redoCount) {
+            return false;
+        }
+        int cell = moves[moveCount] >>> 1;
+        if (gameOver || !board.isEmpty(board.rowOf(cell), board.columnOf(cell))) {
+            logger.warn("Cannot redo move at ({}, {}), the board has changed", board.rowOf(cell), board.columnOf(cell));
+            redoCount = moveCount;
+            return false;
+        }
+        play(board.rowOf(cell), board.columnOf(cell));
+        return true;
+    }
+
+    /**
+     * Gets the number of moves played and not undone.
+     *
+     * @return the move count
+     */
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * Gets the number of undone moves that redoMove can play again.
+     *
+     * @return the redo count
+     */
+    public int getRedoCount() {
+        return redoCount - moveCount;
+    }
+
+    /**
+     * Registers a listener that is told about every move played and taken back.
+     *
+     * @param listener the listener to add
+     */
+    public void addMoveListener(MoveListener listener) {
+        MoveListener[] grown = Arrays.copyOf(listeners, listeners.length + 1);
+        grown[listeners.length] = listener;
+        listeners = grown;
+    }
+
+    /**
+     * Removes a listener added with addMoveListener.
+     *
+     * @param listener the listener to remove
+     * @return true if the listener was registered
+     */
+    public boolean removeMoveListener(MoveListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                MoveListener[] shrunk = new MoveListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, shrunk, 0, i);
+                System.arraycopy(listeners, i + 1, shrunk, i, listeners.length - i - 1);
+                listeners = shrunk;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Places the current player's stone on a validated empty cell, records it on the move stack
+     * and updates the game state.
+     *
+     * @param row the row index
+     * @param col the column index
+     */
+    private void play(int row, int col) {
+        if (moveCount == moves.length) {
+            moves = Arrays.copyOf(moves, moves.length * 2); // only after edits have freed cells again
+        }
+        moves[moveCount++] = board.cellIndex(row, col) << 1 | (currentPlayer == GoMokuBoard.Player2 ? 1 : 0);
+        if (redoCount < moveCount) {
+            redoCount = moveCount;
+        }
+        char player = currentPlayer;
+        board.setCell(row, col, player);
+        logger.debug("Player {} placed at ({}, {})", player, row, col);
 
         if (checkWin(row, col)) {
             gameOver = true;
@@ -102,8 +230,9 @@ public class GoMoKuGameService {
         } else {
             switchPlayer();
         }
-
-        return true;
+        for (MoveListener listener : listeners) {
+            listener.movePlayed(this, moveCount, row, col, player);
+        }
     }
 
     /**
@@ -117,18 +246,12 @@ public class GoMoKuGameService {
 
     /**
      * Checks if the board is completely full.
+     * The board tracks its empty cells as stones are placed, so this is O(1).
      *
      * @return true if no empty cells remain, false otherwise
      */
     private boolean isBoardFull() {
-        for (int i = 0; i < board.getRows(); i++) {
-            for (int j = 0; j < board.getColumns(); j++) {
-                if (board.isEmpty(i, j)) {
-                    return false;
-                }
-            }
-        }
-        return true;
+        return board.isFull();
     }
 
     /**
@@ -139,17 +262,34 @@ public class GoMoKuGameService {
      * @return true if this move wins the game, false otherwise
      */
     private boolean checkWin(int row, int col) {
+        return isWinningMove(board, row, col);
+    }
+
+    /**
+     * Checks if the stone at the specified position is part of five or more in a row.
+     * This is the game's win rule, shared with the computer players so they judge wins the same way.
+     *
+     * @param board the board to check
+     * @param row the row of the stone
+     * @param col the column of the stone
+     * @return true if the stone completes a winning line, false otherwise
+     */
+    public static boolean isWinningMove(GoMokuBoard board, int row, int col) {
         char player = board.getCell(row, col);
-        
-        return checkDirection(row, col, 0, 1, player) ||  // Horizontal
-               checkDirection(row, col, 1, 0, player) ||  // Vertical
-               checkDirection(row, col, 1, 1, player) ||  // Diagonal \
-               checkDirection(row, col, 1, -1, player);   // Diagonal /
+        if (player != GoMokuBoard.Player1 && player != GoMokuBoard.Player2) {
+            return false;
+        }
+
+        return checkDirection(board, row, col, 0, 1, player) ||  // Horizontal
+               checkDirection(board, row, col, 1, 0, player) ||  // Vertical
+               checkDirection(board, row, col, 1, 1, player) ||  // Diagonal \
+               checkDirection(board, row, col, 1, -1, player);   // Diagonal /
     }
 
     /**
      * Checks if there are 5 or more consecutive pieces in a specific direction.
      *
+     * @param board the board to check
      * @param row the starting row
      * @param col the starting column
      * @param dRow the row direction (-1, 0, or 1)
@@ -157,14 +297,14 @@ public class GoMoKuGameService {
      * @param player the player to check for
      * @return true if 5 or more consecutive pieces found, false otherwise
      */
-    private boolean checkDirection(int row, int col, int dRow, int dCol, char player) {
+    private static boolean checkDirection(GoMokuBoard board, int row, int col, int dRow, int dCol, char player) {
         int count = 1; // Count the current piece
         
         // Check in positive direction
-        count += countInDirection(row, col, dRow, dCol, player);
+        count += countInDirection(board, row, col, dRow, dCol, player);
         
         // Check in negative direction
-        count += countInDirection(row, col, -dRow, -dCol, player);
+        count += countInDirection(board, row, col, -dRow, -dCol, player);
         
         return count >= WIN_LENGTH;
     }
@@ -172,6 +312,7 @@ public class GoMoKuGameService {
     /**
      * Counts consecutive pieces in a specific direction from a starting position.
      *
+     * @param board the board to check
      * @param row the starting row
      * @param col the starting column
      * @param dRow the row direction
@@ -179,7 +320,7 @@ public class GoMoKuGameService {
      * @param player the player to count for
      * @return the count of consecutive pieces in that direction
      */
-    private int countInDirection(int row, int col, int dRow, int dCol, char player) {
+    private static int countInDirection(GoMokuBoard board, int row, int col, int dRow, int dCol, char player) {
         int count = 0;
         int r = row + dRow;
         int c = col + dCol;
@@ -201,6 +342,11 @@ public class GoMoKuGameService {
         currentPlayer = GoMokuBoard.Player1;
         gameOver = false;
         winner = GoMokuBoard.Empty;
+        moveCount = 0;
+        redoCount = 0;
         logger.info("Game reset");
+        for (MoveListener listener : listeners) {
+            listener.movesTakenBack(this, 0);
+        }
     }
 }
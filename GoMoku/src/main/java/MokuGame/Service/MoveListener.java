@@ -0,0 +1,28 @@
+package MokuGame.Service;
+
+/**
+ * Receives a call whenever the move history of a GoMoKuGameService changes, so the moves can be
+ * recorded, for example by a MoveLog. Listeners are called on the thread that made the move,
+ * after the game state has been updated.
+ */
+public interface MoveListener {
+
+    /**
+     * Called after a stone has been placed, by makeMove or by redoMove.
+     *
+     * @param game the game
+     * @param ply the number of the move, counting from 1; the game now has this many moves
+     * @param row the row index
+     * @param column the column index
+     * @param player the player who moved
+     */
+    void movePlayed(GoMoKuGameService game, int ply, int row, int column, char player);
+
+    /**
+     * Called after moves have been taken back, by undoMove or by reset.
+     *
+     * @param game the game
+     * @param moveCount the number of moves left in the game
+     */
+    void movesTakenBack(GoMoKuGameService game, int moveCount);
+}
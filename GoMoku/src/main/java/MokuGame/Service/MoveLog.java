@@ -0,0 +1,423 @@
+package MokuGame.Service;
+
+import MokuGame.Core.GoMokuBoard;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Writes the moves of attached games to the game log of a Database in the background, so a move
+ * costs a queue insert instead of a round trip to the server.
+ *
+ * Moves wait in a bounded queue. A single writer thread takes whatever has queued up, up to the batch
+ * size, and appends it in one transaction, so the log keeps the order the moves were made in and a busy
+ * server writes many moves per transaction. If the database falls behind until the queue is full, moves
+ * wait for room, which slows play down rather than losing moves or memory.
+ *
+ * A batch that fails is kept and tried again, waiting longer after each failure, before anything new is
+ * taken from the queue; while the database is down the queue fills and play waits for it. Only an error
+ * in the data itself, such as a constraint violation, is given up on: the batch is then written game by
+ * game, so only the entries of the game at fault are dropped and counted as failed. A retry after a
+ * commit that was lost in transit may write entries twice, which replay ignores.
+ *
+ * flush waits until everything queued so far has been written; close writes the rest and stops
+ * the writer. Once closed, a batch that still fails is dropped after a few more tries.
+ */
+public class MoveLog implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MoveLog.class);
+
+    /** Default number of moves that may wait to be written. */
+    public static final int DEFAULT_CAPACITY = 65_536;
+    /** Default most moves written per transaction. */
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    private static final long POLL_MILLIS = 100;
+    private static final long MIN_BACKOFF_MILLIS = 50;
+    private static final long MAX_BACKOFF_MILLIS = 5_000;
+    private static final int ATTEMPTS_AFTER_CLOSE = 3;
+
+    private final Database database;
+    private final BlockingQueue<MoveRecord> queue;
+    private final int batchSize;
+    private final Thread writer;
+    private volatile boolean closed;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final Object progress = new Object();
+    private long completed; // guarded by progress
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder waits = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private boolean abandoned; // writer thread only: closed and the database has stopped answering
+
+    /**
+     * Creates a log with the default capacity and batch size and starts its writer.
+     *
+     * @param database the database to write to, with initializeDatabase already called
+     */
+    public MoveLog(Database database) {
+        this(database, DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Creates a log and starts its writer.
+     *
+     * @param database the database to write to, with initializeDatabase already called
+     * @param capacity the number of moves that may wait to be written
+     * @param batchSize the most moves written per transaction
+     */
+    public MoveLog(Database database, int capacity, int batchSize) {
+        if (capacity < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Capacity and batch size must be positive");
+        }
+        this.database = database;
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.writer = Thread.ofPlatform().name("move-log-writer").daemon().start(this::writeLoop);
+    }
+
+    /**
+     * Starts logging a game: records its start, then every move played and taken back.
+     * Only moves are logged, so stones already on the board, as on a loaded board, are logged first as
+     * moves of their own, X and O taking turns, and the game's moves are numbered after them. That
+     * replays to the same position only if X and O have as many stones and neither has five in a row;
+     * other boards are logged without their stones. Call it while no other thread is using the game.
+     *
+     * @param gameId the ID to log the game under
+     * @param game the game
+     * @return the listener added to the game, which removeMoveListener takes to stop logging it
+     */
+    public MoveListener attach(String gameId, GoMoKuGameService game) {
+        GoMokuBoard board = game.getBoard();
+        long time = System.currentTimeMillis();
+        enqueue(MoveRecord.start(gameId, board.getRows(), board.getColumns(), time));
+        int setup = board.getStoneCount() == 0 ? 0 : logStones(gameId, board, time);
+        int start = setup == 0 ? 0 : setup - game.getMoveCount();
+        MoveListener listener = new MoveListener() {
+            private int offset = start; // moves from now on are numbered after the stones logged above
+
+            @Override
+            public void movePlayed(GoMoKuGameService game, int ply, int row, int column, char player) {
+                enqueue(MoveRecord.move(gameId, offset + ply, row, column, player, System.currentTimeMillis()));
+            }
+
+            @Override
+            public void movesTakenBack(GoMoKuGameService game, int moveCount) {
+                if (game.getBoard().getStoneCount() == 0) {
+                    offset = 0; // reset cleared the starting stones as well
+                }
+                enqueue(MoveRecord.takeBack(gameId, offset + moveCount, System.currentTimeMillis()));
+            }
+        };
+        game.addMoveListener(listener);
+        return listener;
+    }
+
+    /**
+     * Logs the stones on a board as the first moves of its game, X and O taking turns.
+     *
+     * @return the number of moves logged, 0 if the stones could not have been played in turn
+     */
+    private int logStones(String gameId, GoMokuBoard board, long time) {
+        int stones = board.getStoneCount(GoMokuBoard.Player1);
+        if (stones != board.getStoneCount(GoMokuBoard.Player2)) {
+            logger.warn("Game '{}' starts with {} X and {} O stones, logging its moves without them", gameId,
+                stones, board.getStoneCount(GoMokuBoard.Player2));
+            return 0;
+        }
+        int[] x = new int[stones];
+        int[] o = new int[stones];
+        int xCount = 0;
+        int oCount = 0;
+        for (int row = 0; row < board.getRows(); row++) {
+            for (int column = 0; column < board.getColumns(); column++) {
+                char cell = board.getCell(row, column);
+                if (cell == GoMokuBoard.Empty) {
+                    continue;
+                }
+                if (GoMoKuGameService.isWinningMove(board, row, column)) {
+                    logger.warn("Game '{}' starts with five in a row, logging its moves without its stones", gameId);
+                    return 0;
+                }
+                if (cell == GoMokuBoard.Player1) {
+                    x[xCount++] = board.cellIndex(row, column);
+                } else {
+                    o[oCount++] = board.cellIndex(row, column);
+                }
+            }
+        }
+        for (int i = 0; i < stones; i++) {
+            enqueue(MoveRecord.move(gameId, 2 * i + 1, board.rowOf(x[i]), board.columnOf(x[i]),
+                GoMokuBoard.Player1, time));
+            enqueue(MoveRecord.move(gameId, 2 * i + 2, board.rowOf(o[i]), board.columnOf(o[i]),
+                GoMokuBoard.Player2, time));
+        }
+        return 2 * stones;
+    }
+
+    /**
+     * Queues an entry to be written, waiting for room if the queue is full.
+     *
+     * @param record the entry
+     */
+    public void enqueue(MoveRecord record) {
+        if (closed) {
+            logger.warn("Move log is closed, dropping {}", record);
+            failed.increment();
+            return;
+        }
+        enqueued.incrementAndGet();
+        if (!queue.offer(record)) {
+            waits.increment();
+            try {
+                queue.put(record);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.warn("Interrupted while queueing {}, dropping it", record);
+                failed.increment();
+                finished(1);
+                return;
+            }
+        }
+        // close may have run since the check above, after the writer and close took their last look at
+        // the queue; whichever of this and close's final drain removes the record accounts for it
+        if (closed && queue.remove(record)) {
+            logger.warn("Move log is closed, dropping {}", record);
+            failed.increment();
+            finished(1);
+        }
+    }
+
+    /**
+     * Waits until every entry queued before the call has been written or has failed.
+     *
+     * @param timeoutMillis the longest time to wait
+     * @return true if they were all handled, false if the time ran out
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public boolean flush(long timeoutMillis) throws InterruptedException {
+        long target = enqueued.get();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        synchronized (progress) {
+            while (completed < target) {
+                long left = deadline - System.nanoTime();
+                if (left <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(progress, left);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes what is still queued and stops the writer. Moves made afterwards are dropped.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        List<MoveRecord> late = new ArrayList<>();
+        queue.drainTo(late); // queued while the writer was finishing
+        if (!late.isEmpty()) {
+            logger.warn("Move log is closed, dropping {} entries", late.size());
+            failed.add(late.size());
+            finished(late.size());
+        }
+        logger.info("Move log closed: {}", this);
+    }
+
+    /**
+     * Gets the number of entries written to the database.
+     *
+     * @return the written count
+     */
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    /**
+     * Gets the number of entries that were dropped because the database rejected them or the log was closed.
+     *
+     * @return the failed count
+     */
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    /**
+     * Gets the number of entries waiting to be written.
+     *
+     * @return the queue length
+     */
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    /**
+     * Gets the number of appendMoves calls made.
+     *
+     * @return the batch count
+     */
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    /**
+     * Gets the number of times a write was tried again after a failure.
+     *
+     * @return the retry count
+     */
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    /**
+     * Gets the number of times a move had to wait because the queue was full.
+     *
+     * @return the wait count
+     */
+    public long getWaitCount() {
+        return waits.sum();
+    }
+
+    @Override
+    public String toString() {
+        long batchCount = getBatchCount();
+        return String.format("written=%d failed=%d pending=%d batches=%d avgBatch=%.1f retries=%d waits=%d",
+            getWrittenCount(), getFailedCount(), getPendingCount(), batchCount,
+            batchCount == 0 ? 0.0 : (getWrittenCount() + getFailedCount()) / (double) batchCount,
+            getRetryCount(), getWaitCount());
+    }
+
+    private void writeLoop() {
+        List<MoveRecord> batch = new ArrayList<>(batchSize);
+        while (true) {
+            MoveRecord first;
+            try {
+                first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                first = null; // only close stops the writer
+            }
+            if (first == null) {
+                if (closed && queue.isEmpty()) {
+                    return;
+                }
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, batchSize - 1);
+            batches.increment();
+            write(batch);
+            finished(batch.size());
+            batch.clear();
+        }
+    }
+
+    /**
+     * Writes a batch, retrying as long as the failures look transient. If the data is at fault,
+     * writes each game's entries on their own and drops only those that fail again.
+     */
+    private void write(List<MoveRecord> batch) {
+        SQLException error = append(batch);
+        if (error == null) {
+            written.add(batch.size());
+            return;
+        }
+        Map<String, List<MoveRecord>> games = new LinkedHashMap<>();
+        for (MoveRecord record : batch) {
+            games.computeIfAbsent(record.getGameId(), id -> new ArrayList<>()).add(record);
+        }
+        if (games.size() > 1) {
+            for (Map.Entry<String, List<MoveRecord>> game : games.entrySet()) {
+                List<MoveRecord> entries = game.getValue();
+                SQLException gameError = append(entries);
+                if (gameError == null) {
+                    written.add(entries.size());
+                } else {
+                    failed.add(entries.size());
+                    logger.error("Dropping {} entries of game '{}'", entries.size(), game.getKey(), gameError);
+                }
+            }
+        } else {
+            failed.add(batch.size());
+            logger.error("Dropping {} entries of game '{}'", batch.size(), batch.get(0).getGameId(), error);
+        }
+    }
+
+    /**
+     * Appends entries in one transaction, waiting and trying again while the error is transient.
+     *
+     * @return null if the entries were written, otherwise the error that made it give up
+     */
+    private SQLException append(List<MoveRecord> records) {
+        long backoff = MIN_BACKOFF_MILLIS;
+        int attemptsAfterClose = 0;
+        while (true) {
+            try {
+                database.insertMoves(records);
+                return null;
+            } catch (SQLException e) {
+                if (!isTransient(e)) {
+                    return e;
+                }
+                if (closed && (abandoned || ++attemptsAfterClose >= ATTEMPTS_AFTER_CLOSE)) {
+                    abandoned = true; // the rest of the queue gets one try each, so close does not hang
+                    return e;
+                }
+                retries.increment();
+                logger.warn("Writing {} log entries failed, trying again in {} ms: {}", records.size(), backoff,
+                    e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    // only close stops the writer
+                }
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+            }
+        }
+    }
+
+    /**
+     * Tells errors that may go away, such as a lost connection or a timeout, from errors in the SQL or
+     * the data, which would fail again: classes 0A, 21, 22, 23, 42 and 44 of the SQLState.
+     */
+    static boolean isTransient(SQLException e) {
+        String state = e.getSQLState();
+        if (state == null || state.length() < 2) {
+            return true;
+        }
+        return switch (state.substring(0, 2)) {
+            case "0A", "21", "22", "23", "42", "44" -> false;
+            default -> true;
+        };
+    }
+
+    private void finished(int count) {
+        synchronized (progress) {
+            completed += count;
+            progress.notifyAll();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package MokuGame.Service;
+
+/**
+ * One entry of the game log kept by Database: the start of a game, a move, or a take-back.
+ * The log only ever grows; a take-back does not remove the moves it takes back, it records the
+ * number of moves left, and the moves after that are replaced by whatever is played next.
+ */
+public final class MoveRecord {
+
+    /** A game started; row and column hold the size of its board. */
+    public static final int START = 0;
+    /** A stone was placed. */
+    public static final int MOVE = 1;
+    /** Moves were taken back; ply holds the number of moves left. */
+    public static final int TAKE_BACK = 2;
+
+    private final int kind;
+    private final String gameId;
+    private final int ply;
+    private final int row;
+    private final int column;
+    private final char player;
+    private final long time;
+
+    private MoveRecord(int kind, String gameId, int ply, int row, int column, char player, long time) {
+        this.kind = kind;
+        this.gameId = gameId;
+        this.ply = ply;
+        this.row = row;
+        this.column = column;
+        this.player = player;
+        this.time = time;
+    }
+
+    /**
+     * Creates the record of a game's start.
+     *
+     * @param gameId the game ID
+     * @param rows the number of rows of the board
+     * @param columns the number of columns of the board
+     * @param time when the game started, in milliseconds since the epoch
+     * @return the record
+     */
+    public static MoveRecord start(String gameId, int rows, int columns, long time) {
+        return new MoveRecord(START, gameId, 0, rows, columns, ' ', time);
+    }
+
+    /**
+     * Creates the record of a move.
+     *
+     * @param gameId the game ID
+     * @param ply the number of the move, counting from 1
+     * @param row the row index
+     * @param column the column index
+     * @param player the player who moved
+     * @param time when the move was made, in milliseconds since the epoch
+     * @return the record
+     */
+    public static MoveRecord move(String gameId, int ply, int row, int column, char player, long time) {
+        return new MoveRecord(MOVE, gameId, ply, row, column, player, time);
+    }
+
+    /**
+     * Creates the record of a take-back.
+     *
+     * @param gameId the game ID
+     * @param moveCount the number of moves left in the game
+     * @param time when the moves were taken back, in milliseconds since the epoch
+     * @return the record
+     */
+    public static MoveRecord takeBack(String gameId, int moveCount, long time) {
+        return new MoveRecord(TAKE_BACK, gameId, moveCount, -1, -1, ' ', time);
+    }
+
+    /**
+     * Gets the kind of record.
+     *
+     * @return START, MOVE or TAKE_BACK
+     */
+    public int getKind() {
+        return kind;
+    }
+
+    /**
+     * Gets the game ID.
+     *
+     * @return the game ID
+     */
+    public String getGameId() {
+        return gameId;
+    }
+
+    /**
+     * Gets the number of the move, or for a take-back the number of moves left.
+     *
+     * @return the ply
+     */
+    public int getPly() {
+        return ply;
+    }
+
+    /**
+     * Gets the row of the move, or for a start the number of rows.
+     *
+     * @return the row
+     */
+    public int getRow() {
+        return row;
+    }
+
+    /**
+     * Gets the column of the move, or for a start the number of columns.
+     *
+     * @return the column
+     */
+    public int getColumn() {
+        return column;
+    }
+
+    /**
+     * Gets the player who moved.
+     *
+     * @return the player, or a space if the record is not a move
+     */
+    public char getPlayer() {
+        return player;
+    }
+
+    /**
+     * Gets when it happened.
+     *
+     * @return the time in milliseconds since the epoch
+     */
+    public long getTime() {
+        return time;
+    }
+
+    @Override
+    public String toString() {
+        return switch (kind) {
+            case START -> "start " + gameId + " " + row + "x" + column;
+            case MOVE -> "move " + gameId + " " + ply + " " + player + " (" + row + ", " + column + ")";
+            default -> "take back " + gameId + " to " + ply;
+        };
+    }
+}
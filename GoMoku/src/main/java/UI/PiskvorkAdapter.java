@@ -0,0 +1,365 @@
+package UI;
+
+import MokuGame.Computer.MoveSelector;
+import MokuGame.Computer.SearchEngine;
+import MokuGame.Computer.computerPlayer;
+import MokuGame.Core.GoMokuBoard;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Locale;
+
+/**
+ * Speaks the Gomocup (Piskvork) brain protocol over text streams, so tournament managers can
+ * run this project's engines. The manager sends one command per line (START, TURN, BEGIN, BOARD,
+ * INFO, END and so on) and the adapter answers with OK, a move as "x,y", or ERROR, UNKNOWN,
+ * MESSAGE and DEBUG lines. Coordinates are zero-based, x the column and y the row.
+ *
+ * Time: every move gets the smaller of the turn timeout and the time left in the match spread over
+ * MOVES_TO_PLAN more moves, minus a safety margin, as the engine's hard limit. A turn timeout of 0
+ * means play as fast as possible. The match time is taken from INFO time_left, or counted here if
+ * the manager does not send it.
+ *
+ * Memory: the transposition table is sized from INFO max_memory, leaving room for the rest of
+ * the JVM. The heap itself is set by the launcher's -Xmx, which should not exceed the limit either.
+ *
+ * Rules: the engines play freestyle, where five or more in a row wins. INFO rule with the exact-five,
+ * renju or caro bit set is answered with ERROR, since the engine would aim for lines those rules
+ * do not count as wins.
+ */
+public class PiskvorkAdapter {
+
+    /** Turn time used until the manager sends INFO timeout_turn. */
+    public static final long DEFAULT_TURN_MILLIS = 5_000;
+    /** Fewest milliseconds a move is given, when the manager asks for speed or time is short. */
+    public static final long MIN_TURN_MILLIS = 20;
+    /** Number of moves the time left in the match is spread over. */
+    public static final int MOVES_TO_PLAN = 15;
+    /** Time kept back from every move for reading, writing and garbage collection. */
+    public static final long SAFETY_MILLIS = 30;
+    /** Memory kept back from max_memory for everything but the transposition table. */
+    public static final long RESERVED_MEMORY_BYTES = 64L << 20;
+    /** Search depth limit; in practice the time limit ends the search first. */
+    public static final int MAX_SEARCH_DEPTH = 20;
+    /** Time spent searching a scratch position at START, so the first real move runs compiled code. */
+    public static final long WARMUP_MILLIS = 200;
+    /** Largest board the protocol allows. */
+    public static final int MAX_SIZE = 100;
+    /** INFO rule bits the engines can follow: only continuous game, which changes nothing for a move. */
+    public static final int SUPPORTED_RULES = 2;
+
+    private static final long MAX_HASH_MB = 1024;
+
+    private final String engineSpec;
+    private final int searchDepth;
+    private GoMokuBoard board;
+    private MoveSelector engine;
+    private int engineHashMb = -1;
+
+    private long turnMillis = DEFAULT_TURN_MILLIS;
+    private long matchMillis;
+    private long timeLeftMillis = -1;
+    private long usedMillis;
+    private long maxMemoryBytes;
+
+    // BOARD command in progress: own and opponent stones as cell indices
+    private boolean readingBoard;
+    private int[] boardOwn;
+    private int[] boardTheirs;
+    private int ownCount;
+    private int theirCount;
+    private boolean quit;
+
+    /**
+     * Creates an adapter.
+     *
+     * @param engineSpec "search" for the search engine, "search:depth" to fix its depth limit,
+     *                   or "random" for the random computerPlayer
+     * @throws IllegalArgumentException if the engine is unknown or the depth is not a number
+     *                                  from 1 to SearchEngine.MAX_DEPTH
+     */
+    public PiskvorkAdapter(String engineSpec) {
+        if (!engineSpec.equals("random") && !engineSpec.equals("search") && !engineSpec.startsWith("search:")) {
+            throw new IllegalArgumentException("Unknown engine: " + engineSpec);
+        }
+        this.engineSpec = engineSpec;
+        this.searchDepth = engineSpec.startsWith("search:")
+            ? parseDepth(engineSpec.substring("search:".length())) : MAX_SEARCH_DEPTH;
+    }
+
+    /**
+     * Answers commands until END or the end of the input.
+     *
+     * @param in the manager's commands
+     * @param out the replies, flushed after every line
+     * @throws IOException if the input cannot be read
+     */
+    public void run(BufferedReader in, PrintStream out) throws IOException {
+        String line;
+        while (!quit && (line = in.readLine()) != null) {
+            String reply = handle(line);
+            if (reply != null) {
+                out.print(reply);
+                out.print('\n');
+                out.flush();
+            }
+        }
+        close();
+    }
+
+    /**
+     * Handles one input line.
+     *
+     * @param line the line from the manager
+     * @return the reply, or null if the command has none
+     */
+    String handle(String line) {
+        line = line.trim();
+        if (readingBoard) {
+            return boardLine(line);
+        }
+        if (line.isEmpty()) {
+            return null;
+        }
+        int space = line.indexOf(' ');
+        String command = (space < 0 ? line : line.substring(0, space)).toUpperCase(Locale.ROOT);
+        String argument = space < 0 ? "" : line.substring(space + 1).trim();
+        try {
+            return switch (command) {
+                case "START" -> start(Integer.parseInt(argument), Integer.parseInt(argument));
+                case "RECTSTART" -> {
+                    int[] size = parsePair(argument);
+                    yield start(size[1], size[0]);
+                }
+                case "RESTART" -> board == null ? "ERROR no board" : start(board.getRows(), board.getColumns());
+                case "INFO" -> info(argument);
+                case "BEGIN" -> board == null ? "ERROR no board" : play();
+                case "TURN" -> turn(argument);
+                case "BOARD" -> beginBoard();
+                case "TAKEBACK" -> takeBack(argument);
+                case "ABOUT" -> "name=\"GoMoku\", version=\"1.0\", country=\"unknown\"";
+                case "END" -> {
+                    quit = true;
+                    yield null;
+                }
+                default -> "UNKNOWN " + command;
+            };
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            return "ERROR cannot read \"" + line + "\"";
+        }
+    }
+
+    /**
+     * Stops the engine's threads.
+     */
+    void close() {
+        if (engine instanceof SearchEngine searchEngine) {
+            searchEngine.shutdown();
+        }
+    }
+
+    /**
+     * Gets the move time the next search will be given.
+     *
+     * @return the hard time limit in milliseconds
+     */
+    long turnBudget() {
+        long budget = turnMillis > 0 ? turnMillis : MIN_TURN_MILLIS;
+        long left = timeLeftMillis >= 0 ? timeLeftMillis : matchMillis > 0 ? matchMillis - usedMillis : -1;
+        if (left >= 0) {
+            budget = Math.min(budget, left / MOVES_TO_PLAN);
+        }
+        return Math.max(MIN_TURN_MILLIS, budget * 9 / 10 - SAFETY_MILLIS);
+    }
+
+    /**
+     * Gets the transposition table size max_memory allows.
+     *
+     * @return the size in megabytes
+     */
+    int hashMegabytes() {
+        if (maxMemoryBytes <= 0) {
+            return SearchEngine.DEFAULT_HASH_MB;
+        }
+        long spare = (maxMemoryBytes - RESERVED_MEMORY_BYTES) / 2; // the heap needs room to spare
+        return (int) Math.max(1, Math.min(MAX_HASH_MB, spare >> 20));
+    }
+
+    private String start(int rows, int columns) {
+        if (rows < 5 || columns < 5 || rows > MAX_SIZE || columns > MAX_SIZE) {
+            return "ERROR unsupported size " + columns + "x" + rows;
+        }
+        board = new GoMokuBoard(rows, columns);
+        usedMillis = 0;
+        timeLeftMillis = -1;
+        prepareEngine();
+        if (engine instanceof SearchEngine searchEngine) {
+            GoMokuBoard scratch = new GoMokuBoard(rows, columns);
+            scratch.setCell(rows / 2, columns / 2, GoMokuBoard.Player1);
+            scratch.setCell(rows / 2, columns / 2 + 1, GoMokuBoard.Player2);
+            scratch.setCell(rows / 2 + 1, columns / 2 + 1, GoMokuBoard.Player1);
+            searchEngine.setTimeLimit(WARMUP_MILLIS);
+            searchEngine.selectMove(scratch);
+            searchEngine.getTranspositionTable().clear();
+        }
+        return "OK";
+    }
+
+    private String info(String argument) {
+        int space = argument.indexOf(' ');
+        if (space < 0) {
+            return null;
+        }
+        String key = argument.substring(0, space).toLowerCase(Locale.ROOT);
+        String value = argument.substring(space + 1).trim();
+        switch (key) {
+            case "timeout_turn" -> turnMillis = Long.parseLong(value);
+            case "timeout_match" -> matchMillis = Long.parseLong(value);
+            case "time_left" -> timeLeftMillis = Long.parseLong(value);
+            case "max_memory" -> maxMemoryBytes = Long.parseLong(value);
+            case "rule" -> {
+                int rule = Integer.parseInt(value);
+                if ((rule & ~SUPPORTED_RULES) != 0) {
+                    return "ERROR rule " + rule + " is not supported, only freestyle: five or more in a row wins";
+                }
+            }
+            default -> {
+                // game_type, evaluate and folder do not change how the engine plays
+            }
+        }
+        return null;
+    }
+
+    private String turn(String argument) {
+        if (board == null) {
+            return "ERROR no board";
+        }
+        int[] move = parsePair(argument);
+        if (!board.isValidPosition(move[1], move[0]) || !board.isEmpty(move[1], move[0])) {
+            return "ERROR invalid move " + argument;
+        }
+        board.setCell(move[1], move[0], SearchEngine.sideToMove(board));
+        return play();
+    }
+
+    private String beginBoard() {
+        if (board == null) {
+            return "ERROR no board";
+        }
+        readingBoard = true;
+        int cells = board.getRows() * board.getColumns();
+        boardOwn = new int[cells];
+        boardTheirs = new int[cells];
+        ownCount = 0;
+        theirCount = 0;
+        return null;
+    }
+
+    private String boardLine(String line) {
+        if (line.equalsIgnoreCase("DONE")) {
+            readingBoard = false;
+            board.clear();
+            // the side to move is found from the stone counts, so we are X when they are even
+            char own = ownCount == theirCount ? GoMokuBoard.Player1 : GoMokuBoard.Player2;
+            char theirs = own == GoMokuBoard.Player1 ? GoMokuBoard.Player2 : GoMokuBoard.Player1;
+            for (int i = 0; i < ownCount; i++) {
+                board.setCell(board.rowOf(boardOwn[i]), board.columnOf(boardOwn[i]), own);
+            }
+            for (int i = 0; i < theirCount; i++) {
+                board.setCell(board.rowOf(boardTheirs[i]), board.columnOf(boardTheirs[i]), theirs);
+            }
+            return play();
+        }
+        String[] fields = line.split(",");
+        try {
+            int x = Integer.parseInt(fields[0].trim());
+            int y = Integer.parseInt(fields[1].trim());
+            int who = Integer.parseInt(fields[2].trim());
+            if (board.isValidPosition(y, x)) {
+                if (who == 1 && ownCount < boardOwn.length) {
+                    boardOwn[ownCount++] = board.cellIndex(y, x);
+                } else if (who == 2 && theirCount < boardTheirs.length) {
+                    boardTheirs[theirCount++] = board.cellIndex(y, x);
+                }
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            return "DEBUG ignored board line \"" + line + "\"";
+        }
+        return null;
+    }
+
+    private String takeBack(String argument) {
+        if (board == null) {
+            return "ERROR no board";
+        }
+        int[] move = parsePair(argument);
+        if (!board.isValidPosition(move[1], move[0]) || board.isEmpty(move[1], move[0])) {
+            return "ERROR no stone at " + argument;
+        }
+        board.setCell(move[1], move[0], GoMokuBoard.Empty);
+        return "OK";
+    }
+
+    /**
+     * Chooses, plays and reports this side's move.
+     */
+    private String play() {
+        if (board.isFull()) {
+            return "ERROR board is full";
+        }
+        long start = System.nanoTime();
+        prepareEngine();
+        if (engine instanceof SearchEngine searchEngine) {
+            searchEngine.setTimeLimit(turnBudget());
+        }
+        char side = SearchEngine.sideToMove(board);
+        int[] move = engine.selectMove(board);
+        if (move == null) {
+            return "ERROR no move found";
+        }
+        board.setCell(move[0], move[1], side);
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        usedMillis += elapsed;
+        if (timeLeftMillis >= 0) {
+            timeLeftMillis = Math.max(0, timeLeftMillis - elapsed); // until the manager sends the next one
+        }
+        return move[1] + "," + move[0];
+    }
+
+    /**
+     * Makes the engine, or makes it again if max_memory asks for another table size.
+     */
+    private void prepareEngine() {
+        if (engineSpec.equals("random")) {
+            if (engine == null) {
+                engine = new computerPlayer();
+            }
+            return;
+        }
+        int hashMb = hashMegabytes();
+        if (engine == null || hashMb != engineHashMb) {
+            close();
+            engine = new SearchEngine(searchDepth, turnBudget(), hashMb);
+            engineHashMb = hashMb;
+        }
+    }
+
+    private static int parseDepth(String depth) {
+        try {
+            int value = Integer.parseInt(depth);
+            if (value >= 1 && value <= SearchEngine.MAX_DEPTH) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Search depth must be a number from 1 to " + SearchEngine.MAX_DEPTH
+            + ": " + depth);
+    }
+
+    private static int[] parsePair(String argument) {
+        String[] parts = argument.split(",");
+        return new int[]{Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim())};
+    }
+}
@@ -1,22 +1,47 @@
 package UI;
 
+import MokuGame.Computer.MoveSelector;
+import MokuGame.Computer.OpeningBook;
+import MokuGame.Computer.SearchEngine;
+import MokuGame.Computer.SearchResult;
 import MokuGame.Computer.computerPlayer;
 import MokuGame.Core.GoMokuBoard;
 import MokuGame.Service.GoMoKuGameService;
 import MokuGame.Service.Database;
+import MokuGame.Service.MoveListener;
+import MokuGame.Service.MoveLog;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Scanner;
+import java.util.UUID;
 
 public class goMoku_Interface {
 
+    private static final Path BOOK_FILE = Paths.get("gomoku.book");
+
     private final Scanner scanner = new Scanner(System.in);
     private GoMoKuGameService gameService;
     private final Database database = new Database();
-    private final computerPlayer ai = new computerPlayer();
+    private final MoveLog moveLog;
+    private MoveListener logged; // logs gameService's moves to the game log
+    private final computerPlayer randomPlayer = new computerPlayer();
+    private final SearchEngine searchEngine = new SearchEngine();
+    private MoveSelector ai = randomPlayer;
     private boolean playingAgainstComputer = false;
 
     public goMoku_Interface() {
         database.initializeDatabase(); // connects to PostgreSQL with password "alma"
+        moveLog = new MoveLog(database);
+        if (Files.isRegularFile(BOOK_FILE)) {
+            try {
+                searchEngine.setOpeningBook(OpeningBook.open(BOOK_FILE));
+            } catch (IOException e) {
+                System.out.println("Could not read the opening book: " + e.getMessage());
+            }
+        }
     }
 
     public void start() {
@@ -38,7 +63,12 @@ public class goMoku_Interface {
                 case "4" -> { if (gameService != null) editBoard(); else noBoardError(); }
                 case "5" -> { if (gameService != null) saveBoardToDatabase(); else noBoardError(); }
                 case "6" -> listSavedBoards();
-                case "7" -> { System.out.println("Thanks for playing! Goodbye!"); return; }
+                case "7" -> {
+                    System.out.println("Thanks for playing! Goodbye!");
+                    moveLog.close();
+                    database.close();
+                    return;
+                }
                 default -> System.out.println("Invalid choice! Please enter 1–7");
             }
         }
@@ -73,6 +103,7 @@ public class goMoku_Interface {
 
         GoMokuBoard board = new GoMokuBoard(size, size);
         gameService = new GoMoKuGameService(board);
+        logGame();
         playingAgainstComputer = false;
 
         System.out.println("New " + size + "x" + size + " board created!");
@@ -87,6 +118,7 @@ public class goMoku_Interface {
         GoMokuBoard loaded = database.loadBoard(name);
         if (loaded != null) {
             gameService = new GoMoKuGameService(loaded);
+            logGame();
             playingAgainstComputer = false;
             System.out.println("Board '" + name + "' loaded successfully!");
             System.out.println(loaded);
@@ -98,6 +130,10 @@ public class goMoku_Interface {
     private void playGame() {
         System.out.print("Play against Computer? (y/n): ");
         playingAgainstComputer = scanner.nextLine().trim().equalsIgnoreCase("y");
+        if (playingAgainstComputer) {
+            System.out.print("Computer level? (1 = random, 2 = search engine): ");
+            ai = scanner.nextLine().trim().equals("2") ? searchEngine : randomPlayer;
+        }
 
         while (!gameService.isGameOver()) {
             System.out.println(gameService.getBoard());
@@ -107,11 +143,18 @@ public class goMoku_Interface {
                 int[] move = ai.selectMove(gameService.getBoard());
                 if (move != null) {
                     gameService.makeMove(move[0], move[1]);
-                    System.out.println("Computer played: " + move[0] + " " + move[1]);
+                    System.out.println("Computer played: " + move[0] + " " + move[1] + searchSummary());
+                    if (ai == searchEngine && !gameService.isGameOver()) {
+                        searchEngine.startPondering(gameService.getBoard()); // think while the player types
+                    }
                 }
             } else {
-                System.out.print("Player " + gameService.getCurrentPlayer() + " → enter row col: ");
+                System.out.print("Player " + gameService.getCurrentPlayer() + " → enter row col (or undo/redo): ");
                 String[] parts = scanner.nextLine().trim().split("\\s+");
+                if (parts.length == 1 && (parts[0].equalsIgnoreCase("undo") || parts[0].equalsIgnoreCase("redo"))) {
+                    takeBack(parts[0].equalsIgnoreCase("undo"));
+                    continue;
+                }
                 if (parts.length != 2) {
                     System.out.println("Please enter two numbers (e.g 2 2)");
                     continue;
@@ -128,6 +171,7 @@ public class goMoku_Interface {
             }
         }
 
+        searchEngine.stopPondering();
         System.out.println(gameService.getBoard());
         char winner = gameService.getWinner();
         if (winner == 'X') {
@@ -144,12 +188,49 @@ public class goMoku_Interface {
         }
     }
 
+    // Depth, nodes, time and transposition table hit rate of the search engine's last move,
+    // empty for the random player; book moves and forced wins do not use the table
+    private String searchSummary() {
+        SearchResult result = searchEngine.getLastResult();
+        if (ai != searchEngine || result == null) {
+            return "";
+        }
+        String table = result.getDepth() == 0 ? ""
+            : ", table hits " + Math.round(searchEngine.getTranspositionTable().hitRate() * 100) + "%";
+        return " (depth " + result.getDepth() + ", " + result.getNodes() + " nodes, "
+            + result.getElapsedMillis() + " ms" + table + ")";
+    }
+
+    // Against the computer a turn is two moves, so the player gets their own move back too
+    private void takeBack(boolean undo) {
+        int moves = playingAgainstComputer ? 2 : 1;
+        boolean changed = false;
+        for (int i = 0; i < moves; i++) {
+            changed |= undo ? gameService.undoMove() : gameService.redoMove();
+        }
+        if (!changed) {
+            System.out.println(undo ? "Nothing to undo." : "Nothing to redo.");
+        }
+    }
+
+    // Every game goes to the move log, under a new ID, so it can be replayed and used for the opening book
+    private void logGame() {
+        logged = moveLog.attach(UUID.randomUUID().toString(), gameService);
+    }
+
     private void editBoard() {
         System.out.println("Edit Mode — type: row col X   or   row col O   or   row col .   (or 'done')");
+        boolean edited = false;
         while (true) {
             System.out.print("> ");
             String line = scanner.nextLine().trim();
-            if (line.equalsIgnoreCase("done")) break;
+            if (line.equalsIgnoreCase("done")) {
+                if (edited) { // the log only holds moves, so the edited position starts a new logged game
+                    gameService.removeMoveListener(logged);
+                    logGame();
+                }
+                break;
+            }
 
             String[] p = line.split("\\s+");
             if (p.length != 3) {
@@ -162,6 +243,7 @@ public class goMoku_Interface {
                 char stone = p[2].toUpperCase().charAt(0);
                 if (stone == 'X' || stone == 'O' || stone == '.') {
                     gameService.getBoard().setCell(r, c, stone);
+                    edited = true;
                     System.out.println(gameService.getBoard());
                 } else {
                     System.out.println("Use X, O, or . only");
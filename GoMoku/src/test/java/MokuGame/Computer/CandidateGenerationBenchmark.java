@@ -0,0 +1,144 @@
+package MokuGame.Computer;
+
+import MokuGame.Core.GoMokuBoard;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark comparing the full-scan move generator, every empty cell, with the CandidateSet
+ * neighbourhood generator. Each operation walks the whole game tree two plies deep from a small
+ * middle-game cluster, making and unmaking every move, so the CandidateSet pays for its updates.
+ * The nodes result is nodes per second. Running the main method also prints the branching factor:
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=MokuGame.Computer.CandidateGenerationBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class CandidateGenerationBenchmark {
+
+    private static final int DEPTH = 2;
+
+    @Param({"15", "19", "50"})
+    public int size;
+
+    @Param({"full", "neighborhood"})
+    public String generator;
+
+    private GoMokuBoard board;
+    private CandidateSet candidates;
+    private int[][] moves;
+    private long generated;
+    private long interior;
+
+    /**
+     * Node counter reported next to the walk throughput.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Nodes {
+        public long nodes;
+    }
+
+    @Setup
+    public void setUp() {
+        board = new GoMokuBoard(size, size);
+        int centre = size / 2;
+        int[][] stones = {
+            {0, 0}, {0, 1}, {1, 1}, {-1, -1}, {1, -1}, {2, 0}, {-1, 1}, {-2, 2}, {1, 0}, {1, 2}
+        };
+        for (int i = 0; i < stones.length; i++) {
+            board.setCell(centre + stones[i][0], centre + stones[i][1],
+                i % 2 == 0 ? GoMokuBoard.Player1 : GoMokuBoard.Player2);
+        }
+        candidates = generator.equals("neighborhood") ? new CandidateSet(board) : null;
+        moves = new int[DEPTH + 1][size * size];
+    }
+
+    @Benchmark
+    public long walk(Nodes counter) {
+        long nodes = walk(DEPTH, GoMokuBoard.Player1);
+        counter.nodes += nodes;
+        return nodes;
+    }
+
+    private long walk(int depth, char side) {
+        if (depth == 0) {
+            return 1;
+        }
+        int[] list = moves[depth];
+        int count = generate(list);
+        generated += count;
+        interior++;
+        long nodes = 1;
+        char next = side == GoMokuBoard.Player1 ? GoMokuBoard.Player2 : GoMokuBoard.Player1;
+        for (int i = 0; i < count; i++) {
+            int row = board.rowOf(list[i]);
+            int column = board.columnOf(list[i]);
+            board.setCell(row, column, side);
+            nodes += walk(depth - 1, next);
+            board.setCell(row, column, GoMokuBoard.Empty);
+        }
+        return nodes;
+    }
+
+    private int generate(int[] list) {
+        if (candidates != null) {
+            return candidates.copyTo(list);
+        }
+        int count = board.getEmptyCount();
+        for (int i = 0; i < count; i++) {
+            list[i] = board.getEmptyCell(i);
+        }
+        return count;
+    }
+
+    /**
+     * Measures the average number of moves generated per interior node of one walk.
+     *
+     * @param size the board size
+     * @param generator "full" or "neighborhood"
+     * @return the branching factor
+     */
+    static double branchingFactor(int size, String generator) {
+        CandidateGenerationBenchmark benchmark = new CandidateGenerationBenchmark();
+        benchmark.size = size;
+        benchmark.generator = generator;
+        benchmark.setUp();
+        benchmark.walk(DEPTH, GoMokuBoard.Player1);
+        return (double) benchmark.generated / benchmark.interior;
+    }
+
+    /**
+     * Runs the benchmark and prints branching factor and nodes per second for each board size.
+     *
+     * @param args not used
+     * @throws RunnerException if JMH fails
+     */
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(CandidateGenerationBenchmark.class.getSimpleName())
+            .jvmArgsAppend("-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+            .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        System.out.println("\nsize  generator     branching  nodes/s");
+        for (RunResult result : results) {
+            int size = Integer.parseInt(result.getParams().getParam("size"));
+            String generator = result.getParams().getParam("generator");
+            double nodesPerSecond = result.getSecondaryResults().get("nodes").getScore();
+            System.out.printf("%4d  %-12s  %9.1f  %,.0f%n",
+                size, generator, branchingFactor(size, generator), nodesPerSecond);
+        }
+    }
+}
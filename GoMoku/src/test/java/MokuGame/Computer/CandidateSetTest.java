@@ -0,0 +1,114 @@
+package MokuGame.Computer;
+
+import MokuGame.Core.BitBoard;
+import MokuGame.Core.GoMokuBoard;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test suite for the CandidateSet.
+ * Tests that the set always holds exactly the empty cells near a stone, through moves and undos.
+ */
+class CandidateSetTest {
+
+    @Test
+    @DisplayName("An empty board should have no candidates")
+    void testEmptyBoard() {
+        CandidateSet candidates = new CandidateSet(new GoMokuBoard(15, 15));
+        assertEquals(0, candidates.size());
+        assertEquals(CandidateSet.DEFAULT_RADIUS, candidates.getRadius());
+    }
+
+    @Test
+    @DisplayName("One stone should make the square around it candidates")
+    void testSingleStone() {
+        GoMokuBoard board = new GoMokuBoard(15, 15);
+        CandidateSet candidates = new CandidateSet(board, 1);
+        board.setCell(0, 0, 'X');
+        assertEquals(3, candidates.size(), "Corner stone has three neighbours");
+        board.setCell(7, 7, 'O');
+        assertEquals(11, candidates.size());
+        assertTrue(candidates.contains(board.cellIndex(6, 6)));
+        assertFalse(candidates.contains(board.cellIndex(7, 7)), "Stones are not candidates");
+        assertFalse(candidates.contains(board.cellIndex(5, 5)), "Out of radius");
+    }
+
+    @Test
+    @DisplayName("Set should match a brute-force scan through moves and undos")
+    void testMatchesBruteForce() {
+        for (int radius = 1; radius <= 3; radius++) {
+            GoMokuBoard board = new BitBoard(15, 15);
+            CandidateSet candidates = new CandidateSet(board, radius);
+            Random random = new Random(radius);
+            int[] played = new int[50];
+
+            for (int i = 0; i < played.length; i++) {
+                int cell = board.getEmptyCell(random.nextInt(board.getEmptyCount()));
+                played[i] = cell;
+                board.setCell(board.rowOf(cell), board.columnOf(cell), i % 2 == 0 ? 'X' : 'O');
+                assertMatches(board, candidates, radius);
+            }
+            for (int i = played.length - 1; i >= 0; i--) {
+                board.setCell(board.rowOf(played[i]), board.columnOf(played[i]), GoMokuBoard.Empty);
+                assertMatches(board, candidates, radius);
+            }
+            assertEquals(0, candidates.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Set should rebuild from an existing board and reset on clear")
+    void testAttachAndClear() {
+        GoMokuBoard board = new GoMokuBoard(9, 12);
+        board.setCell(4, 4, 'X');
+        board.setCell(4, 8, 'O');
+        board.setCell(8, 11, 'X');
+        CandidateSet candidates = new CandidateSet(board);
+        assertMatches(board, candidates, CandidateSet.DEFAULT_RADIUS);
+
+        board.setCell(4, 8, 'X');
+        assertMatches(board, candidates, CandidateSet.DEFAULT_RADIUS);
+
+        board.clear();
+        assertEquals(0, candidates.size());
+        board.setCell(1, 1, 'O');
+        assertMatches(board, candidates, CandidateSet.DEFAULT_RADIUS);
+    }
+
+    @Test
+    @DisplayName("Radius below one should be rejected")
+    void testInvalidRadius() {
+        assertThrows(IllegalArgumentException.class, () -> new CandidateSet(new GoMokuBoard(15, 15), 0));
+    }
+
+    private static void assertMatches(GoMokuBoard board, CandidateSet candidates, int radius) {
+        int expected = 0;
+        for (int r = 0; r < board.getRows(); r++) {
+            for (int c = 0; c < board.getColumns(); c++) {
+                boolean near = board.isEmpty(r, c) && hasStoneWithin(board, r, c, radius);
+                assertEquals(near, candidates.contains(board.cellIndex(r, c)), "Cell (" + r + ", " + c + ")");
+                if (near) {
+                    expected++;
+                }
+            }
+        }
+        assertEquals(expected, candidates.size());
+        int[] copy = new int[board.getRows() * board.getColumns()];
+        assertEquals(expected, candidates.copyTo(copy));
+    }
+
+    private static boolean hasStoneWithin(GoMokuBoard board, int row, int column, int radius) {
+        for (int r = row - radius; r <= row + radius; r++) {
+            for (int c = column - radius; c <= column + radius; c++) {
+                if (board.isValidPosition(r, c) && !board.isEmpty(r, c)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
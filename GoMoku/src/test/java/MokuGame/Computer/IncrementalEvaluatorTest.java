@@ -0,0 +1,106 @@
+package MokuGame.Computer;
+
+import MokuGame.Core.BitBoard;
+import MokuGame.Core.GoMokuBoard;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test suite for the IncrementalEvaluator.
+ * Tests that the incrementally kept counts always match a full PatternEvaluator scan.
+ */
+class IncrementalEvaluatorTest {
+
+    private final PatternEvaluator full = new PatternEvaluator();
+
+    @Test
+    @DisplayName("Counts should match a full scan after every move")
+    void testMatchesFullScan() {
+        GoMokuBoard board = new GoMokuBoard(15, 15);
+        IncrementalEvaluator incremental = new IncrementalEvaluator(board);
+        Random random = new Random(7);
+
+        for (int i = 0; i < 120; i++) {
+            board.setCell(random.nextInt(15), random.nextInt(15), i % 2 == 0 ? 'X' : 'O');
+            assertMatches(board, incremental);
+        }
+    }
+
+    @Test
+    @DisplayName("Counts should match a full scan after moves are undone")
+    void testUndo() {
+        GoMokuBoard board = new BitBoard(15, 15);
+        IncrementalEvaluator incremental = new IncrementalEvaluator(board);
+        Random random = new Random(11);
+        int[] played = new int[60];
+
+        for (int i = 0; i < played.length; i++) {
+            int cell = board.getEmptyCell(random.nextInt(board.getEmptyCount()));
+            played[i] = cell;
+            board.setCell(board.rowOf(cell), board.columnOf(cell), i % 2 == 0 ? 'X' : 'O');
+        }
+        for (int i = played.length - 1; i >= 0; i--) {
+            board.setCell(board.rowOf(played[i]), board.columnOf(played[i]), GoMokuBoard.Empty);
+            assertMatches(board, incremental);
+        }
+        assertEquals(0, incremental.evaluate('X'));
+    }
+
+    @Test
+    @DisplayName("Counts should be right on boards that are not square")
+    void testRectangularBoard() {
+        GoMokuBoard board = new GoMokuBoard(7, 12);
+        Random random = new Random(3);
+        for (int i = 0; i < 20; i++) {
+            board.setCell(random.nextInt(7), random.nextInt(12), i % 2 == 0 ? 'X' : 'O');
+        }
+        IncrementalEvaluator incremental = new IncrementalEvaluator(board);
+        assertMatches(board, incremental);
+
+        for (int i = 0; i < 30; i++) {
+            board.setCell(random.nextInt(7), random.nextInt(12), i % 3 == 0 ? GoMokuBoard.Empty : 'X');
+            assertMatches(board, incremental);
+        }
+    }
+
+    @Test
+    @DisplayName("Evaluator should reset on clear and follow a new board after attach")
+    void testClearAndAttach() {
+        GoMokuBoard board = new GoMokuBoard(15, 15);
+        IncrementalEvaluator incremental = new IncrementalEvaluator(board);
+        board.setCell(7, 6, 'X');
+        board.setCell(7, 7, 'X');
+        board.setCell(7, 8, 'X');
+        assertEquals(1, incremental.getCount('X', PatternEvaluator.OPEN_THREE));
+
+        board.clear();
+        assertEquals(0, incremental.getCount('X', PatternEvaluator.OPEN_THREE));
+
+        GoMokuBoard other = new GoMokuBoard(15, 15);
+        other.setCell(3, 3, 'O');
+        other.setCell(4, 4, 'O');
+        incremental.attach(other);
+        assertEquals(1, incremental.getCount('O', PatternEvaluator.OPEN_TWO));
+
+        board.setCell(0, 0, 'X');
+        board.setCell(0, 1, 'X');
+        assertEquals(0, incremental.getCount('X', PatternEvaluator.TWO), "Old board should be ignored");
+        assertMatches(other, incremental);
+    }
+
+    private void assertMatches(GoMokuBoard board, IncrementalEvaluator incremental) {
+        int[] counts1 = new int[PatternEvaluator.PATTERN_COUNT];
+        int[] counts2 = new int[PatternEvaluator.PATTERN_COUNT];
+        full.countPatterns(board, counts1, counts2);
+        for (int p = 0; p < PatternEvaluator.PATTERN_COUNT; p++) {
+            assertEquals(counts1[p], incremental.getCount('X', p), "X pattern " + p);
+            assertEquals(counts2[p], incremental.getCount('O', p), "O pattern " + p);
+        }
+        assertEquals(full.evaluate(board, 'X'), incremental.evaluate('X'));
+        assertEquals(full.evaluate(board, 'O'), incremental.evaluate('O'));
+    }
+}
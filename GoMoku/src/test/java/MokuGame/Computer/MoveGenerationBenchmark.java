@@ -0,0 +1,66 @@
+package MokuGame.Computer;
+
+import MokuGame.Core.GoMokuBoard;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for computerPlayer move generation.
+ * Compares the buffer based generator with the old list of int[2] approach.
+ * Run it with the GC profiler and read gc.alloc.rate.norm, the bytes allocated per operation:
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args="MoveGenerationBenchmark -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGenerationBenchmark {
+
+    @Param({"15", "100"})
+    public int size;
+
+    private GoMokuBoard board;
+    private computerPlayer ai;
+
+    /**
+     * Places a few stones so the board is not trivially empty.
+     */
+    @Setup
+    public void setUp() {
+        board = new GoMokuBoard(size, size);
+        for (int i = 0; i < size; i += 2) {
+            board.setCell(i, (i * 3) % size, i % 4 == 0 ? GoMokuBoard.Player1 : GoMokuBoard.Player2);
+        }
+        ai = new computerPlayer();
+        ai.getAvailableMoves(board); // size the buffer once
+    }
+
+    @Benchmark
+    public int bufferMoveGeneration() {
+        return ai.getAvailableMoves(board);
+    }
+
+    @Benchmark
+    public int[] selectMove() {
+        return ai.selectMove(board);
+    }
+
+    @Benchmark
+    public List<int[]> listMoveGeneration() {
+        List<int[]> moves = new ArrayList<>();
+        for (int i = 0; i < board.getRows(); i++) {
+            for (int j = 0; j < board.getColumns(); j++) {
+                if (board.isEmpty(i, j)) {
+                    moves.add(new int[]{i, j});
+                }
+            }
+        }
+        return moves;
+    }
+}
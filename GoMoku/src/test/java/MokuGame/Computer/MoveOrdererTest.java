@@ -0,0 +1,113 @@
+package MokuGame.Computer;
+
+import MokuGame.Core.GoMokuBoard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test suite for the MoveOrderer.
+ * Tests the order of the stages and that disabled stages have no effect.
+ */
+class MoveOrdererTest {
+
+    private GoMokuBoard board;
+    private int win;
+    private int block;
+    private int threat;
+    private int quietA;
+    private int quietB;
+
+    /**
+     * Sets up a position where X, to move, can make five, must otherwise block O's five,
+     * and can make an open four.
+     */
+    @BeforeEach
+    void setUp() {
+        board = new GoMokuBoard(15, 15);
+        place('X', 2, 2, 2, 3, 2, 4, 2, 5);      // X four, wins at (2, 6)
+        place('O', 2, 1, 10, 2, 10, 3, 10, 4, 10, 5);  // O four along row 10, X blocks at (10, 6)
+        place('X', 6, 6, 6, 7, 6, 8);            // open three, (6, 9) makes an open four
+        win = board.cellIndex(2, 6);
+        block = board.cellIndex(10, 6);
+        threat = board.cellIndex(6, 9);
+        quietA = board.cellIndex(13, 13);
+        quietB = board.cellIndex(0, 14);
+    }
+
+    @Test
+    @DisplayName("Stages should order table move, win, block, threat, then the rest")
+    void testStageOrder() {
+        MoveOrderer orderer = new MoveOrderer(MoveOrderer.ALL_STAGES, 8, 225);
+        int[] list = {quietA, threat, block, win, quietB};
+        orderer.order(board, list, list.length, 0, quietB, 'X', 4);
+        assertArrayEquals(new int[]{quietB, win, block, threat, quietA}, list);
+    }
+
+    @Test
+    @DisplayName("No stages should keep the generated order")
+    void testNoStages() {
+        MoveOrderer orderer = new MoveOrderer(0, 8, 225);
+        int[] list = {quietA, threat, block, win, quietB};
+        orderer.order(board, list, list.length, 0, quietB, 'X', 4);
+        assertArrayEquals(new int[]{quietA, threat, block, win, quietB}, list);
+    }
+
+    @Test
+    @DisplayName("Killers should come after threats and before history moves")
+    void testKillersAndHistory() {
+        MoveOrderer orderer = new MoveOrderer(MoveOrderer.ALL_STAGES, 8, 225);
+        int historyMove = board.cellIndex(12, 0);
+        orderer.recordCutoff(5, historyMove, 3, 'X');
+        orderer.recordCutoff(3, quietB, 1, 'X');
+        orderer.recordCutoff(3, quietA, 1, 'X');
+
+        int[] list = {historyMove, quietB, threat, quietA};
+        orderer.order(board, list, list.length, 3, -1, 'X', 4);
+        assertArrayEquals(new int[]{threat, quietA, quietB, historyMove}, list,
+            "Newest killer first, then the older killer, then history");
+
+        orderer.clear();
+        list = new int[]{historyMove, quietB, quietA};
+        orderer.order(board, list, list.length, 3, -1, 'X', 4);
+        assertArrayEquals(new int[]{historyMove, quietB, quietA}, list, "Clear should forget killers and history");
+    }
+
+    @Test
+    @DisplayName("History should be kept per player")
+    void testHistoryPerPlayer() {
+        MoveOrderer orderer = new MoveOrderer(MoveOrderer.STAGE_HISTORY, 8, 225);
+        orderer.recordCutoff(1, quietB, 4, 'O');
+        int[] list = {quietA, quietB};
+        orderer.order(board, list, list.length, 2, -1, 'X', 4);
+        assertArrayEquals(new int[]{quietA, quietB}, list);
+        orderer.order(board, list, list.length, 2, -1, 'O', 4);
+        assertArrayEquals(new int[]{quietB, quietA}, list);
+    }
+
+    @Test
+    @DisplayName("Search should find the same forced moves with every stage combination")
+    void testSearchWithEachStage() {
+        GoMokuBoard position = new GoMokuBoard(15, 15);
+        position.setCell(3, 4, 'X');
+        position.setCell(4, 4, 'X');
+        position.setCell(5, 4, 'X');
+        position.setCell(6, 4, 'X');
+        position.setCell(2, 4, 'O');
+        position.setCell(10, 10, 'O');
+        position.setCell(11, 12, 'O');
+        for (int flags : MoveOrderingBenchmark.STAGE_FLAGS) {
+            SearchEngine engine = new SearchEngine(3, 0);
+            engine.setMoveOrdering(flags);
+            assertArrayEquals(new int[]{7, 4}, engine.selectMove(position), "Stages " + flags);
+        }
+    }
+
+    private void place(char player, int... coordinates) {
+        for (int i = 0; i < coordinates.length; i += 2) {
+            board.setCell(coordinates[i], coordinates[i + 1], player);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package MokuGame.Computer;
+
+import MokuGame.Core.GoMokuBoard;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for the MoveOrderer stages. Each operation searches a fixed set of positions
+ * from a cold transposition table, single-threaded, so the node counts are reproducible.
+ * The score is position sets per second and the nodes result is nodes per second; running the
+ * main method prints the node count of every stage combination without JMH:
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=MokuGame.Computer.MoveOrderingBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class MoveOrderingBenchmark {
+
+    /** Stage combinations, each adding one stage to the one before. */
+    static final String[] STAGE_NAMES = {"none", "table", "+wins", "+threats", "+killers", "+history"};
+    static final int[] STAGE_FLAGS = {
+        0,
+        MoveOrderer.STAGE_TABLE_MOVE,
+        MoveOrderer.STAGE_TABLE_MOVE | MoveOrderer.STAGE_WINS,
+        MoveOrderer.STAGE_TABLE_MOVE | MoveOrderer.STAGE_WINS | MoveOrderer.STAGE_THREATS,
+        MoveOrderer.ALL_STAGES & ~MoveOrderer.STAGE_HISTORY,
+        MoveOrderer.ALL_STAGES
+    };
+
+    /** Fixed test positions as alternating X, O stone lists. */
+    private static final int[][][] POSITIONS = {
+        {{7, 7}, {7, 8}, {8, 8}, {6, 6}, {8, 6}, {9, 7}, {6, 8}, {5, 9}, {8, 7}, {8, 9}},
+        {{7, 7}, {6, 7}, {7, 8}, {7, 6}, {8, 7}, {6, 8}, {8, 8}, {6, 6}},
+        {{7, 7}, {8, 8}, {6, 8}, {8, 6}, {5, 9}, {4, 10}, {7, 9}, {9, 7}, {6, 10}, {7, 11}, {5, 8}},
+        {{3, 3}, {3, 4}, {4, 4}, {5, 5}, {4, 3}, {4, 2}, {5, 3}, {6, 3}, {2, 2}, {6, 6}}
+    };
+
+    @Param({"none", "table", "+wins", "+threats", "+killers", "+history"})
+    public String stages;
+
+    @Param({"5"})
+    public int depth;
+
+    private GoMokuBoard[] boards;
+    private SearchEngine engine;
+
+    /**
+     * Node counter reported next to the search throughput.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Nodes {
+        public long nodes;
+    }
+
+    @Setup
+    public void setUp() {
+        boards = positions();
+        engine = engine(depth, flagsOf(stages));
+    }
+
+    @Benchmark
+    public long searchPositions(Nodes counter) {
+        long nodes = searchAll(engine, boards);
+        counter.nodes += nodes;
+        return nodes;
+    }
+
+    static GoMokuBoard[] positions() {
+        GoMokuBoard[] boards = new GoMokuBoard[POSITIONS.length];
+        for (int p = 0; p < POSITIONS.length; p++) {
+            boards[p] = new GoMokuBoard(15, 15);
+            for (int i = 0; i < POSITIONS[p].length; i++) {
+                boards[p].setCell(POSITIONS[p][i][0], POSITIONS[p][i][1],
+                    i % 2 == 0 ? GoMokuBoard.Player1 : GoMokuBoard.Player2);
+            }
+        }
+        return boards;
+    }
+
+    static SearchEngine engine(int depth, int flags) {
+        SearchEngine engine = new SearchEngine(depth, 0, 16);
+        engine.setMoveOrdering(flags);
+        engine.setThreatSolverEnabled(false); // measure the search alone
+        return engine;
+    }
+
+    static long searchAll(SearchEngine engine, GoMokuBoard[] boards) {
+        long nodes = 0;
+        for (GoMokuBoard board : boards) {
+            engine.getTranspositionTable().clear();
+            engine.selectMove(board);
+            nodes += engine.getLastNodes();
+        }
+        return nodes;
+    }
+
+    private static int flagsOf(String name) {
+        for (int i = 0; i < STAGE_NAMES.length; i++) {
+            if (STAGE_NAMES[i].equals(name)) {
+                return STAGE_FLAGS[i];
+            }
+        }
+        throw new IllegalArgumentException("Unknown stages " + name);
+    }
+
+    /**
+     * Prints the node count and time of every stage combination, one search per position.
+     *
+     * @param args optional search depth, 5 by default
+     */
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        GoMokuBoard[] boards = positions();
+        System.out.println("stages     nodes      ms");
+        for (int i = 0; i < STAGE_NAMES.length; i++) {
+            SearchEngine engine = engine(depth, STAGE_FLAGS[i]);
+            searchAll(engine, boards); // warm up
+            long start = System.nanoTime();
+            long nodes = searchAll(engine, boards);
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            System.out.printf("%-9s  %,9d  %6d%n", STAGE_NAMES[i], nodes, millis);
+        }
+    }
+}
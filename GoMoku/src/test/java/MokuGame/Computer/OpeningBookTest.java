@@ -0,0 +1,195 @@
+package MokuGame.Computer;
+
+import MokuGame.Core.GoMokuBoard;
+import MokuGame.Core.Symmetry;
+import MokuGame.Service.Database;
+import MokuGame.Service.MoveRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test suite for the OpeningBook and OpeningBookBuilder.
+ * Tests the file round trip, the weighting of moves, the handling of board symmetries and the games
+ * taken from a game log, which uses an in-memory H2 database.
+ */
+class OpeningBookTest {
+
+    @TempDir
+    Path directory;
+
+    private static final int[][] GAME = {{7, 7}, {6, 8}, {7, 8}, {6, 7}, {7, 9}};
+
+    private OpeningBook buildBook(int[][] game, char winner) throws IOException {
+        OpeningBookBuilder builder = new OpeningBookBuilder(15, 15, OpeningBookBuilder.DEFAULT_MAX_PLY);
+        builder.addGame(game, winner);
+        Path file = directory.resolve("test.book");
+        builder.write(file);
+        return OpeningBook.open(file);
+    }
+
+    @Test
+    @DisplayName("Book should answer the positions of the games it was built from")
+    void testRoundTrip() throws IOException {
+        OpeningBook book = buildBook(GAME, GoMokuBoard.Empty);
+        assertEquals(GAME.length, book.size());
+
+        GoMokuBoard board = new GoMokuBoard(15, 15);
+        char player = GoMokuBoard.Player1;
+        for (int[] move : GAME) {
+            assertArrayEquals(move, book.lookup(board));
+            board.setCell(move[0], move[1], player);
+            player = SearchEngine.opponent(player);
+        }
+        assertNull(book.lookup(board), "Past the end of the game");
+        assertNull(book.lookup(new GoMokuBoard(19, 19)), "Other board size");
+    }
+
+    @Test
+    @DisplayName("Only the winner's moves should be stored")
+    void testLoserMovesLeftOut() throws IOException {
+        OpeningBook book = buildBook(GAME, GoMokuBoard.Player1);
+        assertEquals(3, book.size());
+        GoMokuBoard board = new GoMokuBoard(15, 15);
+        board.setCell(7, 7, GoMokuBoard.Player1);
+        assertNull(book.lookup(board), "Player2 lost this game");
+    }
+
+    @Test
+    @DisplayName("Mirrored and rotated positions should find the mapped move")
+    void testSymmetries() throws IOException {
+        OpeningBook book = buildBook(GAME, GoMokuBoard.Empty);
+        for (int s = 0; s < Symmetry.COUNT; s++) {
+            GoMokuBoard board = new GoMokuBoard(15, 15);
+            for (int i = 0; i < 3; i++) {
+                int[] cell = Symmetry.map(s, GAME[i][0], GAME[i][1], 15, 15);
+                board.setCell(cell[0], cell[1], i % 2 == 0 ? GoMokuBoard.Player1 : GoMokuBoard.Player2);
+            }
+            int[] expected = Symmetry.map(s, GAME[3][0], GAME[3][1], 15, 15);
+            assertArrayEquals(expected, book.lookup(board), "Symmetry " + s);
+        }
+    }
+
+    @Test
+    @DisplayName("Heavier moves should be preferred and random picks should stay in the book")
+    void testWeights() throws IOException {
+        OpeningBookBuilder builder = new OpeningBookBuilder(15, 15, 1);
+        builder.addGame(new int[][]{{7, 7}}, GoMokuBoard.Player1);
+        builder.addGame(new int[][]{{6, 6}}, GoMokuBoard.Empty);
+        Path file = directory.resolve("weights.book");
+        builder.write(file);
+        OpeningBook book = OpeningBook.open(file);
+
+        GoMokuBoard board = new GoMokuBoard(15, 15);
+        assertArrayEquals(new int[]{7, 7}, book.lookup(board));
+        Random random = new Random(1);
+        for (int i = 0; i < 50; i++) {
+            int[] move = book.lookup(board, random);
+            // (6, 6) may come back as any of its symmetric cells
+            assertTrue(move[0] == 7 && move[1] == 7 || Math.abs(move[0] - 7) == 1 && Math.abs(move[1] - 7) == 1);
+        }
+    }
+
+    @Test
+    @DisplayName("A grown book should add the weights of the old one")
+    void testAddBook() throws IOException {
+        OpeningBook book = buildBook(GAME, GoMokuBoard.Empty);
+        OpeningBookBuilder builder = new OpeningBookBuilder(15, 15, OpeningBookBuilder.DEFAULT_MAX_PLY);
+        builder.addBook(book);
+        builder.addGame(GAME, GoMokuBoard.Empty);
+        Path file = directory.resolve("grown.book");
+        builder.write(file);
+        OpeningBook grown = OpeningBook.open(file);
+        assertEquals(book.size(), grown.size());
+        assertEquals(2 * OpeningBookBuilder.DRAW_POINTS, grown.weightAt(0));
+    }
+
+    @Test
+    @DisplayName("Logged games of the book's size should be added with the winner of their last move")
+    void testLoggedGames() throws IOException {
+        int[][] won = {{7, 3}, {8, 3}, {7, 4}, {8, 4}, {7, 5}, {8, 5}, {7, 6}, {8, 6}, {7, 7}};
+        List<MoveRecord> log = new ArrayList<>();
+        long time = System.currentTimeMillis();
+        log.add(MoveRecord.start("won", 15, 15, time));
+        log.add(MoveRecord.start("drawn", 15, 15, time));
+        log.add(MoveRecord.start("small", 9, 9, time));
+        for (int i = 0; i < won.length; i++) {
+            log.add(MoveRecord.move("won", i + 1, won[i][0], won[i][1], i % 2 == 0 ? 'X' : 'O', time));
+            log.add(MoveRecord.move("small", i + 1, won[i][0], won[i][1], i % 2 == 0 ? 'X' : 'O', time));
+        }
+        log.add(MoveRecord.move("drawn", 1, 0, 0, 'X', time));
+        log.add(MoveRecord.takeBack("drawn", 0, time));
+        for (int i = 0; i < GAME.length; i++) {
+            log.add(MoveRecord.move("drawn", i + 1, GAME[i][0], GAME[i][1], i % 2 == 0 ? 'X' : 'O', time));
+        }
+        OpeningBookBuilder logged = new OpeningBookBuilder(15, 15, OpeningBookBuilder.DEFAULT_MAX_PLY);
+        try (Database database = new Database("jdbc:h2:mem:book;MODE=PostgreSQL", "sa", "", 1, 1)) {
+            database.initializeDatabase();
+            assertTrue(database.appendMoves(log));
+            assertEquals(2, logged.addLoggedGames(database));
+        }
+        Path loggedFile = directory.resolve("logged.book");
+        logged.write(loggedFile);
+
+        OpeningBookBuilder direct = new OpeningBookBuilder(15, 15, OpeningBookBuilder.DEFAULT_MAX_PLY);
+        direct.addGame(won, GoMokuBoard.Player1);
+        direct.addGame(GAME, GoMokuBoard.Empty);
+        Path directFile = directory.resolve("direct.book");
+        direct.write(directFile);
+        assertEquals(-1, Files.mismatch(loggedFile, directFile));
+    }
+
+    @Test
+    @DisplayName("Growing a book in place should replace the file without disturbing an open copy")
+    void testRewriteInPlace() throws IOException {
+        OpeningBookBuilder first = new OpeningBookBuilder(15, 15, OpeningBookBuilder.DEFAULT_MAX_PLY);
+        first.addGame(GAME, GoMokuBoard.Empty);
+        Path file = directory.resolve("in-place.book");
+        first.write(file);
+        OpeningBook mapped = OpeningBook.open(file);
+        int weight = mapped.weightAt(0);
+
+        OpeningBookBuilder grown = new OpeningBookBuilder(15, 15, OpeningBookBuilder.DEFAULT_MAX_PLY);
+        grown.addBook(OpeningBook.read(file));
+        grown.addGame(GAME, GoMokuBoard.Empty);
+        grown.write(file);
+
+        assertEquals(weight, mapped.weightAt(0), "The old mapping still reads the old book");
+        assertEquals(2 * weight, OpeningBook.open(file).weightAt(0));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of(file), files.filter(path -> path.getFileName().toString().startsWith("in-place"))
+                .toList(), "No temporary file is left behind");
+        }
+    }
+
+    @Test
+    @DisplayName("Files that are not books should be rejected")
+    void testBadFile() throws IOException {
+        Path file = directory.resolve("bad.book");
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20});
+        assertThrows(IOException.class, () -> OpeningBook.open(file));
+    }
+
+    @Test
+    @DisplayName("Search engine should play the book move without searching")
+    void testEngineUsesBook() throws IOException {
+        SearchEngine engine = new SearchEngine(4, 0);
+        engine.setOpeningBook(buildBook(GAME, GoMokuBoard.Empty));
+        GoMokuBoard board = new GoMokuBoard(15, 15);
+        board.setCell(7, 7, GoMokuBoard.Player1);
+        SearchResult result = engine.search(board);
+        assertArrayEquals(GAME[1], result.getMove());
+        assertEquals(0, result.getNodes());
+        engine.shutdown();
+    }
+}
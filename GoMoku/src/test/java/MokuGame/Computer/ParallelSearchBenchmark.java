@@ -0,0 +1,99 @@
+package MokuGame.Computer;
+
+import MokuGame.Core.GoMokuBoard;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for Lazy SMP time-to-depth: how long a cold search to a fixed depth takes
+ * as the thread count grows. Running the main method benchmarks every power of two from 1
+ * up to the machine's core count, plus the core count itself, and prints the speedup over one thread:
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=MokuGame.Computer.ParallelSearchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParallelSearchBenchmark {
+
+    @Param({"1"})
+    public int threads;
+
+    @Param({"5"})
+    public int depth;
+
+    private GoMokuBoard board;
+    private SearchEngine engine;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        board = new GoMokuBoard(15, 15);
+        int[][] stones = {
+            {7, 7}, {7, 8}, {8, 8}, {6, 6}, {8, 6}, {9, 7}, {6, 8}, {5, 9}, {8, 7}, {8, 9}
+        };
+        for (int i = 0; i < stones.length; i++) {
+            board.setCell(stones[i][0], stones[i][1], i % 2 == 0 ? GoMokuBoard.Player1 : GoMokuBoard.Player2);
+        }
+        engine = new SearchEngine(depth, 0, 64, threads);
+    }
+
+    @Setup(Level.Iteration)
+    public void coldTable() {
+        engine.getTranspositionTable().clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        engine.shutdown();
+    }
+
+    @Benchmark
+    public int[] timeToDepth() {
+        return engine.selectMove(board);
+    }
+
+    /**
+     * Runs the benchmark for each thread count and prints the time-to-depth speedup.
+     *
+     * @param args not used
+     * @throws RunnerException if JMH fails
+     */
+    public static void main(String[] args) throws RunnerException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<String> counts = new ArrayList<>();
+        for (int t = 1; t < cores; t *= 2) {
+            counts.add(String.valueOf(t));
+        }
+        counts.add(String.valueOf(cores));
+
+        Options options = new OptionsBuilder()
+            .include(ParallelSearchBenchmark.class.getSimpleName())
+            .param("threads", counts.toArray(new String[0]))
+            .jvmArgsAppend("-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+            .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        double single = 0;
+        System.out.println("\nthreads  time-to-depth (ms)  speedup");
+        for (RunResult result : results) {
+            int threadCount = Integer.parseInt(result.getParams().getParam("threads"));
+            double millis = result.getPrimaryResult().getScore();
+            if (threadCount == 1) {
+                single = millis;
+            }
+            System.out.printf("%7d  %18.1f  %7.2f%n", threadCount, millis, single / millis);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package MokuGame.Computer;
+
+import MokuGame.Core.GoMokuBoard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test suite for the PatternEvaluator.
+ * Tests pattern recognition along lines and the sign of the evaluation.
+ */
+class PatternEvaluatorTest {
+
+    private PatternEvaluator evaluator;
+    private GoMokuBoard board;
+    private int[] counts1;
+    private int[] counts2;
+
+    /**
+     * Sets up an evaluator and an empty 15x15 board before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        evaluator = new PatternEvaluator();
+        board = new GoMokuBoard(15, 15);
+        counts1 = new int[PatternEvaluator.PATTERN_COUNT];
+        counts2 = new int[PatternEvaluator.PATTERN_COUNT];
+    }
+
+    @Test
+    @DisplayName("Empty board should have no patterns and score zero")
+    void testEmptyBoard() {
+        evaluator.countPatterns(board, counts1, counts2);
+        assertArrayEquals(new int[PatternEvaluator.PATTERN_COUNT], counts1);
+        assertEquals(0, evaluator.evaluate(board, 'X'));
+    }
+
+    @Test
+    @DisplayName("Open three should be found in a row")
+    void testOpenThree() {
+        place('X', 7, 5, 7, 6, 7, 7);
+        evaluator.countPatterns(board, counts1, counts2);
+        assertEquals(1, counts1[PatternEvaluator.OPEN_THREE]);
+        assertEquals(0, counts2[PatternEvaluator.OPEN_THREE]);
+    }
+
+    @Test
+    @DisplayName("Blocked three should count as a closed three")
+    void testClosedThree() {
+        place('X', 7, 5, 7, 6, 7, 7);
+        place('O', 7, 4);
+        evaluator.countPatterns(board, counts1, counts2);
+        assertEquals(0, counts1[PatternEvaluator.OPEN_THREE]);
+        assertEquals(1, counts1[PatternEvaluator.THREE]);
+    }
+
+    @Test
+    @DisplayName("Three with a gap should count as a broken three")
+    void testBrokenThree() {
+        place('X', 3, 3, 4, 4, 6, 6);
+        evaluator.countPatterns(board, counts1, counts2);
+        assertEquals(1, counts1[PatternEvaluator.BROKEN_THREE], "Diagonal X X . X should be a broken three");
+    }
+
+    @Test
+    @DisplayName("Fours should be told apart by their open ends and gaps")
+    void testFours() {
+        place('X', 2, 2, 3, 2, 4, 2, 5, 2);     // open four in a column
+        place('O', 10, 0, 10, 1, 10, 3, 10, 4); // broken four on the edge
+        evaluator.countPatterns(board, counts1, counts2);
+        assertEquals(1, counts1[PatternEvaluator.OPEN_FOUR]);
+        assertEquals(1, counts2[PatternEvaluator.FOUR]);
+    }
+
+    @Test
+    @DisplayName("Five should be detected on an anti-diagonal")
+    void testFive() {
+        place('O', 0, 14, 1, 13, 2, 12, 3, 11, 4, 10);
+        evaluator.countPatterns(board, counts1, counts2);
+        assertEquals(1, counts2[PatternEvaluator.FIVE]);
+        assertEquals(PatternEvaluator.WIN_SCORE, evaluator.evaluate(board, 'O'));
+        assertEquals(-PatternEvaluator.WIN_SCORE, evaluator.evaluate(board, 'X'));
+    }
+
+    @Test
+    @DisplayName("Evaluation should favour the side with the stronger shape")
+    void testEvaluationSign() {
+        place('X', 7, 6, 7, 7, 7, 8);
+        place('O', 0, 0, 14, 14);
+        assertTrue(evaluator.evaluate(board, 'X') > 0, "X has an open three");
+        assertTrue(evaluator.evaluate(board, 'O') < 0, "O faces an open three");
+    }
+
+    private void place(char player, int... coordinates) {
+        for (int i = 0; i < coordinates.length; i += 2) {
+            board.setCell(coordinates[i], coordinates[i + 1], player);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package MokuGame.Computer;
+
+import MokuGame.Core.GoMokuBoard;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for SearchEngine speed on a fixed middle-game position.
+ * Runs in throughput mode, so the search score is searches per second
+ * and the secondary nodes result is nodes per second.
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args="SearchBenchmark -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Param({"3", "4"})
+    public int depth;
+
+    private GoMokuBoard board;
+    private SearchEngine engine;
+
+    /**
+     * Node counter reported next to the search throughput.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Nodes {
+        public long nodes;
+    }
+
+    @Setup
+    public void setUp() {
+        board = new GoMokuBoard(15, 15);
+        int[][] stones = {
+            {7, 7}, {7, 8}, {8, 8}, {6, 6}, {8, 6}, {9, 7}, {6, 8}, {5, 9}, {8, 7}, {8, 9}
+        };
+        for (int i = 0; i < stones.length; i++) {
+            board.setCell(stones[i][0], stones[i][1], i % 2 == 0 ? GoMokuBoard.Player1 : GoMokuBoard.Player2);
+        }
+        engine = new SearchEngine(depth, 0, 4);
+    }
+
+    @Benchmark
+    public int[] search(Nodes counter) {
+        engine.getTranspositionTable().clear(); // every search starts cold
+        int[] move = engine.selectMove(board);
+        counter.nodes += engine.getLastNodes();
+        return move;
+    }
+}
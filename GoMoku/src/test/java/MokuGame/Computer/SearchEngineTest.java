@@ -0,0 +1,248 @@
+package MokuGame.Computer;
+
+import MokuGame.Core.GoMokuBoard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test suite for the alpha-beta SearchEngine.
+ * Tests that it finds wins, blocks threats and respects its limits.
+ */
+class SearchEngineTest {
+
+    private SearchEngine engine;
+    private GoMokuBoard board;
+
+    /**
+     * Sets up a depth 3 engine without a time limit and an empty board before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        engine = new SearchEngine(3, 0);
+        board = new GoMokuBoard(15, 15);
+    }
+
+    @Test
+    @DisplayName("Engine should open in the centre of an empty board")
+    void testOpeningMove() {
+        int[] move = engine.selectMove(board);
+        assertArrayEquals(new int[]{7, 7}, move);
+    }
+
+    @Test
+    @DisplayName("Engine should complete its own four")
+    void testCompletesFive() {
+        place('X', 7, 3, 7, 4, 7, 5, 7, 6);
+        place('O', 7, 2, 0, 0, 0, 14, 14, 0);
+
+        int[] move = engine.selectMove(board);
+        assertArrayEquals(new int[]{7, 7}, move, "X to move should win at (7, 7)");
+    }
+
+    @Test
+    @DisplayName("Engine should block the opponent's four")
+    void testBlocksFour() {
+        place('X', 3, 4, 4, 4, 5, 4, 6, 4);
+        place('O', 2, 4, 10, 10, 11, 12);
+
+        int[] move = engine.selectMove(board);
+        assertArrayEquals(new int[]{7, 4}, move, "O to move must block at (7, 4)");
+    }
+
+    @Test
+    @DisplayName("Engine should block an open three before it becomes an open four")
+    void testBlocksOpenThree() {
+        place('X', 7, 6, 7, 7, 7, 8);
+        place('O', 0, 0, 14, 14);
+
+        int[] move = engine.selectMove(board);
+        assertEquals(7, move[0], "O should answer on the row of the three");
+        assertTrue(move[1] == 4 || move[1] == 5 || move[1] == 9 || move[1] == 10,
+            "O should block next to the three, got column " + move[1]);
+    }
+
+    @Test
+    @DisplayName("Engine should return null on a full board")
+    void testFullBoard() {
+        GoMokuBoard small = new GoMokuBoard(2, 2);
+        place(small, 'X', 0, 0, 1, 1);
+        place(small, 'O', 0, 1, 1, 0);
+        assertNull(engine.selectMove(small));
+    }
+
+    @Test
+    @DisplayName("Engine should report depth and nodes")
+    void testReportsSearchStatistics() {
+        place('X', 7, 7);
+        engine.selectMove(board);
+        assertEquals(3, engine.getLastDepth());
+        assertTrue(engine.getLastNodes() > 0);
+    }
+
+    @Test
+    @DisplayName("Engine should return a legal move when the time budget runs out")
+    void testTimeLimit() {
+        SearchEngine quick = new SearchEngine(SearchEngine.MAX_DEPTH, 50);
+        quick.setSoftTimeLimit(0); // only the hard deadline, so it has to cut an iteration
+        place('X', 7, 7, 8, 8);
+        place('O', 7, 8);
+
+        long start = System.currentTimeMillis();
+        int[] move = quick.selectMove(board);
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertNotNull(move);
+        assertTrue(board.isEmpty(move[0], move[1]));
+        assertTrue(elapsed < 2000, "Search should stop close to its budget, took " + elapsed + " ms");
+        assertTrue(quick.getLastResult().isTimedOut());
+        assertTrue(quick.getLastDepth() >= 1, "At least the first iteration should finish");
+    }
+
+    @Test
+    @DisplayName("Search result should report the move, depth and nodes")
+    void testSearchResult() {
+        place('X', 7, 7, 8, 8);
+        place('O', 7, 8);
+        SearchResult result = engine.search(board);
+
+        assertNotNull(result);
+        assertTrue(board.isEmpty(result.getRow(), result.getColumn()));
+        assertArrayEquals(new int[]{result.getRow(), result.getColumn()}, result.getMove());
+        assertEquals(3, result.getDepth());
+        assertTrue(result.getNodes() > 0);
+        assertFalse(result.isTimedOut());
+        assertSame(result, engine.getLastResult());
+    }
+
+    @Test
+    @DisplayName("Engine should not start a new iteration after the soft deadline")
+    void testSoftDeadline() {
+        SearchEngine soft = new SearchEngine(SearchEngine.MAX_DEPTH, 0);
+        soft.setSoftTimeLimit(1);
+        place('X', 7, 7, 8, 8);
+        place('O', 7, 8);
+
+        SearchResult result = soft.search(board);
+        assertFalse(result.isTimedOut(), "Without a hard limit the running iteration should finish");
+        assertTrue(result.getDepth() >= 1 && result.getDepth() < SearchEngine.MAX_DEPTH);
+        assertTrue(board.isEmpty(result.getRow(), result.getColumn()));
+    }
+
+    @Test
+    @DisplayName("Engine should not change the board it was given")
+    void testLeavesBoardUntouched() {
+        place('X', 7, 7, 8, 8);
+        place('O', 7, 8);
+        String before = board.serialize();
+        engine.selectMove(board);
+        assertEquals(before, board.serialize());
+    }
+
+    @Test
+    @DisplayName("Parallel search should find the same forced moves")
+    void testParallelSearch() {
+        SearchEngine parallel = new SearchEngine(3, 0, 16, 4);
+        try {
+            place('X', 3, 4, 4, 4, 5, 4, 6, 4);
+            place('O', 2, 4, 10, 10, 11, 12);
+            assertArrayEquals(new int[]{7, 4}, parallel.selectMove(board), "O to move must block at (7, 4)");
+
+            board.setCell(7, 4, 'O');
+            board.setCell(12, 12, 'X');
+            int[] move = parallel.selectMove(board);
+            assertTrue(board.isEmpty(move[0], move[1]));
+            assertEquals(4, parallel.getThreads());
+            assertTrue(parallel.getLastNodes() > 0);
+        } finally {
+            parallel.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Pondering on the expected reply should warm the table for the next search")
+    void testPonderHit() throws InterruptedException {
+        SearchEngine pondering = new SearchEngine(4, 0);
+        try {
+            place('X', 7, 7, 8, 8, 6, 8);
+            place('O', 7, 8, 9, 9);
+            int[] move = pondering.selectMove(board);
+            board.setCell(move[0], move[1], 'O');
+
+            assertTrue(pondering.startPondering(board));
+            waitForPondering(pondering);
+            int reply = TranspositionTable.moveOf(pondering.getTranspositionTable().probe(board.getHash()));
+            board.setCell(board.rowOf(reply), board.columnOf(reply), 'X');
+
+            SearchResult warm = pondering.search(board);
+            SearchResult cold = new SearchEngine(4, 0).search(board);
+            assertEquals(1, pondering.getPonderHits());
+            assertEquals(4, warm.getDepth());
+            assertTrue(warm.getNodes() < cold.getNodes(),
+                "Warm search took " + warm.getNodes() + " nodes, cold " + cold.getNodes());
+        } finally {
+            pondering.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("A different reply should count as a ponder miss and still be searched")
+    void testPonderMiss() {
+        SearchEngine pondering = new SearchEngine(4, 0);
+        try {
+            place('X', 7, 7, 8, 8);
+            place('O', 7, 8);
+            pondering.startPondering(board);
+            board.setCell(0, 0, 'O');
+            board.setCell(14, 14, 'X');
+
+            SearchResult result = pondering.search(board);
+            assertEquals(1, pondering.getPonderMisses());
+            assertEquals(0, pondering.getPonderHits());
+            assertTrue(board.isEmpty(result.getRow(), result.getColumn()));
+            assertFalse(pondering.isPondering());
+        } finally {
+            pondering.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("stopPondering should end an unlimited background search")
+    void testStopPondering() {
+        SearchEngine pondering = new SearchEngine(SearchEngine.MAX_DEPTH, 0);
+        try {
+            place('X', 7, 7, 8, 8);
+            place('O', 7, 8, 6, 6);
+            assertTrue(pondering.startPondering(board));
+            assertTrue(pondering.isPondering());
+            String before = board.serialize();
+
+            long start = System.currentTimeMillis();
+            pondering.stopPondering();
+            assertFalse(pondering.isPondering());
+            assertTrue(System.currentTimeMillis() - start < 2000);
+            assertEquals(before, board.serialize(), "Pondering works on a copy");
+        } finally {
+            pondering.shutdown();
+        }
+    }
+
+    private static void waitForPondering(SearchEngine engine) throws InterruptedException {
+        for (int i = 0; i < 200 && engine.isPondering(); i++) {
+            Thread.sleep(50);
+        }
+        assertFalse(engine.isPondering(), "Pondering to depth 4 should finish");
+    }
+
+    private void place(char player, int... coordinates) {
+        place(board, player, coordinates);
+    }
+
+    private static void place(GoMokuBoard target, char player, int... coordinates) {
+        for (int i = 0; i < coordinates.length; i += 2) {
+            target.setCell(coordinates[i], coordinates[i + 1], player);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package MokuGame.Computer;
+
+import MokuGame.Core.GoMokuBoard;
+import MokuGame.Service.GoMoKuGameService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test suite for the ThreatSolver.
+ * Tests that forced wins are found, replay to five in a row, and that non-wins are reported as such,
+ * also through the ThreatAnalyzer.
+ */
+class ThreatSolverTest {
+
+    private ThreatSolver solver;
+    private GoMokuBoard board;
+
+    /**
+     * Sets up a solver with the default budget and an empty board before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        solver = new ThreatSolver();
+        board = new GoMokuBoard(15, 15);
+    }
+
+    @Test
+    @DisplayName("Solver should complete an existing four")
+    void testImmediateFive() {
+        place('X', 7, 3, 7, 4, 7, 5, 7, 6);
+        place('O', 7, 2);
+
+        ThreatSolver.Result result = solver.solveVcf(board, 'X');
+        assertTrue(result.isWin());
+        assertArrayEquals(new int[]{7, 7}, result.getFirstMove());
+        assertEquals(1, result.getSequence().length);
+    }
+
+    @Test
+    @DisplayName("Solver should find a win by continuous fours")
+    void testVcf() {
+        place('X', 7, 4, 7, 5, 7, 6, 4, 8, 5, 8, 6, 8);
+        place('O', 7, 3, 3, 8);
+
+        ThreatSolver.Result result = solver.solveVcf(board, 'X');
+        assertTrue(result.isWin());
+        assertReplaysToFive(result, 'X');
+    }
+
+    @Test
+    @DisplayName("Solver should report no forced win on a quiet board")
+    void testNoWin() {
+        place('X', 7, 7, 9, 9);
+        place('O', 7, 8, 8, 8);
+
+        ThreatSolver.Result vcf = solver.solveVcf(board, 'X');
+        ThreatSolver.Result vct = solver.solveVct(board, 'X');
+        assertFalse(vcf.isWin());
+        assertFalse(vct.isWin());
+        assertFalse(vct.isBudgetExhausted());
+        assertNull(vct.getFirstMove());
+    }
+
+    @Test
+    @DisplayName("Analyzer should report the side to move's forced win with its result")
+    void testAnalyzer() {
+        ThreatAnalyzer analyzer = new ThreatAnalyzer(solver);
+        place('X', 7, 3, 7, 4, 7, 5, 7, 6);
+        place('O', 7, 2, 0, 0, 0, 2, 14, 14);
+
+        ThreatAnalyzer.Analysis analysis = analyzer.analyze(board);
+        assertTrue(analysis.isWin());
+        assertArrayEquals(new int[]{7, 7}, analysis.getResult().getFirstMove());
+        assertTrue(analysis.getSummary().startsWith("X wins by VCF: (7,7)"), analysis.getSummary());
+
+        board.clear();
+        place('X', 7, 7, 9, 9);
+        place('O', 7, 8, 8, 8);
+        analysis = analyzer.analyze(board);
+        assertFalse(analysis.isWin());
+        assertTrue(analysis.getSummary().startsWith("X has no forced win"), analysis.getSummary());
+    }
+
+    @Test
+    @DisplayName("Solver should not ignore the defender's own four")
+    void testDefenderFour() {
+        place('X', 7, 4, 7, 5, 7, 6, 4, 8, 5, 8, 6, 8);
+        place('O', 7, 3, 3, 8, 12, 0, 12, 1, 12, 2, 12, 3);
+
+        assertFalse(solver.solveVcf(board, 'X').isWin(), "X has to block (12, 4) and that is not a four");
+    }
+
+    @Test
+    @DisplayName("Solver should find a double three by continuous threats")
+    void testVct() {
+        place('X', 7, 6, 7, 7, 5, 8, 6, 8);
+        place('O', 0, 0, 0, 14, 14, 0, 14, 14);
+
+        assertFalse(solver.solveVcf(board, 'X').isWin());
+        ThreatSolver.Result result = solver.solveVct(board, 'X');
+        assertTrue(result.isWin());
+        assertReplaysToFive(result, 'X');
+    }
+
+    @Test
+    @DisplayName("Solver should stop when the node budget runs out")
+    void testBudget() {
+        place('X', 7, 6, 7, 7, 5, 8, 6, 8);
+        place('O', 0, 0, 0, 14, 14, 0, 14, 14);
+
+        ThreatSolver.Result result = new ThreatSolver(1, 0).solveVct(board, 'X');
+        assertFalse(result.isWin());
+        assertTrue(result.isBudgetExhausted());
+    }
+
+    @Test
+    @DisplayName("Solver should not change the board it was given")
+    void testLeavesBoardUntouched() {
+        place('X', 7, 6, 7, 7, 5, 8, 6, 8);
+        place('O', 0, 0, 0, 14, 14, 0, 14, 14);
+        String before = board.serialize();
+        solver.solveVct(board, 'X');
+        assertEquals(before, board.serialize());
+    }
+
+    @Test
+    @DisplayName("Search engine should play a forced VCF win without searching")
+    void testEngineShortcut() {
+        place('X', 7, 4, 7, 5, 7, 6, 4, 8, 5, 8, 6, 8);
+        place('O', 7, 3, 3, 8, 0, 0, 0, 14, 14, 0, 14, 14);
+
+        SearchEngine engine = new SearchEngine(3, 0);
+        int[] move = engine.selectMove(board);
+        assertEquals(0, engine.getLastDepth());
+        assertArrayEquals(solver.solveVcf(board, 'X').getFirstMove(), move);
+    }
+
+    /**
+     * Plays the winning line on a copy of the board and checks the attacker's last move makes five.
+     */
+    private void assertReplaysToFive(ThreatSolver.Result result, char attacker) {
+        GoMokuBoard copy = new GoMokuBoard(board.getRows(), board.getColumns());
+        copy.loadFromString(board.serialize());
+        int[][] sequence = result.getSequence();
+        assertEquals(1, sequence.length % 2, "The line should end with an attacker move");
+        for (int i = 0; i < sequence.length; i++) {
+            int[] move = sequence[i];
+            assertTrue(copy.isEmpty(move[0], move[1]), "Move " + i + " should be on an empty cell");
+            copy.setCell(move[0], move[1], i % 2 == 0 ? attacker : SearchEngine.opponent(attacker));
+        }
+        int[] last = sequence[sequence.length - 1];
+        assertTrue(GoMoKuGameService.isWinningMove(copy, last[0], last[1]));
+    }
+
+    private void place(char player, int... coordinates) {
+        for (int i = 0; i < coordinates.length; i += 2) {
+            board.setCell(coordinates[i], coordinates[i + 1], player);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package MokuGame.Computer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test suite for the Tournament runner.
+ * Tests the game counting, forfeits and the Elo figures on small matches.
+ */
+class TournamentTest {
+
+    @Test
+    @DisplayName("Search engine should beat the random player on every thread")
+    void testSearchBeatsRandom() {
+        Tournament tournament = new Tournament(Tournament.player("search:2"), Tournament.player("random"), 15, 15);
+        tournament.setThreads(2);
+        tournament.setSeed(1);
+        Tournament.Result result = tournament.run(6);
+
+        assertEquals(6, result.getGames());
+        assertEquals(6, result.getWins());
+        assertEquals(1.0, result.getScore());
+        assertEquals(Double.POSITIVE_INFINITY, result.getElo());
+        assertTrue(Double.isFinite(result.getEloLower()) && result.getEloLower() > 0, "Six games bound the Elo from below");
+        assertTrue(result.getGamesPerSecond() > 0);
+        assertTrue(result.getAverageMoveMillis(true) > 0);
+    }
+
+    @Test
+    @DisplayName("A player that makes no move should forfeit")
+    void testForfeit() {
+        Tournament tournament = new Tournament(Tournament.player("random"), () -> board -> null, 9, 9);
+        tournament.setThreads(1);
+        tournament.setRandomPlies(0);
+        Tournament.Result result = tournament.run(4);
+
+        assertEquals(4, result.getForfeits());
+        assertEquals(4, result.getWins());
+        assertEquals(0, result.getLosses());
+    }
+
+    @Test
+    @DisplayName("Each pair of games should play the same random opening with colours reversed")
+    void testPairedOpenings() {
+        List<String> openings = Collections.synchronizedList(new ArrayList<>());
+        MoveSelector recorder = board -> {
+            openings.add(board.serialize()); // then forfeit, so each game asks once
+            return null;
+        };
+        Tournament tournament = new Tournament(() -> recorder, () -> recorder, 15, 15);
+        tournament.setThreads(1);
+        tournament.setRandomPlies(4);
+        tournament.setSeed(5);
+        Tournament.Result result = tournament.run(6);
+
+        assertEquals(6, openings.size());
+        for (int pair = 0; pair < 6; pair += 2) {
+            assertEquals(openings.get(pair), openings.get(pair + 1), "Games " + pair + " and " + (pair + 1));
+        }
+        assertNotEquals(openings.get(0), openings.get(2));
+        assertEquals(3, result.getWins(), "Each player forfeits once per pair");
+    }
+
+    @Test
+    @DisplayName("The Elo interval should contain the Elo estimate")
+    void testEloInterval() {
+        Tournament tournament = new Tournament(Tournament.player("random"), Tournament.player("random"), 7, 7);
+        tournament.setThreads(2);
+        tournament.setSeed(3);
+        Tournament.Result result = tournament.run(40);
+
+        assertEquals(40, result.getGames());
+        assertTrue(result.getEloLower() <= result.getElo() && result.getElo() <= result.getEloUpper());
+        assertTrue(result.getEloUpper() - result.getEloLower() > 0, "Forty games leave some doubt: " + result);
+    }
+
+    @Test
+    @DisplayName("Unknown player descriptions should be rejected")
+    void testPlayerSpec() {
+        assertInstanceOf(SearchEngine.class, Tournament.player("search:3:100").get());
+        assertInstanceOf(computerPlayer.class, Tournament.player("random").get());
+        assertThrows(IllegalArgumentException.class, () -> Tournament.player("minimax"));
+    }
+}
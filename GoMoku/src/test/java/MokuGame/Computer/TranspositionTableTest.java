@@ -0,0 +1,132 @@
+package MokuGame.Computer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test suite for the TranspositionTable.
+ * Tests entry packing, the replacement policy and the statistics.
+ */
+class TranspositionTableTest {
+
+    private TranspositionTable table;
+
+    /**
+     * Sets up a 1 MB table before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        table = new TranspositionTable(1);
+    }
+
+    @Test
+    @DisplayName("Table size should be a power of two that fits the budget")
+    void testCapacity() {
+        int capacity = table.capacity();
+        assertEquals(Integer.bitCount(capacity), 1, "Capacity should be a power of two");
+        assertTrue(capacity * 16L <= 1024 * 1024, "Table should fit in 1 MB");
+    }
+
+    @Test
+    @DisplayName("Stored entries should unpack to the same values")
+    void testStoreAndProbe() {
+        table.store(42L, 7, -12345, TranspositionTable.BOUND_LOWER, 224);
+        long entry = table.probe(42L);
+
+        assertNotEquals(TranspositionTable.MISS, entry);
+        assertEquals(7, TranspositionTable.depthOf(entry));
+        assertEquals(-12345, TranspositionTable.scoreOf(entry));
+        assertEquals(TranspositionTable.BOUND_LOWER, TranspositionTable.boundOf(entry));
+        assertEquals(224, TranspositionTable.moveOf(entry));
+    }
+
+    @Test
+    @DisplayName("Entry without a move should unpack to -1")
+    void testNoMove() {
+        table.store(5L, 1, 0, TranspositionTable.BOUND_EXACT, -1);
+        assertEquals(-1, TranspositionTable.moveOf(table.probe(5L)));
+    }
+
+    @Test
+    @DisplayName("Unknown positions should miss")
+    void testMiss() {
+        assertEquals(TranspositionTable.MISS, table.probe(99L));
+        assertEquals(1, table.getMisses());
+        assertEquals(0, table.getHits());
+    }
+
+    @Test
+    @DisplayName("Deep entries should survive shallow ones in the same bucket")
+    void testDepthPreferredReplacement() {
+        long buckets = table.capacity() / 2;
+        long deep = 3L;
+        long shallow = deep + buckets;      // same bucket, different key
+        long newer = deep + 2 * buckets;
+
+        table.store(deep, 10, 1, TranspositionTable.BOUND_EXACT, 1);
+        table.store(shallow, 2, 2, TranspositionTable.BOUND_EXACT, 2);
+        table.store(newer, 3, 3, TranspositionTable.BOUND_EXACT, 3);
+
+        assertEquals(10, TranspositionTable.depthOf(table.probe(deep)), "Deep entry should be kept");
+        assertEquals(TranspositionTable.MISS, table.probe(shallow), "Always-replace slot should be overwritten");
+        assertEquals(3, TranspositionTable.depthOf(table.probe(newer)));
+        assertEquals(1, table.getCollisions(), "Missing a full bucket should count as a collision");
+    }
+
+    @Test
+    @DisplayName("A new search should let fresh entries replace old deep ones")
+    void testAgeing() {
+        long buckets = table.capacity() / 2;
+        table.store(3L, 10, 1, TranspositionTable.BOUND_EXACT, 1);
+        table.newSearch();
+        table.store(3L + buckets, 2, 2, TranspositionTable.BOUND_EXACT, 2);
+
+        assertEquals(2, TranspositionTable.depthOf(table.probe(3L + buckets)));
+        assertEquals(TranspositionTable.MISS, table.probe(3L), "Old entry should have been replaced");
+    }
+
+    @Test
+    @DisplayName("Hit rate should follow probes")
+    void testStatistics() {
+        table.store(1L, 1, 0, TranspositionTable.BOUND_EXACT, 0);
+        table.probe(1L);
+        table.probe(2L);
+        assertEquals(0.5, table.hitRate(), 1e-9);
+
+        table.clear();
+        assertEquals(0, table.getProbes());
+        assertEquals(TranspositionTable.MISS, table.probe(1L));
+    }
+
+    @Test
+    @DisplayName("Concurrent stores should never return another position's data")
+    void testConcurrentAccess() throws InterruptedException {
+        TranspositionTable small = new TranspositionTable(1);
+        long buckets = small.capacity() / 2;
+        boolean[] corrupted = new boolean[1];
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int id = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 200_000; i++) {
+                    long key = (i % 64) + buckets * (id + 1); // threads fight over 64 buckets
+                    int move = (int) (key % 1000);
+                    small.store(key, 1, (int) key, TranspositionTable.BOUND_EXACT, move);
+                    long entry = small.probe(key);
+                    if (entry != TranspositionTable.MISS
+                        && (TranspositionTable.scoreOf(entry) != (int) key || TranspositionTable.moveOf(entry) != move)) {
+                        corrupted[0] = true;
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertFalse(corrupted[0], "A hit should always carry the data stored for its key");
+    }
+}
@@ -0,0 +1,142 @@
+package MokuGame.Core;
+
+import MokuGame.Computer.computerPlayer;
+import MokuGame.Service.GoMoKuGameService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test suite for the BitBoard implementation.
+ * Tests that it behaves like GoMokuBoard and that the bulk mask operations are correct.
+ */
+class BitBoardTest {
+
+    private BitBoard board;
+
+    /**
+     * Sets up a standard 15x15 bitboard before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        board = new BitBoard(15, 15);
+    }
+
+    @Test
+    @DisplayName("New bitboard should be empty")
+    void testNewBoardIsEmpty() {
+        for (int i = 0; i < board.getRows(); i++) {
+            for (int j = 0; j < board.getColumns(); j++) {
+                assertEquals(GoMokuBoard.Empty, board.getCell(i, j));
+                assertTrue(board.isEmpty(i, j));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Set, overwrite and clear cells should work")
+    void testSetAndOverwriteCell() {
+        board.setCell(7, 7, GoMokuBoard.Player1);
+        assertEquals(GoMokuBoard.Player1, board.getCell(7, 7));
+
+        board.setCell(7, 7, GoMokuBoard.Player2);
+        assertEquals(GoMokuBoard.Player2, board.getCell(7, 7), "Overwriting should replace the stone");
+
+        board.setCell(7, 7, GoMokuBoard.Empty);
+        assertTrue(board.isEmpty(7, 7), "Setting Empty should clear the stone");
+    }
+
+    @Test
+    @DisplayName("Bitboard should match the char grid on a full pattern")
+    void testMatchesCharGrid() {
+        GoMokuBoard grid = new GoMokuBoard(13, 17);
+        BitBoard bits = new BitBoard(13, 17);
+        for (int i = 0; i < 13; i++) {
+            for (int j = 0; j < 17; j++) {
+                char stone = (i * 3 + j) % 3 == 0 ? 'X' : (i + j) % 4 == 0 ? 'O' : '.';
+                grid.setCell(i, j, stone);
+                bits.setCell(i, j, stone);
+            }
+        }
+
+        assertEquals(grid.serialize(), bits.serialize());
+        assertEquals(grid.toString(), bits.toString());
+    }
+
+    @Test
+    @DisplayName("Serialize and load should round trip through the bitboard")
+    void testSerializeAndLoad() {
+        board.setCell(0, 0, 'X');
+        board.setCell(14, 14, 'O');
+        board.setCell(3, 9, 'X');
+
+        BitBoard restored = new BitBoard(15, 15);
+        restored.loadFromString(board.serialize());
+
+        assertEquals('X', restored.getCell(0, 0));
+        assertEquals('O', restored.getCell(14, 14));
+        assertEquals('X', restored.getCell(3, 9));
+        assertEquals(3, restored.stoneCount('X') + restored.stoneCount('O'));
+    }
+
+    @Test
+    @DisplayName("Bulk masks should count stones and empty cells")
+    void testBulkMasks() {
+        board.setCell(0, 0, 'X');
+        board.setCell(5, 5, 'X');
+        board.setCell(14, 14, 'O');
+
+        assertEquals(2, board.stoneCount('X'));
+        assertEquals(1, board.stoneCount('O'));
+
+        long[] mask = new long[board.wordCount()];
+        board.occupiedMask(mask);
+        assertEquals(3, popcount(mask), "Union should hold both players' stones");
+
+        board.emptyMask(mask);
+        assertEquals(15 * 15 - 3, popcount(mask), "Empty mask should ignore padding bits");
+
+        board.clear();
+        board.emptyMask(mask);
+        assertEquals(15 * 15, popcount(mask));
+    }
+
+    @Test
+    @DisplayName("Out of bounds access should throw like the char grid")
+    void testOutOfBounds() {
+        assertThrows(IndexOutOfBoundsException.class, () -> board.setCell(0, 15, 'X'));
+        assertThrows(IndexOutOfBoundsException.class, () -> board.getCell(15, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> board.isEmpty(-1, 0));
+    }
+
+    @Test
+    @DisplayName("Game service and computer player should work unchanged on a bitboard")
+    void testWorksWithServiceAndComputer() {
+        BitBoard small = new BitBoard(5, 5);
+        GoMoKuGameService service = new GoMoKuGameService(small);
+        computerPlayer ai = new computerPlayer();
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(service.makeMove(0, i));
+            if (i < 4) {
+                assertTrue(service.makeMove(1, i));
+            }
+        }
+        assertTrue(service.isGameOver());
+        assertEquals('X', service.getWinner());
+
+        int[] move = ai.selectMove(small);
+        assertNotNull(move);
+        assertTrue(small.isEmpty(move[0], move[1]));
+    }
+
+    private static int popcount(long[] mask) {
+        int count = 0;
+        for (long word : mask) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
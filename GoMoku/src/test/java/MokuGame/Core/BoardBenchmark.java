@@ -0,0 +1,97 @@
+package MokuGame.Core;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark comparing the char grid GoMokuBoard with the BitBoard
+ * for single cell reads and full board scans.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args=BoardBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    @Param({"15", "19", "100"})
+    public int size;
+
+    private GoMokuBoard gridBoard;
+    private BitBoard bitBoard;
+    private long[] mask;
+
+    /**
+     * Fills both boards with the same position, about a third of the cells occupied.
+     */
+    @Setup
+    public void setUp() {
+        gridBoard = new GoMokuBoard(size, size);
+        bitBoard = new BitBoard(size, size);
+        mask = new long[bitBoard.wordCount()];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                int k = (i * 7 + j * 13) % 9;
+                char stone = k < 2 ? GoMokuBoard.Player1 : k < 3 ? GoMokuBoard.Player2 : GoMokuBoard.Empty;
+                gridBoard.setCell(i, j, stone);
+                bitBoard.setCell(i, j, stone);
+            }
+        }
+    }
+
+    @Benchmark
+    public void gridReadAllCells(Blackhole bh) {
+        readAll(gridBoard, bh);
+    }
+
+    @Benchmark
+    public void bitBoardReadAllCells(Blackhole bh) {
+        readAll(bitBoard, bh);
+    }
+
+    @Benchmark
+    public int gridCountEmpty() {
+        return countEmpty(gridBoard);
+    }
+
+    @Benchmark
+    public int bitBoardCountEmptyPerCell() {
+        return countEmpty(bitBoard);
+    }
+
+    @Benchmark
+    public int bitBoardCountEmptyBulk() {
+        bitBoard.emptyMask(mask);
+        int count = 0;
+        for (long word : mask) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private static void readAll(GoMokuBoard board, Blackhole bh) {
+        for (int i = 0; i < board.getRows(); i++) {
+            for (int j = 0; j < board.getColumns(); j++) {
+                bh.consume(board.getCell(i, j));
+            }
+        }
+    }
+
+    private static int countEmpty(GoMokuBoard board) {
+        int count = 0;
+        for (int i = 0; i < board.getRows(); i++) {
+            for (int j = 0; j < board.getColumns(); j++) {
+                if (board.isEmpty(i, j)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,175 @@
+package MokuGame.Core;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the BoardCodec binary form against the serialize text form:
+ * encoding a board, and decoding it back into an existing board. The text form is measured
+ * through serialize and loadFromString, through the caller-buffer variants, and as it was parsed
+ * before with String.split ("legacy"). The main method also prints the stored size of both forms,
+ * and bytes allocated per call.
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=MokuGame.Core.BoardCodecBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardCodecBenchmark {
+
+    @Param({"15"})
+    public int size;
+
+    @Param({"10", "60", "150"})
+    public int stones;
+
+    private GoMokuBoard board;
+    private GoMokuBoard target;
+    private String text;
+    private byte[] bytes;
+    private ByteBuffer buffer;
+    private StringBuilder builder;
+    private ByteBuffer textBytes;
+
+    @Setup
+    public void setUp() {
+        board = randomBoard(size, stones);
+        target = new GoMokuBoard(size, size);
+        text = board.serialize();
+        bytes = BoardCodec.encode(board);
+        buffer = ByteBuffer.allocate(bytes.length);
+        builder = new StringBuilder(board.serializedLength());
+        textBytes = ByteBuffer.allocate(board.serializedLength());
+        board.serializeTo(textBytes);
+    }
+
+    @Benchmark
+    public String textEncode() {
+        return board.serialize();
+    }
+
+    @Benchmark
+    public GoMokuBoard textDecode() {
+        target.clear();
+        target.loadFromString(text);
+        return target;
+    }
+
+    @Benchmark
+    public StringBuilder textEncodeInto() {
+        builder.setLength(0);
+        board.serializeTo(builder);
+        return builder;
+    }
+
+    @Benchmark
+    public GoMokuBoard textDecodeBytes() {
+        target.clear();
+        textBytes.rewind();
+        target.loadFrom(textBytes);
+        return target;
+    }
+
+    @Benchmark
+    public String legacyTextEncode() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < board.getRows(); i++) {
+            for (int j = 0; j < board.getColumns(); j++) {
+                sb.append(board.getCell(i, j));
+            }
+            if (i < board.getRows() - 1) {
+                sb.append("|");
+            }
+        }
+        return sb.toString();
+    }
+
+    @Benchmark
+    public GoMokuBoard legacyTextDecode() {
+        target.clear();
+        String[] rowData = text.split("\\|");
+        for (int i = 0; i < target.getRows() && i < rowData.length; i++) {
+            for (int j = 0; j < target.getColumns() && j < rowData[i].length(); j++) {
+                target.setCell(i, j, rowData[i].charAt(j));
+            }
+        }
+        return target;
+    }
+
+    @Benchmark
+    public byte[] binaryEncode() {
+        return BoardCodec.encode(board);
+    }
+
+    @Benchmark
+    public ByteBuffer binaryEncodeInto() {
+        buffer.clear();
+        BoardCodec.encode(board, buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public GoMokuBoard binaryDecode() {
+        BoardCodec.decodeInto(ByteBuffer.wrap(bytes), target);
+        return target;
+    }
+
+    private static GoMokuBoard randomBoard(int size, int stones) {
+        SplittableRandom random = new SplittableRandom(stones);
+        GoMokuBoard board = new GoMokuBoard(size, size);
+        for (int i = 0; i < stones; i++) {
+            int cell = board.getEmptyCell(random.nextInt(board.getEmptyCount()));
+            board.setCell(board.rowOf(cell), board.columnOf(cell), i % 2 == 0 ? GoMokuBoard.Player1 : GoMokuBoard.Player2);
+        }
+        return board;
+    }
+
+    /**
+     * Prints the stored sizes, then runs the benchmark and prints nanoseconds per call.
+     *
+     * @param args unused
+     * @throws RunnerException if JMH fails
+     */
+    public static void main(String[] args) throws RunnerException {
+        System.out.println("size  stones  text bytes  binary bytes  layout");
+        for (int size : new int[]{15, 19}) {
+            for (int stones : new int[]{0, 10, 30, 60, 150}) {
+                GoMokuBoard board = randomBoard(size, stones);
+                byte[] encoded = BoardCodec.encode(board);
+                System.out.printf("%4d  %6d  %10d  %12d  %s%n", size, stones, board.serialize().length(), encoded.length,
+                    encoded[1] == BoardCodec.SPARSE ? "sparse" : "dense");
+            }
+        }
+
+        Options options = new OptionsBuilder()
+            .include(BoardCodecBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+        Collection<RunResult> results = new Runner(options).run();
+        List<String> lines = new ArrayList<>();
+        for (RunResult result : results) {
+            Result<?> allocated = result.getSecondaryResults().get("gc.alloc.rate.norm");
+            lines.add(String.format("%-17s  %6s  %8.1f  %8.0f", result.getPrimaryResult().getLabel(),
+                result.getParams().getParam("stones"), result.getPrimaryResult().getScore(),
+                allocated == null ? Double.NaN : allocated.getScore()));
+        }
+        System.out.println("\ncall               stones     ns/op   bytes/op");
+        lines.forEach(System.out::println);
+    }
+}
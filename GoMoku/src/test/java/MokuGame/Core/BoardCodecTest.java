@@ -0,0 +1,104 @@
+package MokuGame.Core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test suite for the BoardCodec.
+ * Tests that both layouts round-trip, which layout is chosen, and that bad data is rejected.
+ */
+class BoardCodecTest {
+
+    private static GoMokuBoard randomBoard(int rows, int columns, int stones, Random random) {
+        GoMokuBoard board = new GoMokuBoard(rows, columns);
+        for (int i = 0; i < stones; i++) {
+            int cell = board.getEmptyCell(random.nextInt(board.getEmptyCount()));
+            board.setCell(board.rowOf(cell), board.columnOf(cell), i % 2 == 0 ? GoMokuBoard.Player1 : GoMokuBoard.Player2);
+        }
+        return board;
+    }
+
+    @Test
+    @DisplayName("Boards should decode to the same stones and hash")
+    void testRoundTrip() {
+        Random random = new Random(7);
+        int[][] sizes = {{15, 15}, {19, 19}, {5, 7}, {100, 100}, {200, 200}};
+        for (int[] size : sizes) {
+            int cells = size[0] * size[1];
+            for (int stones : new int[]{0, 1, 10, cells / 3, cells}) {
+                GoMokuBoard board = randomBoard(size[0], size[1], stones, random);
+                byte[] bytes = BoardCodec.encode(board);
+                assertEquals(BoardCodec.encodedSize(board), bytes.length);
+
+                GoMokuBoard decoded = BoardCodec.decode(bytes);
+                assertEquals(board.serialize(), decoded.serialize(), size[0] + "x" + size[1] + " with " + stones);
+                assertEquals(board.getHash(), decoded.getHash());
+                assertEquals(board.getStoneCount(GoMokuBoard.Player2), decoded.getStoneCount(GoMokuBoard.Player2));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("The smaller layout should be chosen")
+    void testLayout() {
+        GoMokuBoard board = new GoMokuBoard(15, 15);
+        board.setCell(7, 7, GoMokuBoard.Player1);
+        board.setCell(7, 8, GoMokuBoard.Player2);
+        byte[] sparse = BoardCodec.encode(board);
+        assertEquals(BoardCodec.SPARSE, sparse[1]);
+        assertEquals(BoardCodec.HEADER_BYTES + 2 + 2 * 2, sparse.length);
+
+        GoMokuBoard full = randomBoard(15, 15, 100, new Random(1));
+        byte[] dense = BoardCodec.encode(full);
+        assertEquals(BoardCodec.DENSE, dense[1]);
+        assertEquals(BoardCodec.HEADER_BYTES + 57, dense.length, "Four cells a byte");
+        assertTrue(dense.length < full.serialize().length() / 3);
+
+        GoMokuBoard huge = randomBoard(200, 200, 10, new Random(2));
+        assertEquals(BoardCodec.DENSE, BoardCodec.encode(huge)[1], "Too many cells for sparse indices");
+    }
+
+    @Test
+    @DisplayName("Decoding into a board should replace its stones and advance the buffer")
+    void testDecodeInto() {
+        GoMokuBoard first = randomBoard(15, 15, 20, new Random(3));
+        GoMokuBoard second = randomBoard(15, 15, 120, new Random(4));
+        ByteBuffer buffer = ByteBuffer.allocate(BoardCodec.encodedSize(first) + BoardCodec.encodedSize(second));
+        BoardCodec.encode(first, buffer);
+        BoardCodec.encode(second, buffer);
+        buffer.flip();
+
+        GoMokuBoard target = randomBoard(15, 15, 50, new Random(5));
+        BoardCodec.decodeInto(buffer, target);
+        assertEquals(first.serialize(), target.serialize());
+        assertEquals(first.getHash(), target.getHash());
+        BoardCodec.decodeInto(buffer, target);
+        assertEquals(second.serialize(), target.serialize());
+        assertFalse(buffer.hasRemaining());
+
+        buffer.rewind();
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.decodeInto(buffer, new GoMokuBoard(10, 10)));
+    }
+
+    @Test
+    @DisplayName("Unknown versions and damaged data should be rejected")
+    void testBadData() {
+        byte[] bytes = BoardCodec.encode(randomBoard(15, 15, 100, new Random(6)));
+        byte[] wrongVersion = bytes.clone();
+        wrongVersion[0] = 2;
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.decode(wrongVersion));
+        byte[] badCell = bytes.clone();
+        badCell[BoardCodec.HEADER_BYTES] = (byte) 0xFF;
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.decode(badCell));
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.decode(new byte[3]));
+
+        GoMokuBoard odd = new GoMokuBoard(5, 5);
+        odd.setCell(0, 0, '#');
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.encode(odd));
+    }
+}
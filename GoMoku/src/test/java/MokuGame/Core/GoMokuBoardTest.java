@@ -4,6 +4,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -237,4 +240,221 @@ class GoMokuBoardTest {
         assertDoesNotThrow(() -> board.loadFromString(""),
             "Loading empty string should not throw exception");
     }
+
+    @Test
+    @DisplayName("Hash should depend on the position, not the move order")
+    void testHashIndependentOfMoveOrder() {
+        GoMokuBoard other = new GoMokuBoard(15, 15);
+
+        board.setCell(7, 7, 'X');
+        board.setCell(7, 8, 'O');
+        board.setCell(8, 8, 'X');
+
+        other.setCell(8, 8, 'X');
+        other.setCell(7, 7, 'X');
+        other.setCell(7, 8, 'O');
+
+        assertNotEquals(0L, board.getHash(), "A non-empty board should have a hash");
+        assertEquals(board.getHash(), other.getHash(), "Same stones should give the same hash");
+    }
+
+    @Test
+    @DisplayName("Hash should be restored when a stone is removed")
+    void testHashUndo() {
+        board.setCell(3, 3, 'X');
+        long before = board.getHash();
+
+        board.setCell(4, 4, 'O');
+        assertNotEquals(before, board.getHash(), "Adding a stone should change the hash");
+
+        board.setCell(4, 4, GoMokuBoard.Empty);
+        assertEquals(before, board.getHash(), "Removing the stone should restore the hash");
+    }
+
+    @Test
+    @DisplayName("Hash should tell the players apart")
+    void testHashDistinguishesPlayers() {
+        GoMokuBoard other = new GoMokuBoard(15, 15);
+        board.setCell(5, 5, 'X');
+        other.setCell(5, 5, 'O');
+        assertNotEquals(board.getHash(), other.getHash());
+    }
+
+    @Test
+    @DisplayName("Clear and loadFromString should keep the hash in sync")
+    void testHashClearAndLoad() {
+        board.setCell(0, 0, 'X');
+        board.setCell(1, 2, 'O');
+        long hash = board.getHash();
+
+        GoMokuBoard loaded = new GoMokuBoard(15, 15);
+        loaded.setCell(9, 9, 'O');
+        loaded.loadFromString(board.serialize());
+        assertEquals(hash, loaded.getHash(), "Loaded board should rebuild the hash");
+
+        board.clear();
+        assertEquals(0L, board.getHash(), "Cleared board should have an empty hash");
+    }
+
+    @Test
+    @DisplayName("Bitboard and char grid should hash the same position the same way")
+    void testHashMatchesBitBoard() {
+        BitBoard bits = new BitBoard(15, 15);
+        board.setCell(2, 3, 'X');
+        board.setCell(10, 11, 'O');
+        bits.setCell(10, 11, 'O');
+        bits.setCell(2, 3, 'X');
+        assertEquals(board.getHash(), bits.getHash());
+    }
+
+    @Test
+    @DisplayName("Stone and empty counters should follow setCell")
+    void testCounters() {
+        assertEquals(0, board.getStoneCount());
+        assertEquals(225, board.getEmptyCount());
+
+        board.setCell(1, 1, 'X');
+        board.setCell(2, 2, 'O');
+        board.setCell(3, 3, 'O');
+        assertEquals(3, board.getStoneCount());
+        assertEquals(1, board.getStoneCount('X'));
+        assertEquals(2, board.getStoneCount('O'));
+        assertEquals(222, board.getEmptyCount());
+
+        board.setCell(2, 2, 'X');
+        assertEquals(2, board.getStoneCount('X'), "Overwriting should move the stone between players");
+        assertEquals(222, board.getEmptyCount(), "Overwriting should not change the empty count");
+
+        board.setCell(1, 1, GoMokuBoard.Empty);
+        assertEquals(223, board.getEmptyCount());
+
+        board.clear();
+        assertEquals(0, board.getStoneCount());
+        assertEquals(225, board.getEmptyCount());
+    }
+
+    @Test
+    @DisplayName("Empty set should hold exactly the empty cells")
+    void testEmptySet() {
+        for (int i = 0; i < 15; i++) {
+            board.setCell(i, (i * 4) % 15, (i % 2 == 0) ? 'X' : 'O');
+        }
+        board.setCell(4, 1, GoMokuBoard.Empty);
+
+        boolean[] seen = new boolean[225];
+        for (int i = 0; i < board.getEmptyCount(); i++) {
+            int cell = board.getEmptyCell(i);
+            assertFalse(seen[cell], "Each empty cell should appear once");
+            seen[cell] = true;
+            assertTrue(board.isEmpty(board.rowOf(cell), board.columnOf(cell)));
+        }
+        assertEquals(211, board.getEmptyCount());
+    }
+
+    @Test
+    @DisplayName("isFull should track the last empty cell")
+    void testIsFull() {
+        GoMokuBoard small = new GoMokuBoard(2, 3);
+        for (int i = 0; i < 2; i++) {
+            for (int j = 0; j < 3; j++) {
+                assertFalse(small.isFull());
+                small.setCell(i, j, 'X');
+            }
+        }
+        assertTrue(small.isFull());
+
+        GoMokuBoard loaded = new GoMokuBoard(2, 3);
+        loaded.loadFromString(small.serialize());
+        assertTrue(loaded.isFull(), "loadFromString should update the counters");
+        assertEquals(6, loaded.getStoneCount('X'));
+    }
+
+    @Test
+    @DisplayName("Listeners should see each real change and clear, and none after removal")
+    void testListeners() {
+        StringBuilder events = new StringBuilder();
+        BoardListener listener = new BoardListener() {
+            @Override
+            public void cellChanged(GoMokuBoard changed, int row, int column, char previous, char current) {
+                events.append(row).append(column).append(previous).append(current).append(' ');
+            }
+
+            @Override
+            public void boardCleared(GoMokuBoard cleared) {
+                events.append("clear ");
+            }
+        };
+        board.addListener(listener);
+        board.setCell(1, 2, 'X');
+        board.setCell(1, 2, 'X');
+        board.setCell(1, 2, GoMokuBoard.Empty);
+        board.clear();
+        assertEquals("12.X 12X. clear ", events.toString(), "Setting the same value should not notify");
+
+        assertTrue(board.removeListener(listener));
+        assertFalse(board.removeListener(listener));
+        board.setCell(3, 3, 'O');
+        assertEquals("12.X 12X. clear ", events.toString());
+    }
+
+    /**
+     * loadFromString as it was before the single-pass parser, to check the formats still agree.
+     */
+    private static void legacyLoad(GoMokuBoard target, String data) {
+        String[] rowData = data.split("\\|");
+        for (int i = 0; i < target.getRows() && i < rowData.length; i++) {
+            for (int j = 0; j < target.getColumns() && j < rowData[i].length(); j++) {
+                target.setCell(i, j, rowData[i].charAt(j));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("loadFromString should read odd data the way the split parser did")
+    void testLoadFromStringCompatibility() {
+        String[] inputs = {"", "|", "X", "X.O||..X|", "XXXXXXXXXXXXXXXXXXXX|O", "|||||||||||||||||||O",
+            "O|X|O|X|O|X|O|X|O|X|O|X|O|X|O|X|O|X", "..X\n", board.serialize()};
+        for (String input : inputs) {
+            GoMokuBoard expected = new GoMokuBoard(15, 15);
+            expected.setCell(14, 14, 'O'); // loading leaves cells it does not reach alone
+            legacyLoad(expected, input);
+            GoMokuBoard actual = new GoMokuBoard(15, 15);
+            actual.setCell(14, 14, 'O');
+            actual.loadFromString(input);
+            assertEquals(expected.serialize(), actual.serialize(), "Input \"" + input + "\"");
+            assertEquals(expected.getHash(), actual.getHash());
+
+            GoMokuBoard fromBytes = new GoMokuBoard(15, 15);
+            fromBytes.setCell(14, 14, 'O');
+            ByteBuffer bytes = ByteBuffer.wrap(input.getBytes(StandardCharsets.US_ASCII));
+            fromBytes.loadFrom(bytes);
+            assertEquals(expected.serialize(), fromBytes.serialize(), "Bytes \"" + input + "\"");
+            assertFalse(bytes.hasRemaining());
+        }
+    }
+
+    @Test
+    @DisplayName("serializeTo should write the serialize form into the caller's buffer")
+    void testSerializeTo() {
+        GoMokuBoard rectangle = new GoMokuBoard(3, 4);
+        rectangle.setCell(0, 0, 'X');
+        rectangle.setCell(2, 3, 'O');
+        String expected = "X...|....|...O";
+        assertEquals(expected, rectangle.serialize());
+        assertEquals(expected.length(), rectangle.serializedLength());
+        assertEquals(1, new GoMokuBoard(1, 1).serializedLength());
+
+        StringBuilder builder = new StringBuilder("board=");
+        rectangle.serializeTo(builder);
+        assertEquals("board=" + expected, builder.toString());
+
+        ByteBuffer buffer = ByteBuffer.allocate(rectangle.serializedLength() + 2);
+        buffer.put((byte) '>');
+        assertEquals(expected.length(), rectangle.serializeTo(buffer));
+        buffer.flip();
+        buffer.get();
+        GoMokuBoard copy = new GoMokuBoard(3, 4);
+        copy.loadFrom(buffer);
+        assertEquals(expected, copy.serialize());
+    }
 }
@@ -0,0 +1,102 @@
+package MokuGame.Core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test suite for Symmetry and SymmetricHasher.
+ * Tests the cell mappings, the canonical form and that the incremental hashes match a full rehash.
+ */
+class SymmetryTest {
+
+    private static GoMokuBoard randomBoard(int rows, int columns, int stones, Random random) {
+        GoMokuBoard board = new GoMokuBoard(rows, columns);
+        for (int i = 0; i < stones; i++) {
+            int r = random.nextInt(rows);
+            int c = random.nextInt(columns);
+            if (board.isEmpty(r, c)) {
+                board.setCell(r, c, i % 2 == 0 ? GoMokuBoard.Player1 : GoMokuBoard.Player2);
+            }
+        }
+        return board;
+    }
+
+    @Test
+    @DisplayName("Every symmetry should be undone by its inverse")
+    void testInverse() {
+        for (int s = 0; s < Symmetry.COUNT; s++) {
+            for (int cell = 0; cell < 15 * 15; cell++) {
+                int mapped = Symmetry.mapCell(s, cell, 15, 15);
+                assertEquals(cell, Symmetry.mapCell(Symmetry.inverse(s), mapped, 15, 15), "Symmetry " + s);
+            }
+        }
+        assertArrayEquals(new int[]{0, 14}, Symmetry.map(1, 0, 0, 15, 15), "Rotation moves the top left corner right");
+    }
+
+    @Test
+    @DisplayName("All symmetric versions of a board should share one canonical form")
+    void testCanonicalForm() {
+        GoMokuBoard board = randomBoard(15, 15, 20, new Random(3));
+        long canonical = Symmetry.canonicalForm(board).getHash();
+        for (int s = 0; s < Symmetry.COUNT; s++) {
+            GoMokuBoard image = Symmetry.apply(s, board);
+            assertEquals(Symmetry.hashes(board)[s], image.getHash());
+            assertEquals(canonical, Symmetry.canonicalForm(image).getHash(), "Symmetry " + s);
+        }
+    }
+
+    @Test
+    @DisplayName("Non-square boards should only use the symmetries that keep their shape")
+    void testNonSquare() {
+        GoMokuBoard board = randomBoard(9, 15, 12, new Random(5));
+        long canonical = Symmetry.canonicalForm(board).getHash();
+        for (int s = 0; s < Symmetry.COUNT; s++) {
+            assertEquals(s % 2 == 0, Symmetry.fits(s, 9, 15));
+            if (Symmetry.fits(s, 9, 15)) {
+                assertEquals(canonical, Symmetry.canonicalForm(Symmetry.apply(s, board)).getHash());
+            } else {
+                assertEquals(0L, Symmetry.hashes(board)[s]);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Incremental hashes should match a full rehash through moves and undos")
+    void testIncrementalHashes() {
+        Random random = new Random(7);
+        GoMokuBoard board = new BitBoard(15, 15);
+        SymmetricHasher hasher = new SymmetricHasher(board);
+        for (int step = 0; step < 300; step++) {
+            int r = random.nextInt(15);
+            int c = random.nextInt(15);
+            board.setCell(r, c, board.isEmpty(r, c) ? (step % 2 == 0 ? GoMokuBoard.Player1 : GoMokuBoard.Player2)
+                : GoMokuBoard.Empty);
+            long[] expected = Symmetry.hashes(board);
+            for (int s = 0; s < Symmetry.COUNT; s++) {
+                assertEquals(expected[s], hasher.getHash(s));
+            }
+        }
+        board.clear();
+        assertEquals(0L, hasher.getCanonicalHash());
+        hasher.detach();
+    }
+
+    @Test
+    @DisplayName("Moves should map between the board and its canonical orientation")
+    void testMoveMapping() {
+        GoMokuBoard board = randomBoard(15, 15, 10, new Random(9));
+        SymmetricHasher hasher = new SymmetricHasher(board);
+        GoMokuBoard canonical = Symmetry.canonicalForm(board);
+        assertEquals(canonical.getHash(), hasher.getCanonicalHash());
+        for (int cell = 0; cell < 15 * 15; cell++) {
+            int mapped = hasher.toCanonical(cell);
+            assertEquals(board.getCell(board.rowOf(cell), board.columnOf(cell)),
+                canonical.getCell(canonical.rowOf(mapped), canonical.columnOf(mapped)));
+            assertEquals(cell, hasher.fromCanonical(mapped));
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package MokuGame.Service;
+
+import MokuGame.Core.GoMokuBoard;
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of Database calls through the ConnectionPool against the old way, a new
+ * DriverManager connection per call ("direct"). The score is calls per second.
+ *
+ * By default it runs against an H2 database served over TCP on localhost, which costs a connection
+ * handshake much like PostgreSQL does; H2 has no ON CONFLICT upsert, so only loads are measured there.
+ * Point it at PostgreSQL to measure saves too:
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=MokuGame.Service.ConnectionPoolBenchmark
+ *   [-Dgomoku.db.url=jdbc:postgresql://localhost:5432/gomoku -Dgomoku.db.user=postgres -Dgomoku.db.password=alma]
+ *   [-Dexec.args="1 4"]
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class ConnectionPoolBenchmark {
+
+    private static final String LOAD_SQL = "SELECT rows, columns, board_data FROM boards WHERE name = ?";
+    private static final String SAVE_SQL = """
+        INSERT INTO boards (name, rows, columns, board_data)
+        VALUES (?, ?, ?, ?)
+        ON CONFLICT (name) DO UPDATE SET
+            rows = EXCLUDED.rows,
+            columns = EXCLUDED.columns,
+            board_data = EXCLUDED.board_data,
+            created_at = NOW()
+        """;
+    private static final String PREFIX = "bench_pool_";
+    private static final int NAMES = 100;
+
+    @Param({"pooled", "direct"})
+    public String connections;
+
+    private Server h2;
+    private String url;
+    private String user;
+    private String password;
+    private Database database;
+    private boolean pooled;
+    private GoMokuBoard board;
+
+    @State(Scope.Thread)
+    public static class Caller {
+        int next;
+
+        String name() {
+            next = (next + 1) % NAMES;
+            return PREFIX + next;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        url = System.getProperty("gomoku.db.url");
+        if (url == null) {
+            h2 = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+            url = "jdbc:h2:tcp://localhost:" + h2.getPort() + "/mem:gomoku;DB_CLOSE_DELAY=-1";
+            user = "sa";
+            password = "";
+        } else {
+            user = System.getProperty("gomoku.db.user", "postgres");
+            password = System.getProperty("gomoku.db.password", "alma");
+        }
+        database = new Database(url, user, password, Database.DEFAULT_MIN_POOL_SIZE, Database.DEFAULT_MAX_POOL_SIZE);
+        database.initializeDatabase();
+        pooled = connections.equals("pooled");
+
+        board = new GoMokuBoard(15, 15);
+        board.setCell(7, 7, GoMokuBoard.Player1);
+        board.setCell(7, 8, GoMokuBoard.Player2);
+        // plain inserts, which H2 understands too
+        try (Connection connection = DriverManager.getConnection(url, user, password);
+             PreparedStatement delete = connection.prepareStatement("DELETE FROM boards WHERE name LIKE ?");
+             PreparedStatement insert = connection.prepareStatement(
+                 "INSERT INTO boards (name, rows, columns, board_data) VALUES (?, ?, ?, ?)")) {
+            delete.setString(1, PREFIX + "%");
+            delete.executeUpdate();
+            for (int i = 0; i < NAMES; i++) {
+                insert.setString(1, PREFIX + i);
+                insert.setInt(2, board.getRows());
+                insert.setInt(3, board.getColumns());
+                insert.setString(4, board.serialize());
+                insert.executeUpdate();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        if (pooled) {
+            System.out.println("\n" + database.getPool());
+        }
+        try (Connection connection = DriverManager.getConnection(url, user, password);
+             PreparedStatement delete = connection.prepareStatement("DELETE FROM boards WHERE name LIKE ?")) {
+            delete.setString(1, PREFIX + "%");
+            delete.executeUpdate();
+        }
+        database.close();
+        if (h2 != null) {
+            h2.stop();
+        }
+    }
+
+    @Benchmark
+    public GoMokuBoard load(Caller caller) throws SQLException {
+        return pooled ? database.loadBoard(caller.name()) : loadDirect(caller.name());
+    }
+
+    @Benchmark
+    public boolean save(Caller caller) throws SQLException {
+        return pooled ? database.saveBoard(caller.name(), board) : saveDirect(caller.name());
+    }
+
+    /**
+     * Database.loadBoard as it was before the pool.
+     */
+    private GoMokuBoard loadDirect(String name) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, user, password);
+             PreparedStatement statement = connection.prepareStatement(LOAD_SQL)) {
+            statement.setString(1, name);
+            ResultSet rs = statement.executeQuery();
+            if (!rs.next()) {
+                return null;
+            }
+            GoMokuBoard loaded = new GoMokuBoard(rs.getInt("rows"), rs.getInt("columns"));
+            loaded.loadFromString(rs.getString("board_data"));
+            return loaded;
+        }
+    }
+
+    /**
+     * Database.saveBoard as it was before the pool.
+     */
+    private boolean saveDirect(String name) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, user, password);
+             PreparedStatement statement = connection.prepareStatement(SAVE_SQL)) {
+            statement.setString(1, name);
+            statement.setInt(2, board.getRows());
+            statement.setInt(3, board.getColumns());
+            statement.setString(4, board.serialize());
+            return statement.executeUpdate() > 0;
+        }
+    }
+
+    /**
+     * Runs the benchmark at each thread count and prints calls per second.
+     *
+     * @param args the thread counts, default 1 and 4
+     * @throws RunnerException if JMH fails
+     */
+    public static void main(String[] args) throws RunnerException {
+        List<Integer> counts = new ArrayList<>();
+        for (String arg : args) {
+            counts.add(Integer.parseInt(arg));
+        }
+        if (counts.isEmpty()) {
+            counts.add(1);
+            counts.add(4);
+        }
+        String url = System.getProperty("gomoku.db.url");
+        List<String> jvmArgs = new ArrayList<>(List.of("-Dorg.slf4j.simpleLogger.defaultLogLevel=warn"));
+        for (String key : new String[]{"gomoku.db.url", "gomoku.db.user", "gomoku.db.password"}) {
+            if (System.getProperty(key) != null) {
+                jvmArgs.add("-D" + key + "=" + System.getProperty(key));
+            }
+        }
+        boolean postgres = url != null && url.startsWith("jdbc:postgresql:");
+
+        List<String> lines = new ArrayList<>();
+        for (int threads : counts) {
+            Options options = new OptionsBuilder()
+                .include(ConnectionPoolBenchmark.class.getSimpleName() + (postgres ? "" : ".load"))
+                .threads(threads)
+                .jvmArgsAppend(jvmArgs.toArray(new String[0]))
+                .build();
+            Collection<RunResult> results = new Runner(options).run();
+            for (RunResult result : results) {
+                String label = result.getPrimaryResult().getLabel();
+                lines.add(String.format("%7d  %-5s  %-7s  %10.0f", threads, label,
+                    result.getParams().getParam("connections"), result.getPrimaryResult().getScore()));
+            }
+        }
+        System.out.println("\nthreads  call   mode        calls/s");
+        lines.forEach(System.out::println);
+    }
+}
@@ -0,0 +1,202 @@
+package MokuGame.Service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test suite for the ConnectionPool.
+ * Tests reuse, the size limit, validation, idle eviction and the metrics against an in-memory
+ * H2 database, so PostgreSQL is not needed.
+ */
+class ConnectionPoolTest {
+
+    private static final AtomicInteger databases = new AtomicInteger();
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() {
+        String url = "jdbc:h2:mem:pool" + databases.incrementAndGet() + ";DB_CLOSE_DELAY=-1";
+        pool = new ConnectionPool(url, "sa", "", 1, 2);
+        pool.setAcquireTimeout(100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    @DisplayName("A returned connection should be handed out again")
+    void testReuse() throws SQLException {
+        Connection physical;
+        try (Connection connection = pool.getConnection()) {
+            physical = connection.unwrap(Connection.class);
+        }
+        try (Connection connection = pool.getConnection()) {
+            assertSame(physical, connection.unwrap(Connection.class));
+            assertEquals(1, pool.getActiveCount());
+        }
+        assertEquals(2, pool.getAcquireCount());
+        assertEquals(1, pool.getCreatedCount());
+        assertEquals(0, pool.getActiveCount());
+        assertEquals(1, pool.getIdleCount());
+    }
+
+    @Test
+    @DisplayName("A full pool should make callers wait, then time out")
+    void testSaturation() throws Exception {
+        Connection first = pool.getConnection();
+        Connection second = pool.getConnection();
+        assertThrows(SQLTimeoutException.class, pool::getConnection);
+        assertEquals(1, pool.getTimeoutCount());
+
+        Thread returner = new Thread(() -> {
+            try {
+                Thread.sleep(20);
+                first.close();
+            } catch (InterruptedException | SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        returner.start();
+        try (Connection third = pool.getConnection()) {
+            assertFalse(third.isClosed(), "Gets the connection given back");
+        }
+        returner.join();
+        second.close();
+
+        assertEquals(2, pool.getSaturatedCount());
+        assertEquals(2, pool.getTotalCount());
+        assertTrue(pool.getMaxAcquireMicros() >= 10_000, "The wait is measured");
+    }
+
+    @Test
+    @DisplayName("A closed wrapper should be unusable and roll back its transaction")
+    void testReturn() throws SQLException {
+        Connection connection = pool.getConnection();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE t (x INT)");
+            statement.execute("INSERT INTO t VALUES (1)");
+        }
+        connection.close();
+        connection.close();
+        assertTrue(connection.isClosed());
+        assertThrows(SQLException.class, connection::createStatement);
+
+        try (Connection next = pool.getConnection();
+             Statement statement = next.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM t")) {
+            assertTrue(next.getAutoCommit());
+            rs.next();
+            assertEquals(0, rs.getInt(1), "The uncommitted insert was rolled back");
+        }
+    }
+
+    @Test
+    @DisplayName("Dead connections should be replaced")
+    void testValidation() throws SQLException {
+        pool.setValidationWindow(0);
+        try (Connection connection = pool.getConnection()) {
+            connection.unwrap(Connection.class).close(); // the server drops it while in use
+        }
+        assertEquals(1, pool.getDiscardedCount());
+
+        Connection physical;
+        try (Connection connection = pool.getConnection()) {
+            physical = connection.unwrap(Connection.class);
+        }
+        physical.close(); // and while idle
+        try (Connection connection = pool.getConnection()) {
+            assertFalse(connection.unwrap(Connection.class).isClosed());
+        }
+        assertEquals(3, pool.getCreatedCount());
+        assertEquals(1, pool.getTotalCount());
+    }
+
+    @Test
+    @DisplayName("A quiet pool should shrink back to its minimum")
+    void testIdleEviction() throws Exception {
+        pool.setIdleTimeout(50);
+        Connection first = pool.getConnection();
+        Connection second = pool.getConnection();
+        first.close();
+        second.close();
+        assertEquals(2, pool.getIdleCount(), "Both were used just now");
+        assertEquals(0, pool.evictIdle());
+
+        pool.startHousekeeping(20);
+        long deadline = System.nanoTime() + 2_000_000_000L;
+        while (pool.getTotalCount() > 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, pool.getTotalCount(), "Closed down to the minimum without any calls");
+        assertEquals(1, pool.getIdleCount());
+        assertEquals(1, pool.getDiscardedCount());
+    }
+
+    @Test
+    @DisplayName("Evictions running at the same time should not go below the minimum")
+    void testConcurrentEviction() throws Exception {
+        String url = "jdbc:h2:mem:pool" + databases.incrementAndGet() + ";DB_CLOSE_DELAY=-1";
+        try (ConnectionPool wide = new ConnectionPool(url, "sa", "", 2, 8)) {
+            wide.setIdleTimeout(1);
+            Connection[] connections = new Connection[8];
+            for (int round = 0; round < 50; round++) {
+                for (int i = 0; i < connections.length; i++) {
+                    connections[i] = wide.getConnection();
+                }
+                for (Connection connection : connections) {
+                    connection.close();
+                }
+                Thread.sleep(5);
+
+                CountDownLatch go = new CountDownLatch(1);
+                Thread[] evictors = new Thread[4];
+                for (int t = 0; t < evictors.length; t++) {
+                    evictors[t] = new Thread(() -> {
+                        try {
+                            go.await();
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                        wide.evictIdle();
+                    });
+                    evictors[t].start();
+                }
+                go.countDown();
+                for (Thread evictor : evictors) {
+                    evictor.join();
+                }
+                assertEquals(2, wide.getTotalCount(), "Round " + round);
+                assertEquals(2, wide.getIdleCount(), "Round " + round);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Fill should open the minimum and close should stop the pool")
+    void testFillAndClose() throws SQLException {
+        pool.fill();
+        assertEquals(1, pool.getIdleCount());
+        Connection connection = pool.getConnection();
+        pool.close();
+        assertThrows(SQLException.class, pool::getConnection);
+        connection.close();
+        assertEquals(0, pool.getTotalCount());
+        assertThrows(IllegalArgumentException.class, () -> new ConnectionPool("jdbc:h2:mem:x", "sa", "", 3, 2));
+    }
+}
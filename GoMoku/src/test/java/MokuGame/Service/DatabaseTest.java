@@ -3,6 +3,15 @@ package MokuGame.Service;
 import MokuGame.Core.GoMokuBoard;
 import org.junit.jupiter.api.*;
 
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -43,6 +52,7 @@ class DatabaseTest {
                 database.deleteBoard(name);
             }
         }
+        database.close();
     }
 
     @Test
@@ -260,4 +270,101 @@ class DatabaseTest {
             assertEquals('X', loaded.getCell(i, i));
         }
     }
+
+    @Test
+    @Order(14)
+    @DisplayName("Save boards should save every board across batches")
+    void testSaveBoards() {
+        Map<String, GoMokuBoard> boards = new LinkedHashMap<>();
+        for (int i = 0; i < 5; i++) {
+            GoMokuBoard board = new GoMokuBoard(10, 10);
+            board.setCell(i, i, 'X');
+            boards.put(TEST_PREFIX + "batch_" + i, board);
+        }
+        database.setBatchSize(2);
+
+        assertTrue(database.saveBoards(boards), "Saving boards should return true");
+        assertTrue(database.saveBoards(boards), "Saving them again should replace them");
+        for (int i = 0; i < 5; i++) {
+            GoMokuBoard loaded = database.loadBoard(TEST_PREFIX + "batch_" + i);
+            assertNotNull(loaded);
+            assertEquals('X', loaded.getCell(i, i));
+        }
+        assertTrue(database.saveBoards(Map.of()), "Saving no boards should succeed");
+        assertThrows(IllegalArgumentException.class, () -> database.setBatchSize(0));
+    }
+
+    @Test
+    @Order(15)
+    @DisplayName("Save boards should save nothing if one board fails")
+    void testSaveBoardsRollsBack() {
+        Map<String, GoMokuBoard> boards = new LinkedHashMap<>();
+        boards.put(TEST_PREFIX + "batch_good", new GoMokuBoard(10, 10));
+        boards.put(null, new GoMokuBoard(10, 10)); // name is NOT NULL
+
+        assertFalse(database.saveBoards(boards));
+        assertNull(database.loadBoard(TEST_PREFIX + "batch_good"), "The whole batch is rolled back");
+    }
+
+    @Test
+    @Order(16)
+    @DisplayName("Boards saved as text should be converted and still load")
+    void testMigrateTextBoards() throws SQLException {
+        String testName = TEST_PREFIX + "text_board";
+        GoMokuBoard original = new GoMokuBoard(10, 10);
+        original.setCell(2, 3, 'X');
+        original.setCell(4, 5, 'O');
+        // a row as saved before the binary format
+        try (Connection conn = DriverManager.getConnection("jdbc:postgresql://localhost:5432/gomoku", "postgres", "alma");
+             PreparedStatement pstmt = conn.prepareStatement(
+                 "INSERT INTO boards (name, rows, columns, board_data) VALUES (?, 10, 10, ?)")) {
+            pstmt.setString(1, testName);
+            pstmt.setString(2, original.serialize());
+            pstmt.executeUpdate();
+        }
+
+        assertEquals(original.serialize(), database.loadBoard(testName).serialize(), "Text rows load before conversion");
+        assertTrue(database.migrateBoards() >= 1);
+        assertEquals(0, database.migrateBoards(), "Nothing is left to convert");
+        assertEquals(original.serialize(), database.loadBoard(testName).serialize());
+    }
+
+    @Test
+    @Order(17)
+    @DisplayName("Logged games should replay without the moves taken back")
+    void testGameLog() {
+        String gameId = TEST_PREFIX + "logged_game";
+        database.deleteGame(gameId);
+        long time = System.currentTimeMillis();
+        List<MoveRecord> log = List.of(
+            MoveRecord.start(gameId, 9, 9, time),
+            MoveRecord.move(gameId, 1, 4, 4, 'X', time),
+            MoveRecord.move(gameId, 2, 4, 5, 'O', time),
+            MoveRecord.move(gameId, 3, 0, 0, 'X', time),
+            MoveRecord.takeBack(gameId, 2, time),
+            MoveRecord.move(gameId, 3, 5, 5, 'X', time),
+            MoveRecord.move(gameId, 4, 3, 3, 'O', time),
+            MoveRecord.takeBack(gameId, 3, time));
+        try {
+            assertTrue(database.appendMoves(log));
+            assertTrue(database.appendMoves(List.of(MoveRecord.start(gameId, 9, 9, time))), "Starting again is ignored");
+            assertTrue(Arrays.asList(database.listGames()).contains(gameId));
+
+            int[][] moves = database.loadMoves(gameId);
+            assertArrayEquals(new int[][]{{4, 4}, {4, 5}, {5, 5}}, moves);
+
+            GoMoKuGameService game = database.loadGame(gameId);
+            assertNotNull(game);
+            assertEquals(9, game.getBoard().getRows());
+            assertEquals(3, game.getMoveCount());
+            assertEquals('O', game.getCurrentPlayer());
+            assertEquals('X', game.getBoard().getCell(5, 5));
+            assertEquals('.', game.getBoard().getCell(0, 0), "Taken back");
+            assertEquals('.', game.getBoard().getCell(3, 3), "Taken back");
+        } finally {
+            database.deleteGame(gameId);
+        }
+        assertNull(database.loadGame(gameId));
+        assertNull(database.loadMoves(gameId));
+    }
 }
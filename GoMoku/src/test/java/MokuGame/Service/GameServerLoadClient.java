@@ -0,0 +1,173 @@
+package MokuGame.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load-test client for the GameServer. It opens all connections first, each on its own virtual
+ * thread, and once every one is connected they all play at the same time: NEW, then random MOVE
+ * commands, starting a new game whenever one ends. Every command's round trip is timed, and the
+ * client prints the latency percentiles and the command rate.
+ *
+ * Run a server, then the client:
+ * mvn compile exec:java -Dexec.mainClass=MokuGame.Service.GameServer -Dexec.args="7777 --no-database"
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=MokuGame.Service.GameServerLoadClient
+ *   -Dexec.args="localhost 7777 10000 50"
+ */
+public class GameServerLoadClient {
+
+    private final String host;
+    private final int port;
+    private final int connections;
+    private final int commands;
+
+    /**
+     * Creates a load test.
+     *
+     * @param host the server host
+     * @param port the server port
+     * @param connections the number of simultaneous connections
+     * @param commands the number of commands each connection sends
+     */
+    public GameServerLoadClient(String host, int port, int connections, int commands) {
+        this.host = host;
+        this.port = port;
+        this.connections = connections;
+        this.commands = commands;
+    }
+
+    /**
+     * Runs the load and prints the report.
+     *
+     * @throws InterruptedException if interrupted while waiting for the connections
+     */
+    public void run() throws InterruptedException {
+        long[][] latencies = new long[connections][];
+        AtomicInteger failed = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch connected = new CountDownLatch(connections);
+        CountDownLatch go = new CountDownLatch(1);
+        long[] window = new long[2];
+
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < connections; c++) {
+                int connection = c;
+                threads.submit(() -> {
+                    Socket socket;
+                    try {
+                        socket = new Socket(host, port);
+                        socket.setTcpNoDelay(true);
+                    } catch (IOException e) {
+                        failed.incrementAndGet();
+                        connected.countDown();
+                        return;
+                    }
+                    connected.countDown();
+                    try (socket) {
+                        go.await();
+                        latencies[connection] = play(socket, new SplittableRandom(connection), errors);
+                    } catch (IOException | InterruptedException e) {
+                        failed.incrementAndGet();
+                    }
+                });
+            }
+            connected.await();
+            System.out.printf("%d connections open, %d failed to connect%n", connections - failed.get(), failed.get());
+            window[0] = System.nanoTime();
+            go.countDown();
+        } // waits for every connection to finish
+        window[1] = System.nanoTime();
+
+        report(latencies, failed.get(), errors.get(), window[1] - window[0]);
+    }
+
+    /**
+     * Plays random games on one connection.
+     *
+     * @return the round-trip time of every command in nanoseconds
+     */
+    private long[] play(Socket socket, SplittableRandom random, AtomicInteger errors) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        OutputStream out = socket.getOutputStream();
+        long[] times = new long[commands];
+        boolean inGame = false;
+        for (int i = 0; i < commands; i++) {
+            String command = inGame ? "MOVE " + random.nextInt(15) + " " + random.nextInt(15) + "\n" : "NEW 15\n";
+            long start = System.nanoTime();
+            out.write(command.getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            String reply = in.readLine();
+            times[i] = System.nanoTime() - start;
+            if (reply == null) {
+                throw new IOException("Server closed the connection");
+            }
+            if (!inGame) {
+                inGame = reply.startsWith("OK");
+            } else if (reply.contains("WIN") || reply.contains("DRAW")) {
+                inGame = false;
+            } else if (reply.startsWith("ERR") && !reply.equals("ERR illegal move")) {
+                errors.incrementAndGet();
+            }
+        }
+        out.write("QUIT\n".getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        in.readLine();
+        return times;
+    }
+
+    private void report(long[][] latencies, int failed, int errors, long elapsedNanos) {
+        int total = 0;
+        for (long[] times : latencies) {
+            total += times == null ? 0 : times.length;
+        }
+        long[] all = new long[total];
+        int n = 0;
+        for (long[] times : latencies) {
+            if (times != null) {
+                System.arraycopy(times, 0, all, n, times.length);
+                n += times.length;
+            }
+        }
+        Arrays.sort(all);
+
+        System.out.printf("%d commands in %.2f s: %.0f commands/s, %d failed connections, %d errors%n",
+            total, elapsedNanos / 1e9, total * 1e9 / elapsedNanos, failed, errors);
+        System.out.println("latency   p50      p90      p99      p99.9    max (ms)");
+        System.out.printf("        %8.3f %8.3f %8.3f %8.3f %8.3f%n",
+            percentile(all, 0.50), percentile(all, 0.90), percentile(all, 0.99),
+            percentile(all, 0.999), total == 0 ? 0 : all[total - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(fraction * sorted.length) - 1)] / 1e6;
+    }
+
+    /**
+     * Runs the load test.
+     * Arguments: host (default localhost), port (default 7777), connections (default 10000)
+     * and commands per connection (default 50).
+     *
+     * @param args the command line arguments
+     * @throws InterruptedException if interrupted
+     */
+    public static void main(String[] args) throws InterruptedException {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : GameServer.DEFAULT_PORT;
+        int connections = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+        int commands = args.length > 3 ? Integer.parseInt(args[3]) : 50;
+        new GameServerLoadClient(host, port, connections, commands).run();
+    }
+}
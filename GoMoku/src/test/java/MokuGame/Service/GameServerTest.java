@@ -0,0 +1,111 @@
+package MokuGame.Service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test suite for the GameServer.
+ * Tests the line protocol directly and over real connections; the database commands are left
+ * to DatabaseTest, since they need PostgreSQL. Move logging runs against an in-memory H2 database.
+ */
+class GameServerTest {
+
+    @Test
+    @DisplayName("Commands should play a game and report the result")
+    void testCommands() {
+        GameServer server = new GameServer(new GameSessionManager(), null);
+        GameServer.Client client = new GameServer.Client();
+
+        assertEquals("ERR no game", server.handle("MOVE 7 7", client));
+        assertTrue(server.handle("NEW 9", client).startsWith("OK "));
+        assertTrue(server.handle("BOARD", client).startsWith("OK 9 9 X "));
+        for (int i = 0; i < 4; i++) {
+            assertEquals("OK X 0 " + i, server.handle("MOVE 0 " + i, client));
+            assertEquals("OK O 1 " + i, server.handle("move 1 " + i, client));
+        }
+        assertEquals("ERR illegal move", server.handle("MOVE 0 0", client));
+        assertEquals("OK X 0 4 WIN X", server.handle("MOVE 0 4", client));
+        assertEquals("ERR game over", server.handle("MOVE 2 2", client));
+        assertEquals("OK", server.handle("UNDO", client));
+        assertEquals("OK", server.handle("REDO", client));
+
+        assertEquals("ERR no database", server.handle("SAVE test", client));
+        assertEquals("ERR board size must be between 5 and 100", server.handle("NEW 3", client));
+        assertTrue(server.handle("NEW x", client).startsWith("ERR not a number"));
+        assertEquals("ERR unknown command FLY", server.handle("FLY", client));
+        assertEquals("OK", server.handle("END", client));
+        assertEquals("ERR no game", server.handle("BOARD", client));
+        assertEquals("BYE", server.handle("QUIT", client));
+    }
+
+    @Test
+    @DisplayName("Games started with NEW should be logged move by move")
+    void testMoveLog() throws InterruptedException {
+        try (Database database = new Database("jdbc:h2:mem:server;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "", 1, 2)) {
+            database.initializeDatabase();
+            try (MoveLog moveLog = new MoveLog(database)) {
+                GameServer server = new GameServer(new GameSessionManager(), null, moveLog);
+                GameServer.Client client = new GameServer.Client();
+                String id = server.handle("NEW 9", client).substring(3);
+                server.handle("MOVE 4 4", client);
+                server.handle("MOVE 4 5", client);
+                server.handle("MOVE 3 3", client);
+                server.handle("UNDO", client);
+                assertTrue(moveLog.flush(5_000));
+
+                GoMoKuGameService loaded = database.loadGame(id);
+                assertEquals(2, loaded.getMoveCount());
+                assertEquals("OK 9 9 X " + loaded.getBoard().serialize(), server.handle("BOARD", client));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Two connections should be able to play the same game")
+    void testSharedGame() throws IOException {
+        GameSessionManager sessions = new GameSessionManager();
+        GameServer server = new GameServer(sessions, null);
+        server.start(0);
+        try (Socket first = new Socket("localhost", server.getPort());
+             Socket second = new Socket("localhost", server.getPort())) {
+            BufferedReader firstIn = reader(first);
+            PrintWriter firstOut = writer(first);
+            BufferedReader secondIn = reader(second);
+            PrintWriter secondOut = writer(second);
+
+            firstOut.println("NEW");
+            String id = firstIn.readLine().substring(3);
+            secondOut.println("JOIN " + id);
+            assertEquals("OK " + id, secondIn.readLine());
+
+            firstOut.println("MOVE 7 7");
+            assertEquals("OK X 7 7", firstIn.readLine());
+            secondOut.println("MOVE 7 8");
+            assertEquals("OK O 7 8", secondIn.readLine());
+            firstOut.println("QUIT");
+            assertEquals("BYE", firstIn.readLine());
+            assertTrue(sessions.contains(id), "The game outlives the connection");
+        } finally {
+            server.stop();
+        }
+        assertEquals(0, server.getConnectionCount());
+        assertEquals(5, server.getCommandCount());
+    }
+
+    private static BufferedReader reader(Socket socket) throws IOException {
+        return new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    private static PrintWriter writer(Socket socket) throws IOException {
+        return new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+    }
+}
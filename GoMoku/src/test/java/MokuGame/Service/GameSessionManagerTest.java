@@ -0,0 +1,114 @@
+package MokuGame.Service;
+
+import MokuGame.Core.GoMokuBoard;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test suite for the GameSessionManager.
+ * Tests session lookup, the session limit, idle eviction and moves from many threads at once.
+ */
+class GameSessionManagerTest {
+
+    @Test
+    @DisplayName("Created sessions should be found by ID and play their own games")
+    void testCreateAndPlay() {
+        GameSessionManager manager = new GameSessionManager();
+        GameSession first = manager.create(15, 15);
+        GameSession second = manager.create(9, 9);
+        assertNotEquals(first.getId(), second.getId());
+        assertEquals(2, manager.size());
+
+        assertTrue(manager.makeMove(first.getId(), 7, 7));
+        assertFalse(manager.makeMove(first.getId(), 7, 7), "Cell taken");
+        assertTrue(manager.makeMove(second.getId(), 7, 7), "Other game, other board");
+        assertEquals((Character) GoMokuBoard.Player2, manager.withSession(first.getId(), GoMoKuGameService::getCurrentPlayer));
+        assertEquals((Integer) 9, manager.withSession(second.getId(), service -> service.getBoard().getRows()));
+
+        assertFalse(manager.makeMove("no-such-game", 0, 0));
+        assertNull(manager.withSession("no-such-game", GoMoKuGameService::getCurrentPlayer));
+    }
+
+    @Test
+    @DisplayName("Sessions past the limit should be refused until one is removed")
+    void testLimit() {
+        GameSessionManager manager = new GameSessionManager(2, 1000);
+        GameSession first = manager.create(15, 15);
+        assertNotNull(manager.create(15, 15));
+        assertNull(manager.create(15, 15));
+
+        assertTrue(manager.remove(first.getId()));
+        assertFalse(manager.remove(first.getId()));
+        assertFalse(manager.contains(first.getId()));
+        assertNotNull(manager.create(15, 15));
+        assertEquals(2, manager.size());
+    }
+
+    @Test
+    @DisplayName("Only sessions unused for the idle timeout should be evicted")
+    void testIdleEviction() {
+        AtomicLong now = new AtomicLong();
+        GameSessionManager manager = new GameSessionManager(10, 1000, now::get);
+        GameSession idle = manager.create(15, 15);
+        GameSession busy = manager.create(15, 15);
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(600));
+        manager.makeMove(busy.getId(), 7, 7);
+        assertEquals(0, manager.evictIdle());
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(600));
+        assertEquals(1, manager.evictIdle());
+        assertFalse(manager.contains(idle.getId()));
+        assertFalse(manager.makeMove(idle.getId(), 7, 7), "Evicted sessions are gone");
+        assertTrue(manager.contains(busy.getId()));
+        assertEquals(1, manager.size());
+    }
+
+    @Test
+    @DisplayName("Concurrent moves should be applied one at a time per session")
+    void testConcurrentMoves() throws Exception {
+        GameSessionManager manager = new GameSessionManager();
+        String[] ids = new String[4];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = manager.create(15, 15).getId();
+        }
+        AtomicInteger made = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> tasks = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            tasks.add(pool.submit(() -> {
+                // every thread tries every cell of every game; each cell can be taken once
+                for (int cell = 0; cell < 15 * 15; cell++) {
+                    int spread = (cell * 7 + thread * 31) % (15 * 15);
+                    for (String id : ids) {
+                        if (manager.makeMove(id, spread / 15, spread % 15)) {
+                            made.incrementAndGet();
+                        }
+                    }
+                }
+            }));
+        }
+        for (Future<?> task : tasks) {
+            task.get();
+        }
+        pool.shutdown();
+
+        int stones = 0;
+        for (String id : ids) {
+            stones += manager.withSession(id, service -> service.getMoveCount());
+        }
+        assertEquals(stones, made.get(), "Every successful move is on a board exactly once");
+    }
+}
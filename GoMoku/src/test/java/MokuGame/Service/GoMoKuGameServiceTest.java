@@ -5,6 +5,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -292,4 +295,145 @@ class GoMoKuGameServiceTest {
         assertTrue(rectService.makeMove(5, 10), "Should work on rectangular board");
         assertEquals('X', rectBoard.getCell(5, 10));
     }
+
+    @Test
+    @DisplayName("Filling a board too small to win should end in a draw")
+    void testDrawOnFullSmallBoard() {
+        GoMokuBoard tiny = new GoMokuBoard(4, 4);
+        GoMoKuGameService tinyService = new GoMoKuGameService(tiny);
+
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                assertFalse(tinyService.isGameOver(), "Game should continue while cells are empty");
+                assertTrue(tinyService.makeMove(i, j));
+            }
+        }
+
+        assertTrue(tinyService.isGameOver(), "Game should be over when board is full");
+        assertEquals('.', tinyService.getWinner(), "Full board without winner should be a draw");
+    }
+
+    @Test
+    @DisplayName("Undo should remove the stone and give the turn back")
+    void testUndoMove() {
+        assertFalse(service.undoMove(), "Nothing to undo on a new game");
+        service.makeMove(7, 7);
+        service.makeMove(7, 8);
+        long hash = board.getHash();
+        service.makeMove(8, 8);
+
+        assertTrue(service.undoMove());
+        assertTrue(board.isEmpty(8, 8));
+        assertEquals('X', service.getCurrentPlayer());
+        assertEquals(2, service.getMoveCount());
+        assertEquals(hash, board.getHash(), "Undo should restore the exact position");
+    }
+
+    @Test
+    @DisplayName("Undoing the winning move should reopen the game, redoing it should win again")
+    void testUndoRedoWin() {
+        for (int i = 0; i < 4; i++) {
+            service.makeMove(0, i);
+            service.makeMove(1, i);
+        }
+        service.makeMove(0, 4);
+        assertTrue(service.isGameOver());
+
+        assertTrue(service.undoMove());
+        assertFalse(service.isGameOver());
+        assertEquals('.', service.getWinner());
+        assertEquals('X', service.getCurrentPlayer());
+
+        assertTrue(service.redoMove());
+        assertTrue(service.isGameOver());
+        assertEquals('X', service.getWinner());
+        assertFalse(service.redoMove(), "Nothing left to redo");
+    }
+
+    @Test
+    @DisplayName("Redo should replay undone moves until a new move is made")
+    void testRedoMove() {
+        service.makeMove(7, 7);
+        service.makeMove(7, 8);
+        service.makeMove(8, 8);
+        service.undoMove();
+        service.undoMove();
+        assertEquals(2, service.getRedoCount());
+
+        assertTrue(service.redoMove());
+        assertEquals('O', board.getCell(7, 8));
+        assertEquals('X', service.getCurrentPlayer());
+
+        service.makeMove(0, 0);
+        assertEquals(0, service.getRedoCount(), "A new move should drop the redo moves");
+        assertFalse(service.redoMove());
+        assertTrue(board.isEmpty(8, 8));
+    }
+
+    @Test
+    @DisplayName("Undoing a draw should reopen the game")
+    void testUndoDraw() {
+        GoMokuBoard tiny = new GoMokuBoard(4, 4);
+        GoMoKuGameService tinyService = new GoMoKuGameService(tiny);
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                tinyService.makeMove(i, j);
+            }
+        }
+        assertTrue(tinyService.isGameOver());
+
+        assertTrue(tinyService.undoMove());
+        assertFalse(tinyService.isGameOver());
+        assertEquals('O', tinyService.getCurrentPlayer());
+        while (tinyService.undoMove()) {
+            // back to the start
+        }
+        assertEquals(16, tiny.getEmptyCount());
+        assertEquals('X', tinyService.getCurrentPlayer());
+    }
+
+    @Test
+    @DisplayName("Reset should clear the move history")
+    void testResetClearsHistory() {
+        service.makeMove(7, 7);
+        service.makeMove(7, 8);
+        service.undoMove();
+        service.reset();
+        assertEquals(0, service.getMoveCount());
+        assertEquals(0, service.getRedoCount());
+        assertFalse(service.undoMove());
+        assertFalse(service.redoMove());
+    }
+
+    @Test
+    @DisplayName("Move listeners should hear every move, undo, redo and reset")
+    void testMoveListener() {
+        List<String> events = new ArrayList<>();
+        MoveListener listener = new MoveListener() {
+            @Override
+            public void movePlayed(GoMoKuGameService game, int ply, int row, int column, char player) {
+                assertEquals(ply, game.getMoveCount(), "Called after the move is recorded");
+                events.add(ply + " " + player + " " + row + "," + column);
+            }
+
+            @Override
+            public void movesTakenBack(GoMoKuGameService game, int moveCount) {
+                events.add("back " + moveCount);
+            }
+        };
+        service.addMoveListener(listener);
+
+        service.makeMove(7, 7);
+        service.makeMove(7, 8);
+        assertFalse(service.makeMove(7, 8), "Illegal moves are not reported");
+        service.undoMove();
+        service.redoMove();
+        service.reset();
+        assertEquals(List.of("1 X 7,7", "2 O 7,8", "back 1", "2 O 7,8", "back 0"), events);
+
+        assertTrue(service.removeMoveListener(listener));
+        assertFalse(service.removeMoveListener(listener));
+        service.makeMove(0, 0);
+        assertEquals(5, events.size());
+    }
 }
@@ -0,0 +1,147 @@
+package MokuGame.Service;
+
+import MokuGame.Core.GoMokuBoard;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of what logging costs a move: makeMove with no log ("none"), with a MoveLog writing
+ * in the background ("async"), and with each move appended to the database before makeMove returns
+ * ("sync"), as a logger without the queue would. A scripted game is played over and over, with a reset
+ * after its last move; the main method prints microseconds per move. It needs PostgreSQL; by default
+ * it uses the local server the same way new Database() does:
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=MokuGame.Service.MoveLogBenchmark
+ *   [-Dgomoku.db.url=jdbc:postgresql://host:5432/gomoku -Dgomoku.db.user=postgres -Dgomoku.db.password=alma]
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class MoveLogBenchmark {
+
+    private static final String PREFIX = "bench_log_";
+    private static final int SCRIPT_MOVES = 60;
+
+    @Param({"none", "async", "sync"})
+    public String logging;
+
+    private Database database;
+    private MoveLog moveLog;
+    private GoMoKuGameService game;
+    private int[][] script;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String url = System.getProperty("gomoku.db.url");
+        database = url == null ? new Database() : new Database(url, System.getProperty("gomoku.db.user", "postgres"),
+            System.getProperty("gomoku.db.password", "alma"), Database.DEFAULT_MIN_POOL_SIZE, Database.DEFAULT_MAX_POOL_SIZE);
+        database.initializeDatabase();
+        script = scriptedGame(15, SCRIPT_MOVES);
+
+        game = new GoMoKuGameService(new GoMokuBoard(15, 15));
+        String gameId = PREFIX + logging;
+        database.deleteGame(gameId);
+        if (logging.equals("async")) {
+            moveLog = new MoveLog(database);
+            moveLog.attach(gameId, game);
+        } else if (logging.equals("sync")) {
+            database.appendMoves(List.of(MoveRecord.start(gameId, 15, 15, System.currentTimeMillis())));
+            game.addMoveListener(new MoveListener() {
+                @Override
+                public void movePlayed(GoMoKuGameService game, int ply, int row, int column, char player) {
+                    database.appendMoves(List.of(MoveRecord.move(gameId, ply, row, column, player, System.currentTimeMillis())));
+                }
+
+                @Override
+                public void movesTakenBack(GoMoKuGameService game, int moveCount) {
+                    database.appendMoves(List.of(MoveRecord.takeBack(gameId, moveCount, System.currentTimeMillis())));
+                }
+            });
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        if (moveLog != null) {
+            moveLog.flush(60_000);
+            System.out.println("\n" + moveLog);
+            moveLog.close();
+        }
+        database.deleteGame(PREFIX + logging);
+        database.close();
+    }
+
+    @Benchmark
+    public boolean move() {
+        if (next == script.length) {
+            game.reset();
+            next = 0;
+            return true;
+        }
+        int[] move = script[next++];
+        return game.makeMove(move[0], move[1]);
+    }
+
+    /**
+     * Picks random moves that do not end the game.
+     */
+    private static int[][] scriptedGame(int size, int moves) {
+        SplittableRandom random = new SplittableRandom(42);
+        GoMokuBoard board = new GoMokuBoard(size, size);
+        int[][] script = new int[moves][];
+        char player = GoMokuBoard.Player1;
+        for (int i = 0; i < moves; ) {
+            int cell = board.getEmptyCell(random.nextInt(board.getEmptyCount()));
+            int row = board.rowOf(cell);
+            int column = board.columnOf(cell);
+            board.setCell(row, column, player);
+            if (GoMoKuGameService.isWinningMove(board, row, column)) {
+                board.setCell(row, column, GoMokuBoard.Empty);
+                continue;
+            }
+            script[i++] = new int[]{row, column};
+            player = player == GoMokuBoard.Player1 ? GoMokuBoard.Player2 : GoMokuBoard.Player1;
+        }
+        return script;
+    }
+
+    /**
+     * Runs the benchmark and prints microseconds per move.
+     *
+     * @param args unused
+     * @throws RunnerException if JMH fails
+     */
+    public static void main(String[] args) throws RunnerException {
+        List<String> jvmArgs = new ArrayList<>(List.of("-Dorg.slf4j.simpleLogger.defaultLogLevel=warn"));
+        for (String key : new String[]{"gomoku.db.url", "gomoku.db.user", "gomoku.db.password"}) {
+            if (System.getProperty(key) != null) {
+                jvmArgs.add("-D" + key + "=" + System.getProperty(key));
+            }
+        }
+        Options options = new OptionsBuilder()
+            .include(MoveLogBenchmark.class.getSimpleName())
+            .jvmArgsAppend(jvmArgs.toArray(new String[0]))
+            .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        System.out.println("\nlogging   us per move     moves/s");
+        for (RunResult result : results) {
+            double micros = result.getPrimaryResult().getScore();
+            System.out.printf("%-7s  %12.2f  %10.0f%n", result.getParams().getParam("logging"), micros, 1_000_000 / micros);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package MokuGame.Service;
+
+import MokuGame.Core.GoMokuBoard;
+import org.h2.tools.Server;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.sql.SQLException;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test suite for the MoveLog.
+ * Tests that logged games replay to the same state, that moves are written in batches, and what
+ * happens on close, on bad data and while the database is down, against in-memory H2 databases,
+ * so PostgreSQL is not needed.
+ */
+class MoveLogTest {
+
+    private static final AtomicInteger databases = new AtomicInteger();
+
+    private Database database;
+    private MoveLog moveLog;
+
+    @BeforeEach
+    void setUp() {
+        String url = "jdbc:h2:mem:movelog" + databases.incrementAndGet() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+        database = new Database(url, "sa", "", 1, 2);
+        database.initializeDatabase();
+        moveLog = new MoveLog(database, 1000, 50);
+    }
+
+    @AfterEach
+    void tearDown() {
+        moveLog.close();
+        database.close();
+    }
+
+    @Test
+    @DisplayName("A logged game should load with the same board, player to move and result")
+    void testReplay() throws InterruptedException {
+        GoMoKuGameService game = new GoMoKuGameService(new GoMokuBoard(15, 15));
+        moveLog.attach("game", game);
+        game.makeMove(7, 7);
+        game.makeMove(0, 0);
+        game.undoMove();
+        game.makeMove(8, 8);
+        game.makeMove(7, 8);
+        game.undoMove();
+        game.undoMove();
+        game.redoMove();
+        assertTrue(moveLog.flush(5_000));
+
+        GoMoKuGameService loaded = database.loadGame("game");
+        assertEquals(game.getBoard().serialize(), loaded.getBoard().serialize());
+        assertEquals(game.getCurrentPlayer(), loaded.getCurrentPlayer());
+        assertEquals(game.getMoveCount(), loaded.getMoveCount());
+
+        for (int i = 0; i < 5; i++) {
+            game.makeMove(0, i);
+            if (i < 4) {
+                game.makeMove(1, i);
+            }
+        }
+        assertTrue(game.isGameOver());
+        assertTrue(moveLog.flush(5_000));
+        loaded = database.loadGame("game");
+        assertTrue(loaded.isGameOver());
+        assertEquals(game.getWinner(), loaded.getWinner());
+
+        game.reset();
+        assertTrue(moveLog.flush(5_000));
+        assertEquals(0, database.loadGame("game").getMoveCount());
+        assertEquals(0, moveLog.getFailedCount());
+    }
+
+    @Test
+    @DisplayName("A game on a loaded board should replay with the stones it started with")
+    void testLoadedBoard() throws InterruptedException {
+        GoMokuBoard board = new GoMokuBoard(15, 15);
+        board.setCell(7, 7, GoMokuBoard.Player1);
+        board.setCell(8, 8, GoMokuBoard.Player2);
+        board.setCell(7, 9, GoMokuBoard.Player1);
+        board.setCell(6, 6, GoMokuBoard.Player2);
+        GoMoKuGameService game = new GoMoKuGameService(board);
+        moveLog.attach("loaded", game);
+        game.makeMove(3, 3);
+        game.makeMove(4, 4);
+        game.makeMove(5, 5);
+        game.undoMove();
+        assertTrue(moveLog.flush(5_000));
+
+        GoMoKuGameService loaded = database.loadGame("loaded");
+        assertEquals(game.getBoard().serialize(), loaded.getBoard().serialize());
+        assertEquals(game.getCurrentPlayer(), loaded.getCurrentPlayer());
+        assertEquals(6, loaded.getMoveCount());
+
+        game.reset();
+        game.makeMove(0, 0);
+        assertTrue(moveLog.flush(5_000));
+        assertEquals(game.getBoard().serialize(), database.loadGame("loaded").getBoard().serialize());
+        assertEquals(0, moveLog.getFailedCount());
+    }
+
+    @Test
+    @DisplayName("Interleaved games should be written in batches and each replay correctly")
+    void testBatching() throws InterruptedException {
+        Random random = new Random(11);
+        GoMoKuGameService[] games = new GoMoKuGameService[4];
+        for (int g = 0; g < games.length; g++) {
+            games[g] = new GoMoKuGameService(new GoMokuBoard(19, 19));
+            moveLog.attach("game" + g, games[g]);
+        }
+        int entries = games.length;
+        for (int move = 0; move < 400; move++) {
+            GoMoKuGameService game = games[random.nextInt(games.length)];
+            if (game.isGameOver() || random.nextInt(10) == 0) {
+                game.undoMove();
+            } else {
+                GoMokuBoard board = game.getBoard();
+                int cell = board.getEmptyCell(random.nextInt(board.getEmptyCount()));
+                game.makeMove(board.rowOf(cell), board.columnOf(cell));
+            }
+            entries++;
+        }
+        assertTrue(moveLog.flush(10_000));
+
+        assertEquals(entries, moveLog.getWrittenCount());
+        assertTrue(moveLog.getBatchCount() < entries, "Several entries share a batch: " + moveLog);
+        for (int g = 0; g < games.length; g++) {
+            GoMoKuGameService loaded = database.loadGame("game" + g);
+            assertEquals(games[g].getBoard().serialize(), loaded.getBoard().serialize(), "game" + g);
+            assertEquals(games[g].getMoveCount(), loaded.getMoveCount());
+        }
+        assertEquals(games.length, database.listGames().length);
+    }
+
+    @Test
+    @DisplayName("Close should write what is queued and drop later moves")
+    void testClose() {
+        GoMoKuGameService game = new GoMoKuGameService(new GoMokuBoard(9, 9));
+        moveLog.attach("game", game);
+        for (int i = 0; i < 9; i += 2) {
+            game.makeMove(4, i);
+            game.makeMove(5, i);
+        }
+        moveLog.close();
+        assertEquals(11, moveLog.getWrittenCount());
+        assertEquals(0, moveLog.getPendingCount());
+        assertEquals(10, database.loadMoves("game").length);
+
+        game.undoMove();
+        assertEquals(1, moveLog.getFailedCount());
+    }
+
+    @Test
+    @DisplayName("Entries with bad data should be dropped without the other games in their batch")
+    void testBadEntry() throws InterruptedException {
+        long time = System.currentTimeMillis();
+        moveLog.enqueue(MoveRecord.start("good", 9, 9, time));
+        moveLog.enqueue(MoveRecord.move("good", 1, 4, 4, 'X', time));
+        moveLog.enqueue(MoveRecord.move(null, 1, 4, 4, 'X', time));
+        moveLog.enqueue(MoveRecord.move("good", 2, 4, 5, 'O', time));
+        assertTrue(moveLog.flush(5_000));
+
+        assertEquals(3, moveLog.getWrittenCount());
+        assertEquals(1, moveLog.getFailedCount());
+        assertEquals(0, moveLog.getRetryCount(), "A constraint violation is not retried");
+        assertArrayEquals(new int[][]{{4, 4}, {4, 5}}, database.loadMoves("good"));
+    }
+
+    @Test
+    @DisplayName("Moves made while the database is down should be written once it is back")
+    void testOutage() throws SQLException, InterruptedException {
+        Server server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        int port = server.getPort();
+        String url = "jdbc:h2:tcp://localhost:" + port + "/mem:outage" + databases.incrementAndGet()
+            + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+        try (Database remote = new Database(url, "sa", "", 1, 2)) {
+            remote.initializeDatabase();
+            remote.getPool().setAcquireTimeout(100);
+            try (MoveLog remoteLog = new MoveLog(remote, 1000, 50)) {
+                GoMoKuGameService game = new GoMoKuGameService(new GoMokuBoard(15, 15));
+                remoteLog.attach("game", game);
+                game.makeMove(7, 7);
+                game.makeMove(7, 8);
+                assertTrue(remoteLog.flush(5_000));
+
+                server.stop();
+                for (int i = 0; i < 6; i++) {
+                    game.makeMove(i, 0);
+                }
+                game.undoMove();
+                assertFalse(remoteLog.flush(500), "Nothing can be written while the database is down");
+                assertTrue(remoteLog.getRetryCount() > 0);
+
+                server = Server.createTcpServer("-tcpPort", String.valueOf(port), "-ifNotExists").start();
+                assertTrue(remoteLog.flush(15_000));
+                assertEquals(0, remoteLog.getFailedCount());
+                assertEquals(10, remoteLog.getWrittenCount());
+
+                GoMoKuGameService loaded = remote.loadGame("game");
+                assertEquals(game.getBoard().serialize(), loaded.getBoard().serialize());
+                assertEquals(7, loaded.getMoveCount());
+            }
+        } finally {
+            server.stop();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package MokuGame.Service;
+
+import MokuGame.Core.GoMokuBoard;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of archiving many boards: Database.saveBoards in batches against saveBoard in a loop.
+ * Each operation saves the same number of finished-looking boards, replacing the previous round's,
+ * and the main method prints boards saved per second. It needs PostgreSQL, since the upsert is
+ * PostgreSQL SQL; by default it uses the local server the same way new Database() does:
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=MokuGame.Service.SaveBoardsBenchmark
+ *   [-Dgomoku.db.url=jdbc:postgresql://host:5432/gomoku -Dgomoku.db.user=postgres -Dgomoku.db.password=alma]
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class SaveBoardsBenchmark {
+
+    private static final String PREFIX = "bench_batch_";
+
+    @Param({"1000"})
+    public int boards;
+
+    @Param({"loop", "100", "500"})
+    public String batch;
+
+    private Database database;
+    private Map<String, GoMokuBoard> archive;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String url = System.getProperty("gomoku.db.url");
+        database = url == null ? new Database() : new Database(url, System.getProperty("gomoku.db.user", "postgres"),
+            System.getProperty("gomoku.db.password", "alma"), Database.DEFAULT_MIN_POOL_SIZE, Database.DEFAULT_MAX_POOL_SIZE);
+        database.initializeDatabase();
+        if (!batch.equals("loop")) {
+            database.setBatchSize(Integer.parseInt(batch));
+        }
+
+        SplittableRandom random = new SplittableRandom(42);
+        archive = new LinkedHashMap<>();
+        for (int i = 0; i < boards; i++) {
+            GoMokuBoard board = new GoMokuBoard(15, 15);
+            for (int stone = 0; stone < 40; stone++) {
+                int cell = board.getEmptyCell(random.nextInt(board.getEmptyCount()));
+                board.setCell(board.rowOf(cell), board.columnOf(cell), stone % 2 == 0 ? GoMokuBoard.Player1 : GoMokuBoard.Player2);
+            }
+            archive.put(PREFIX + i, board);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (String name : archive.keySet()) {
+            database.deleteBoard(name);
+        }
+        database.close();
+    }
+
+    @Benchmark
+    public boolean save() {
+        if (batch.equals("loop")) {
+            boolean saved = true;
+            for (Map.Entry<String, GoMokuBoard> entry : archive.entrySet()) {
+                saved &= database.saveBoard(entry.getKey(), entry.getValue());
+            }
+            return saved;
+        }
+        return database.saveBoards(archive);
+    }
+
+    /**
+     * Runs the benchmark and prints boards saved per second.
+     *
+     * @param args unused
+     * @throws RunnerException if JMH fails
+     */
+    public static void main(String[] args) throws RunnerException {
+        List<String> jvmArgs = new ArrayList<>(List.of("-Dorg.slf4j.simpleLogger.defaultLogLevel=warn"));
+        for (String key : new String[]{"gomoku.db.url", "gomoku.db.user", "gomoku.db.password"}) {
+            if (System.getProperty(key) != null) {
+                jvmArgs.add("-D" + key + "=" + System.getProperty(key));
+            }
+        }
+        Options options = new OptionsBuilder()
+            .include(SaveBoardsBenchmark.class.getSimpleName())
+            .jvmArgsAppend(jvmArgs.toArray(new String[0]))
+            .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        System.out.println("\nbatch   ms per round   boards/s");
+        for (RunResult result : results) {
+            double millis = result.getPrimaryResult().getScore();
+            int count = Integer.parseInt(result.getParams().getParam("boards"));
+            System.out.printf("%-5s  %13.1f  %9.0f%n", result.getParams().getParam("batch"), millis, count * 1000 / millis);
+        }
+    }
+}
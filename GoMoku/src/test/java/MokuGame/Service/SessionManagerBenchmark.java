@@ -0,0 +1,118 @@
+package MokuGame.Service;
+
+import MokuGame.Core.GoMokuBoard;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH load generator for the GameSessionManager: many threads make moves in randomly chosen
+ * sessions, and the score is moves per second. The "global" locking mode runs the same load behind
+ * one shared lock, the way a single synchronized service would, to show what per-session locks gain.
+ * Running the main method benchmarks every power of two from 1 thread up to the core count,
+ * or the thread counts given as arguments:
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=MokuGame.Service.SessionManagerBenchmark [-Dexec.args="1 4 16"]
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class SessionManagerBenchmark {
+
+    @Param({"10000"})
+    public int sessions;
+
+    @Param({"session", "global"})
+    public String locking;
+
+    private final Object globalLock = new Object();
+    private GameSessionManager manager;
+    private String[] ids;
+    private boolean global;
+
+    @State(Scope.Thread)
+    public static class Player {
+        final SplittableRandom random = new SplittableRandom();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        manager = new GameSessionManager(sessions, GameSessionManager.DEFAULT_IDLE_TIMEOUT_MILLIS);
+        ids = new String[sessions];
+        for (int i = 0; i < sessions; i++) {
+            ids[i] = manager.create(15, 15).getId();
+        }
+        global = locking.equals("global");
+    }
+
+    @Benchmark
+    public Boolean move(Player player) {
+        String id = ids[player.random.nextInt(ids.length)];
+        if (global) {
+            synchronized (globalLock) {
+                return manager.withSession(id, service -> play(service, player.random));
+            }
+        }
+        return manager.withSession(id, service -> play(service, player.random));
+    }
+
+    /**
+     * Makes a random move, starting the game again once it is over.
+     */
+    private static boolean play(GoMoKuGameService service, SplittableRandom random) {
+        if (service.isGameOver()) {
+            service.reset();
+        }
+        GoMokuBoard board = service.getBoard();
+        int cell = board.getEmptyCell(random.nextInt(board.getEmptyCount()));
+        return service.makeMove(board.rowOf(cell), board.columnOf(cell));
+    }
+
+    /**
+     * Runs the load at each thread count and prints moves per second for both locking modes.
+     *
+     * @param args the thread counts, or none for powers of two up to the core count
+     * @throws RunnerException if JMH fails
+     */
+    public static void main(String[] args) throws RunnerException {
+        List<Integer> counts = new ArrayList<>();
+        for (String arg : args) {
+            counts.add(Integer.parseInt(arg));
+        }
+        if (counts.isEmpty()) {
+            int cores = Runtime.getRuntime().availableProcessors();
+            for (int t = 1; t < cores; t *= 2) {
+                counts.add(t);
+            }
+            counts.add(cores);
+        }
+
+        List<String> lines = new ArrayList<>();
+        for (int threads : counts) {
+            Options options = new OptionsBuilder()
+                .include(SessionManagerBenchmark.class.getSimpleName())
+                .threads(threads)
+                .jvmArgsAppend("-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+                .build();
+            Collection<RunResult> results = new Runner(options).run();
+            for (RunResult result : results) {
+                lines.add(String.format("%7d  %-8s  %14.0f", threads,
+                    result.getParams().getParam("locking"), result.getPrimaryResult().getScore()));
+            }
+        }
+        System.out.println("\nthreads  locking   moves/s");
+        lines.forEach(System.out::println);
+    }
+}
@@ -0,0 +1,120 @@
+package UI;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test suite for the PiskvorkAdapter.
+ * Tests the protocol commands, the move coordinates and the time and memory budgets.
+ */
+class PiskvorkAdapterTest {
+
+    @Test
+    @DisplayName("BEGIN and TURN should answer with legal moves")
+    void testBeginAndTurn() {
+        PiskvorkAdapter adapter = new PiskvorkAdapter("search:2");
+        try {
+            assertEquals("ERROR no board", adapter.handle("BEGIN"));
+            assertEquals("OK", adapter.handle("START 15"));
+            String first = adapter.handle("BEGIN");
+            assertMove(first, 15, 15);
+            assertTrue(adapter.handle("TURN " + first).startsWith("ERROR"), "An occupied cell is rejected");
+            assertMove(adapter.handle("TURN 0,0"), 15, 15);
+            assertEquals("OK", adapter.handle("TAKEBACK 0,0"));
+            assertTrue(adapter.handle("TAKEBACK 0,0").startsWith("ERROR"));
+        } finally {
+            adapter.close();
+        }
+    }
+
+    @Test
+    @DisplayName("BOARD should set up the position and block a four")
+    void testBoard() {
+        PiskvorkAdapter adapter = new PiskvorkAdapter("search:2");
+        try {
+            assertEquals("OK", adapter.handle("RECTSTART 20,15"));
+            assertNull(adapter.handle("BOARD"));
+            // the opponent has four in column 3, rows 2 to 5, closed at row 1; x is the column
+            assertNull(adapter.handle("3,1,1"));
+            for (int y = 2; y <= 5; y++) {
+                assertNull(adapter.handle("3," + y + ",2"));
+            }
+            assertNull(adapter.handle("10,10,1"));
+            assertNull(adapter.handle("12,12,1"));
+            assertNull(adapter.handle("14,10,1"));
+            String move = adapter.handle("DONE");
+            assertEquals("3,6", move, "Blocks the four");
+        } finally {
+            adapter.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Unknown and malformed commands should be reported")
+    void testErrors() {
+        PiskvorkAdapter adapter = new PiskvorkAdapter("random");
+        assertEquals("UNKNOWN FLY", adapter.handle("fly"));
+        assertTrue(adapter.handle("START x").startsWith("ERROR"));
+        assertTrue(adapter.handle("START 3").startsWith("ERROR"));
+        assertNull(adapter.handle("INFO rule 0"));
+        assertNull(adapter.handle("INFO rule 2"), "Continuous game plays like freestyle");
+        assertTrue(adapter.handle("INFO rule 1").startsWith("ERROR"), "Exact five is not supported");
+        assertTrue(adapter.handle("INFO rule 4").startsWith("ERROR"), "Renju is not supported");
+        assertTrue(adapter.handle("ABOUT").startsWith("name="));
+        assertThrows(IllegalArgumentException.class, () -> new PiskvorkAdapter("minimax"));
+        assertThrows(IllegalArgumentException.class, () -> new PiskvorkAdapter("search:abc"));
+        assertThrows(IllegalArgumentException.class, () -> new PiskvorkAdapter("search:0"));
+    }
+
+    @Test
+    @DisplayName("INFO should set the move time and the table size")
+    void testBudgets() {
+        PiskvorkAdapter adapter = new PiskvorkAdapter("random");
+        assertEquals(PiskvorkAdapter.DEFAULT_TURN_MILLIS * 9 / 10 - PiskvorkAdapter.SAFETY_MILLIS, adapter.turnBudget());
+
+        adapter.handle("INFO timeout_turn 1000");
+        assertEquals(870, adapter.turnBudget());
+        adapter.handle("INFO time_left 3000");
+        assertEquals(3000 / PiskvorkAdapter.MOVES_TO_PLAN * 9 / 10 - PiskvorkAdapter.SAFETY_MILLIS, adapter.turnBudget());
+        adapter.handle("INFO time_left 10");
+        assertEquals(PiskvorkAdapter.MIN_TURN_MILLIS, adapter.turnBudget());
+        adapter.handle("INFO timeout_turn 0");
+        assertEquals(PiskvorkAdapter.MIN_TURN_MILLIS, adapter.turnBudget());
+
+        adapter.handle("INFO max_memory 83886080"); // 80 MB
+        assertEquals(8, adapter.hashMegabytes());
+        adapter.handle("INFO max_memory 1");
+        assertEquals(1, adapter.hashMegabytes());
+    }
+
+    @Test
+    @DisplayName("run should answer every command until END")
+    void testRun() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        String input = "START 10\nINFO timeout_turn 200\nBEGIN\nEND\nABOUT\n";
+        new PiskvorkAdapter("search:2").run(new BufferedReader(new StringReader(input)),
+            new PrintStream(bytes, true, StandardCharsets.US_ASCII));
+        String[] lines = bytes.toString(StandardCharsets.US_ASCII).split("\n");
+        assertEquals(2, lines.length, "Nothing is read after END");
+        assertEquals("OK", lines[0]);
+        assertMove(lines[1], 10, 10);
+    }
+
+    private static void assertMove(String reply, int columns, int rows) {
+        assertNotNull(reply);
+        String[] parts = reply.split(",");
+        assertEquals(2, parts.length, "Expected x,y but got " + reply);
+        int x = Integer.parseInt(parts[0]);
+        int y = Integer.parseInt(parts[1]);
+        assertTrue(x >= 0 && x < columns && y >= 0 && y < rows, "Off the board: " + reply);
+    }
+}